@@ -1,5 +1,7 @@
 package org.coins1920.group05;
 
+import io.vavr.control.Either;
+import org.coins1920.group05.condorizor.GitHubOrgCondorizor;
 import org.coins1920.group05.condorizor.GitHubRepoCondorizor;
 import org.coins1920.group05.condorizor.TrelloBoardCondorizor;
 import org.coins1920.group05.fetcher.TicketBoard;
@@ -7,6 +9,7 @@ import org.coins1920.group05.util.Pair;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
 
 public class DefaultTicketBoardCondorizer implements TicketBoardCondorizer {
 
@@ -37,4 +40,53 @@ public class DefaultTicketBoardCondorizer implements TicketBoardCondorizer {
                 throw new IllegalArgumentException("Ticket board type wasn't recognized!");
         }
     }
+
+    @Override
+    public Map<String, Either<File, Pair<File, File>>> organizationToCsvFiles(
+            TicketBoard ticketBoardType,
+            String organization,
+            String outputDir
+    ) {
+        switch (ticketBoardType) {
+            case GITHUB:
+                final boolean paginate = true;
+                final boolean fetchClosedTickets = true;
+                return new GitHubOrgCondorizor(paginate)
+                        .fetchGitHubOrganization(organization, fetchClosedTickets, outputDir);
+
+            case TRELLO:
+            case JIRA:
+                throw new UnsupportedOperationException();
+
+            default:
+                throw new IllegalArgumentException("Ticket board type wasn't recognized!");
+        }
+    }
+
+    @Override
+    public Pair<File, File> archiveToCsvFiles(
+            TicketBoard ticketBoardType,
+            String owner,
+            String board,
+            String archiveDir,
+            String outputDir
+    ) throws IOException, ClassNotFoundException {
+        switch (ticketBoardType) {
+            case GITHUB:
+                final boolean paginate = true;
+                final boolean fetchClosedTickets = true;
+                return GitHubRepoCondorizor.replaying(archiveDir, paginate)
+                        .fetchGitHubIssues(owner, board, fetchClosedTickets, outputDir)
+                        .getOrElseThrow(f -> new RuntimeException(
+                                "Couldn't replay everything from the archive in " + archiveDir
+                        ));
+
+            case TRELLO:
+            case JIRA:
+                throw new UnsupportedOperationException();
+
+            default:
+                throw new IllegalArgumentException("Ticket board type wasn't recognized!");
+        }
+    }
 }
@@ -1,11 +1,17 @@
 package org.coins1920.group05;
 
+import io.vavr.control.Either;
 import org.coins1920.group05.fetcher.TicketBoard;
 import org.coins1920.group05.util.Pair;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
 
 public interface TicketBoardCondorizer {
     Pair<File, File> ticketBoardToCsvFiles(TicketBoard ticketBoardType, String owner, String board, String outputDir) throws IOException, ClassNotFoundException;
+
+    Map<String, Either<File, Pair<File, File>>> organizationToCsvFiles(TicketBoard ticketBoardType, String organization, String outputDir);
+
+    Pair<File, File> archiveToCsvFiles(TicketBoard ticketBoardType, String owner, String board, String archiveDir, String outputDir) throws IOException, ClassNotFoundException;
 }
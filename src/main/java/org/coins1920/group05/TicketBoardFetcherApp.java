@@ -47,6 +47,23 @@ public class TicketBoardFetcherApp {
                 outputDir = args[3];
                 break;
 
+            case "github-org":
+                // all repos of an organization, each one into a sub folder of the output folder:
+                condorizer.organizationToCsvFiles(TicketBoard.GITHUB, args[1], args[2])
+                        .forEach((repo, result) -> result.peekLeft(partialResult -> System.err.println(
+                                "Couldn't fetch everything for " + repo + ", the partial result is: " + partialResult)));
+                return;
+
+            case "replay":
+                // condorize a repo once more, from the responses archived by a former run:
+                if (args.length < 4) {
+                    throw new IllegalArgumentException("Not enough arguments given!");
+                }
+                final String archiveDir = System.getenv("GITHUB_ARCHIVE_DIR");
+                condorizer.archiveToCsvFiles(TicketBoard.GITHUB, args[1], args[2],
+                        (archiveDir != null && !archiveDir.trim().isEmpty()) ? archiveDir : args[3], args[3]);
+                return;
+
             default:
                 throw new IllegalArgumentException("Could not recognize ticket board type!");
         }
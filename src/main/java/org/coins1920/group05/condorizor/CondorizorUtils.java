@@ -1,6 +1,7 @@
 package org.coins1920.group05.condorizor;
 
 import org.coins1920.group05.fetcher.FetchingResult;
+import org.coins1920.group05.fetcher.FetchingResultBuilder;
 import org.coins1920.group05.model.condor.Actor;
 import org.coins1920.group05.model.condor.Edge;
 import org.coins1920.group05.model.general.AbstractComment;
@@ -8,13 +9,24 @@ import org.coins1920.group05.model.general.AbstractMember;
 import org.coins1920.group05.model.general.AbstractTicket;
 import org.coins1920.group05.model.general.Interaction;
 import org.coins1920.group05.model.github.rest.Comment;
+import org.coins1920.group05.model.github.rest.Event;
 import org.coins1920.group05.model.github.rest.Issue;
 import org.coins1920.group05.util.Pair;
+import org.coins1920.group05.util.UrlSet;
 
 import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -28,8 +40,8 @@ import java.util.stream.Stream;
 public class CondorizorUtils {
 
     /**
-     * Combines to Comments fetching result lists into a single one by
-     * looking up the issues in both lists.
+     * Combines to Comments fetching result lists into a single one by looking up the issues
+     * in both lists (see mergeByIssue()): there is a single, combined fetching result per issue.
      *
      * @param fr1 the first comments fetching result list
      * @param fr2 the second comments fetching result list
@@ -38,27 +50,11 @@ public class CondorizorUtils {
     public static List<Pair<Issue, FetchingResult<Comment>>> combineCommentsFetchingResults(
             List<Pair<Issue, FetchingResult<Comment>>> fr1,
             List<Pair<Issue, FetchingResult<Comment>>> fr2) {
-        final List<Pair<Issue, FetchingResult<Comment>>> fetchingResults1
-                = (fr1 != null) ? fr1 : new LinkedList<>();
-        final List<Pair<Issue, FetchingResult<Comment>>> fetchingResults2
-                = (fr2 != null) ? fr2 : new LinkedList<>();
-
-        final List<Issue> allIssues = io.vavr.collection.List
-                .ofAll(fetchingResults1)
-                .appendAll(fetchingResults2)
-                .toJavaStream()
-                .map(Pair::getFirst)
-                .collect(Collectors.toList());
-
-        return allIssues
-                .stream()
-                .map(i -> matchingIssueResultPairsForIssue(i, fetchingResults1, fetchingResults2))
-                .flatMap(CondorizorUtils::foldMatchingResults)
-                .collect(Collectors.toList());
+        return mergeByIssue(fr1, fr2, FetchingResult::union);
     }
 
     /**
-     * Combines n Issue FetchingResults into a single one.
+     * Combines n Issue FetchingResults into a single one (in their order).
      *
      * @param fetchingResults the results to combine
      * @return the combined one
@@ -67,28 +63,163 @@ public class CondorizorUtils {
     public static FetchingResult<Issue> combineIssueFetchingResults(FetchingResult<Issue>... fetchingResults) {
         return Arrays
                 .stream(fetchingResults)
-                .reduce(new FetchingResult<>(), (acc, i) -> FetchingResult.union(i, acc));
+                .collect(FetchingResultBuilder.toFetchingResult());
     }
 
+    /**
+     * Combines two lists of (issue, comments) pairs into a single one by looking up the issues
+     * in both lists (see mergeByIssue()). The comments of an issue are merged by their IDs, i.e.
+     * comments that are part of both lists are kept only once (the one from newComments wins).
+     *
+     * @param oldComments the first list of (issue, comments) pairs
+     * @param newComments the second list of (issue, comments) pairs
+     * @return the combined one
+     */
     public static List<Pair<Issue, List<Comment>>> combineIssueCommentsPairs(
             List<Pair<Issue, List<Comment>>> oldComments,
             List<Pair<Issue, List<Comment>>> newComments) {
-        final List<Pair<Issue, List<Comment>>> comments1
-                = (oldComments != null) ? oldComments : new LinkedList<>();
-        final List<Pair<Issue, List<Comment>>> comments2
-                = (newComments != null) ? newComments : new LinkedList<>();
-
-        final List<Issue> allIssues = io.vavr.collection.List
-                .ofAll(comments1)
-                .appendAll(comments2)
-                .toJavaStream()
-                .map(Pair::getFirst)
+        return mergeByIssue(oldComments, newComments, (c1, c2) -> mergeById(c1, c2, Comment::getId));
+    }
+
+    /**
+     * Merges two lists of (issue, X) pairs in a single pass: the pairs are grouped by the issue's
+     * key (see IssueMerger.keyOf()), the X of each group are folded into one. That way, an issue
+     * that is part of both lists (even as two different instances, e.g. one that was read from a
+     * partial result) ends up in a single pair. The issues keep the order they first occurred in,
+     * but the latest version of each issue is kept (see IssueMerger.latest()).
+     *
+     * @param l1   the first list of pairs (may be null)
+     * @param l2   the second list of pairs (may be null)
+     * @param fold a function that combines two X of the same issue
+     * @param <U>  type parameter for the X
+     * @return the merged list, with a single pair per issue
+     */
+    private static <U> List<Pair<Issue, U>> mergeByIssue(
+            List<Pair<Issue, U>> l1,
+            List<Pair<Issue, U>> l2,
+            BinaryOperator<U> fold) {
+        final Map<Object, Pair<Issue, U>> pairsByIssue = new LinkedHashMap<>();
+        Stream.of(l1, l2)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .filter(p -> p != null && p.getFirst() != null)
+                .forEach(p -> pairsByIssue.merge(IssueMerger.keyOf(p.getFirst()), p, (former, latter) ->
+                        new Pair<>(IssueMerger.latest(former.getFirst(), latter.getFirst()),
+                                fold.apply(former.getSecond(), latter.getSecond()))));
+        return new ArrayList<>(pairsByIssue.values());
+    }
+
+    /**
+     * Merges changed entities into a formerly stored list: entities with a known ID replace
+     * the former entity with that ID (keeping its position), new ones are appended. If an ID
+     * occurs more than once, the entity that comes last (in oldEntities, then changedEntities)
+     * wins, no matter which of them is more recent.
+     *
+     * @param oldEntities     the formerly stored entities
+     * @param changedEntities the new or changed entities
+     * @param toId            a function that computes an entity's ID
+     * @param <U>             type parameter for the entities
+     * @return the merged list
+     */
+    public static <U> List<U> mergeById(List<U> oldEntities, List<U> changedEntities, Function<U, String> toId) {
+        final Map<String, U> entitiesById = new LinkedHashMap<>();
+        final List<U> entitiesWithoutId = new LinkedList<>();
+        io.vavr.collection.List
+                .ofAll((oldEntities != null) ? oldEntities : new LinkedList<>())
+                .appendAll((changedEntities != null) ? changedEntities : new LinkedList<>())
+                .filter(e -> e != null)
+                .forEach(e -> {
+                    final String id = toId.apply(e);
+                    if (id == null) {
+                        entitiesWithoutId.add(e);
+                    } else {
+                        entitiesById.put(id, e);
+                    }
+                });
+
+        return io.vavr.collection.List
+                .ofAll(entitiesById.values())
+                .appendAll(entitiesWithoutId)
+                .toJavaList();
+    }
+
+    /**
+     * Joins the comments of a whole repo (see GitHubTicketBoardFetcher.fetchCommentsForBoard())
+     * to their issues by the comments' issue URLs. The result has the same shape as the one of
+     * the issue-by-issue fetching. If the repo-wide fetching failed (e.g. due to a rate limit),
+     * no issue's comments are complete: instead, every issue's comments URL is recorded as
+     * failed, so that the comments can be re-fetched issue by issue later on.
+     *
+     * @param issues         the issues
+     * @param boardComments  the result of fetching all comments of the repo
+     * @param visitedUrls    all comment URLs that have already been (successfully) visited before
+     * @return a list of (issue, comments fetching result) pairs, in the same order as the issues
+     */
+    public static List<Pair<Issue, FetchingResult<Comment>>> joinCommentsToIssues(
+            List<Issue> issues,
+            FetchingResult<Comment> boardComments,
+            Collection<String> visitedUrls) {
+        final UrlSet visited = UrlSet.of(visitedUrls);
+
+        // group the comments by their issue, keeping their order:
+        final Map<String, List<Comment>> commentsByIssueUrl = new HashMap<>();
+        boardComments
+                .getEntities()
+                .stream()
+                .filter(c -> c != null && c.getIssueUrl() != null)
+                .forEach(c -> commentsByIssueUrl
+                        .computeIfAbsent(c.getIssueUrl(), k -> new LinkedList<>())
+                        .add(c));
+
+        return issues
+                .stream()
+                .map(i -> {
+                    final String commentsUrl = commentsPath(i);
+                    if (commentsUrl == null || visited.contains(commentsUrl)) {
+                        // no comments or already visited:
+                        return new Pair<>(i, new FetchingResult<Comment>());
+
+                    } else if (boardComments.isRateLimitOccurred()) {
+                        return new Pair<>(i, new FetchingResult<Comment>(
+                                new LinkedList<>(),
+                                true,
+                                new LinkedList<>(),
+                                io.vavr.collection.List.of(commentsUrl).toJavaList()
+                        ));
+
+                    } else {
+                        return new Pair<>(i, new FetchingResult<>(
+                                commentsByIssueUrl.getOrDefault(i.getUrl(), new LinkedList<>()),
+                                false,
+                                io.vavr.collection.List.of(commentsUrl).toJavaList(),
+                                new LinkedList<>()
+                        ));
+                    }
+                })
                 .collect(Collectors.toList());
+    }
 
-        return allIssues
+    /**
+     * Groups the issue events of a whole repo (see GitHubTicketBoardFetcher.fetchEventsForBoard())
+     * by their issues, keeping only the assignments (i.e. "assigned" events).
+     *
+     * @param issues the issues
+     * @param events all issue events of the repo
+     * @return a list of (issue, assignment events) pairs, in the same order as the issues
+     */
+    public static List<Pair<Issue, List<Event>>> groupAssignmentsByIssue(List<Issue> issues, List<Event> events) {
+        final Map<String, List<Event>> assignmentsByIssueUrl = new HashMap<>();
+        events
                 .stream()
-                .map(i -> matchingIssueResultPairsForIssue(i, comments1, comments2))
-                .flatMap(List::stream)
+                .filter(e -> e != null && "assigned".equals(e.getEvent()))
+                .filter(e -> e.getAssignee() != null && e.getIssue() != null && e.getIssue().getUrl() != null)
+                .forEach(e -> assignmentsByIssueUrl
+                        .computeIfAbsent(e.getIssue().getUrl(), k -> new LinkedList<>())
+                        .add(e));
+
+        return issues
+                .stream()
+                .map(i -> new Pair<>(i, assignmentsByIssueUrl.getOrDefault(i.getUrl(), new LinkedList<>())))
                 .collect(Collectors.toList());
     }
 
@@ -134,39 +265,15 @@ public class CondorizorUtils {
         return condorCsvMarshaller.write(actors, edges, outputDir);
     }
 
-    private static <U> List<Pair<Issue, U>> matchingIssueResultPairsForIssue(
-            Issue i,
-            List<Pair<Issue, U>> l1,
-            List<Pair<Issue, U>> l2) {
-        final List<Pair<Issue, U>> rl1 = l1
-                .stream()
-                .filter(fr -> fr.getFirst() == i)
-                .collect(Collectors.toList());
-
-        final List<Pair<Issue, U>> rl2 = l2
-                .stream()
-                .filter(fr -> fr.getFirst() == i)
-                .collect(Collectors.toList());
-
-        return io.vavr.collection.List
-                .ofAll(rl1)
-                .appendAll(rl2)
-                .toJavaList();
-    }
-
-    private static Stream<Pair<Issue, FetchingResult<Comment>>> foldMatchingResults(
-            List<Pair<Issue, FetchingResult<Comment>>> matches) {
-        final Issue i = matches
-                .get(0)
-                .getFirst();
-
-        final FetchingResult<Comment> combinedFetchingResult = matches
-                .stream()
-                .map(Pair::getSecond)
-                .reduce(new FetchingResult<>(), (acc, c) -> FetchingResult.union(c, acc));
-
-        return Stream.of(
-                new Pair<>(i, combinedFetchingResult)
-        );
+    private static String commentsPath(Issue issue) {
+        if (issue.getCommentsUrl() == null || issue.getCommentsUrl().isEmpty()) {
+            return null;
+        }
+        try {
+            // the same (relative) URL the issue-by-issue fetching records:
+            return new URL(issue.getCommentsUrl()).getPath();
+        } catch (MalformedURLException e) {
+            return issue.getCommentsUrl();
+        }
     }
 }
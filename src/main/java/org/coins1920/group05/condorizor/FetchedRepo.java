@@ -0,0 +1,32 @@
+package org.coins1920.group05.condorizor;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.coins1920.group05.model.github.rest.Comment;
+import org.coins1920.group05.model.github.rest.Event;
+import org.coins1920.group05.model.github.rest.Issue;
+import org.coins1920.group05.model.github.rest.Reaction;
+import org.coins1920.group05.model.github.rest.User;
+import org.coins1920.group05.util.Pair;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything that was fetched for a single repo, i.e. all that is needed to condorize it
+ * without sending any further request.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Getter
+@AllArgsConstructor
+public class FetchedRepo {
+    private final String owner;
+    private final String board;
+    private final List<Issue> issues;
+    private final List<Pair<Issue, List<Comment>>> comments;
+    private final List<Pair<Issue, List<Event>>> assignments;
+    private final Map<String, List<Reaction>> reactions; // by node ID
+    private final List<User> users; // the full-blown users
+}
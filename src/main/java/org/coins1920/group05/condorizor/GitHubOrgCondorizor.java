@@ -0,0 +1,147 @@
+package org.coins1920.group05.condorizor;
+
+import io.vavr.control.Either;
+import lombok.extern.slf4j.Slf4j;
+import org.coins1920.group05.fetcher.FetchingResult;
+import org.coins1920.group05.model.github.rest.Repo;
+import org.coins1920.group05.util.EnvironmentHelper;
+import org.coins1920.group05.util.Pair;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Condorizes all repos of a GitHub organization in a single run. All repos share the same
+ * GitHubRepoCondorizor, i.e. the same fetcher (one token pool and rate limit budget, one set of
+ * per-stage concurrency limits) and the same user profiles, so that a user who took part in
+ * many repos is fetched only once.
+ * <p>
+ * Every repo goes through two stages: the fetch stage (issues, comments, users, ...) runs on
+ * a small pool of maxConcurrentRepos threads, the condorize stage (mapping and writing the CSV
+ * files) on a pool sized to the number of CPUs. That way, the next repos are already fetched
+ * while the former ones are condorized, and each repo's CSV files are written to a folder of
+ * its own as soon as the repo is done.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class GitHubOrgCondorizor {
+
+    private static final int DEFAULT_MAX_CONCURRENT_REPOS = 4;
+
+    private final GitHubRepoCondorizor repoCondorizor;
+    private final int maxConcurrentRepos;
+
+    public GitHubOrgCondorizor(boolean paginate) {
+        this(new GitHubRepoCondorizor(paginate), EnvironmentHelper.intFromEnvironment(
+                "GITHUB_ORG_MAX_CONCURRENT_REPOS", DEFAULT_MAX_CONCURRENT_REPOS));
+    }
+
+    public GitHubOrgCondorizor(GitHubRepoCondorizor repoCondorizor, int maxConcurrentRepos) {
+        this.repoCondorizor = repoCondorizor;
+        this.maxConcurrentRepos = Math.max(1, maxConcurrentRepos);
+    }
+
+    /**
+     * Fetches and condorizes all repos (that have an issue tracker) of the given organization.
+     * Each repo's results end up in a sub folder (named after the repo) of the output directory.
+     *
+     * @param organization       the organization's name
+     * @param fetchClosedTickets whether to fetch closed tickets as well or not
+     * @param outputDir          folder where results should be persisted
+     * @return for each repo (by name) either the journal of a partial result or a pair of Condor
+     * (Actor-, Edges-) files, repos that failed altogether are missing
+     */
+    public Map<String, Either<File, Pair<File, File>>> fetchGitHubOrganization(
+            String organization, boolean fetchClosedTickets, String outputDir) {
+        final FetchingResult<Repo> repoFetchingResult = repoCondorizor
+                .getFetcher()
+                .fetchBoardsForOrganization(organization);
+        if (repoFetchingResult.isRateLimitOccurred()) {
+            log.warn("A rate limit occurred when listing the repos of " + organization + ", some will be missing!");
+        }
+
+        final List<Repo> repos = repoFetchingResult
+                .getEntities()
+                .stream()
+                .filter(Repo::isHasIssues)
+                .collect(Collectors.toList());
+        log.info(organization + " has " + repos.size() + " repo(s) with an issue tracker!");
+
+        final ExecutorService fetchStage = Executors.newFixedThreadPool(maxConcurrentRepos, r -> {
+            final Thread thread = new Thread(r, "github-org-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final ExecutorService condorizeStage = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), r -> {
+                    final Thread thread = new Thread(r, "github-org-condorize");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        try {
+            final AtomicInteger finishedRepos = new AtomicInteger();
+            final Map<String, CompletableFuture<Either<File, Pair<File, File>>>> results = new LinkedHashMap<>();
+            repos.forEach(repo -> {
+                final String owner = (repo.getOwner() != null) ? repo.getOwner().getLogin() : organization;
+                final String repoDir = new File(outputDir, repo.getName()).getAbsolutePath();
+                // (the folder is created in the fetch stage, so that a failure only affects this repo):
+                results.put(repo.getName(), CompletableFuture
+                        .supplyAsync(() -> fetchRepo(owner, repo.getName(), fetchClosedTickets, createFolder(repoDir)),
+                                fetchStage)
+                        .thenApplyAsync(fetchedRepo -> {
+                            final Either<File, Pair<File, File>> result = fetchedRepo
+                                    .map(r -> repoCondorizor.condorize(r, repoDir));
+                            log.info("Finished " + owner + "/" + repo.getName() + " ("
+                                    + finishedRepos.incrementAndGet() + "/" + repos.size() + ")");
+                            return result;
+                        }, condorizeStage));
+            });
+
+            final Map<String, Either<File, Pair<File, File>>> condorizedRepos = new LinkedHashMap<>();
+            results.forEach((name, result) -> {
+                try {
+                    condorizedRepos.put(name, result.join());
+                } catch (CompletionException e) {
+                    log.error("Couldn't condorize " + organization + "/" + name + "!", e.getCause());
+                }
+            });
+            log.info("Fetcher statistics for " + organization + ": " + repoCondorizor.getFetcher().getStatistics());
+            return condorizedRepos;
+
+        } finally {
+            fetchStage.shutdownNow();
+            condorizeStage.shutdownNow();
+        }
+    }
+
+    private Either<File, FetchedRepo> fetchRepo(String owner, String board, boolean fetchClosedTickets, String outputDir) {
+        try {
+            return repoCondorizor.fetchGitHubRepo(owner, board, fetchClosedTickets, outputDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("The partial result of " + owner + "/" + board + " is unreadable!", e);
+        }
+    }
+
+    private static String createFolder(String folder) {
+        final File repoDir = new File(folder);
+        if (!repoDir.isDirectory() && !repoDir.mkdirs()) {
+            throw new UncheckedIOException(new IOException("Couldn't create the folder " + repoDir + "!"));
+        }
+        return folder;
+    }
+}
@@ -3,23 +3,37 @@ package org.coins1920.group05.condorizor;
 import io.vavr.control.Either;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.text.StringEscapeUtils;
+import org.coins1920.group05.fetcher.CheckpointJournal;
+import org.coins1920.group05.fetcher.FetchStageExecutor;
 import org.coins1920.group05.fetcher.FetchingResult;
+import org.coins1920.group05.fetcher.FetchingResultBuilder;
+import org.coins1920.group05.fetcher.GitHubFetcherConfig;
+import org.coins1920.group05.fetcher.GitHubGraphQlFetcher;
 import org.coins1920.group05.fetcher.GitHubIssueFetcher;
+import org.coins1920.group05.fetcher.GitHubTicketBoardFetcher;
 import org.coins1920.group05.fetcher.PartialFetchingResult;
+import org.coins1920.group05.fetcher.ReactiveGitHubIssueFetcher;
+import org.coins1920.group05.fetcher.StoredDataset;
+import org.coins1920.group05.fetcher.UserProfileCache;
 import org.coins1920.group05.model.condor.Actor;
 import org.coins1920.group05.model.condor.Edge;
 import org.coins1920.group05.model.condor.EdgeType;
 import org.coins1920.group05.model.general.Interaction;
 import org.coins1920.group05.model.github.rest.Comment;
+import org.coins1920.group05.model.github.rest.Event;
 import org.coins1920.group05.model.github.rest.Issue;
+import org.coins1920.group05.model.github.rest.Reaction;
 import org.coins1920.group05.model.github.rest.User;
 import org.coins1920.group05.util.Pair;
 import org.coins1920.group05.util.PersistenceHelper;
 import org.coins1920.group05.util.TimeFormattingHelper;
+import org.coins1920.group05.util.UrlSet;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -34,28 +48,218 @@ import java.util.stream.Stream;
 @Slf4j
 public class GitHubRepoCondorizor {
 
-    private final GitHubIssueFetcher fetcher;
+    private final GitHubTicketBoardFetcher fetcher;
+
+    // whether to fetch all comments of a repo at once instead of issue by issue:
+    private final boolean fetchCommentsForBoard;
+
+    // whether to store the fetched data and to fetch only what changed since the last run:
+    private final boolean incremental;
+
+    // whether to journal a run, so that an interrupted one can be continued (off when replaying an archive):
+    private final boolean resumable;
+
+    // whether to fetch the issue events of a repo (to find out who assigned whom):
+    private final boolean fetchEvents;
+
+    // whether to fetch the (emoji) reactions on all issues and comments (costs GraphQL requests):
+    private final boolean fetchReactions;
+
+    // a cache for full-blown user profiles (may be null):
+    private final UserProfileCache userProfileCache;
+
+    // all full-blown user profiles fetched so far (if there's no user cache), by user ID:
+    private final Map<String, User> fetchedProfiles = new ConcurrentHashMap<>();
 
     public GitHubRepoCondorizor(boolean paginate) {
-        final String oauthToken = System.getenv("GITHUB_OAUTH_KEY");
-        this.fetcher = new GitHubIssueFetcher(oauthToken, paginate);
+        this(GitHubFetcherConfig.fromEnvironment(paginate));
+    }
+
+    private GitHubRepoCondorizor(GitHubFetcherConfig config) {
+        this(createFetcher(config, System.getenv("GITHUB_FETCH_ENGINE")),
+                "repository".equalsIgnoreCase(System.getenv("GITHUB_COMMENT_MODE")),
+                !config.isReplayArchive() && "true".equalsIgnoreCase(System.getenv("GITHUB_INCREMENTAL")),
+                !"false".equalsIgnoreCase(System.getenv("GITHUB_FETCH_EVENTS")),
+                "true".equalsIgnoreCase(System.getenv("GITHUB_FETCH_REACTIONS")),
+                createUserProfileCache(config),
+                !config.isReplayArchive());
+    }
+
+    /**
+     * Creates a condorizor that answers all requests from the response archive in the given
+     * directory (see ResponseArchive), i.e. that doesn't send a single request. A replay starts
+     * from scratch every time: nothing is journaled, continued or stored for an incremental run.
+     * All other settings are taken from the environment, just like for a "live" run.
+     *
+     * @param archiveDir the response archive's directory
+     * @param paginate   whether to follow pagination links or not
+     * @return the condorizor
+     */
+    public static GitHubRepoCondorizor replaying(String archiveDir, boolean paginate) {
+        final GitHubFetcherConfig config = GitHubFetcherConfig.fromEnvironment(paginate);
+        config.setResponseArchiveDir(archiveDir);
+        config.setReplayArchive(true);
+        return new GitHubRepoCondorizor(config);
+    }
+
+    public GitHubRepoCondorizor(GitHubTicketBoardFetcher fetcher) {
+        this(fetcher, false, false, false, false, null);
+    }
+
+    public GitHubRepoCondorizor(GitHubTicketBoardFetcher fetcher, boolean fetchCommentsForBoard,
+                                boolean incremental, UserProfileCache userProfileCache) {
+        this(fetcher, fetchCommentsForBoard, incremental, false, false, userProfileCache);
+    }
+
+    public GitHubRepoCondorizor(GitHubTicketBoardFetcher fetcher, boolean fetchCommentsForBoard,
+                                boolean incremental, boolean fetchEvents, boolean fetchReactions,
+                                UserProfileCache userProfileCache) {
+        this(fetcher, fetchCommentsForBoard, incremental, fetchEvents, fetchReactions, userProfileCache, true);
+    }
+
+    public GitHubRepoCondorizor(GitHubTicketBoardFetcher fetcher, boolean fetchCommentsForBoard,
+                                boolean incremental, boolean fetchEvents, boolean fetchReactions,
+                                UserProfileCache userProfileCache, boolean resumable) {
+        this.fetcher = fetcher;
+        this.fetchCommentsForBoard = fetchCommentsForBoard;
+        this.incremental = incremental;
+        this.resumable = resumable;
+        this.fetchEvents = fetchEvents;
+        this.fetchReactions = fetchReactions;
+        this.userProfileCache = userProfileCache;
+    }
+
+    private static UserProfileCache createUserProfileCache(GitHubFetcherConfig config) {
+        if (config.getUserCacheDir() == null || config.getUserCacheDir().trim().isEmpty()) {
+            if (config.isOffline()) {
+                throw new IllegalArgumentException("The offline mode needs a user cache directory!");
+            }
+            return null;
+        }
+        try {
+            return new UserProfileCache(config.getUserCacheDir(), config.getUserCacheTtlSeconds(),
+                    config.getUserCacheMaxEntriesInMemory(), config.isOffline());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The user cache directory '"
+                    + config.getUserCacheDir() + "' is not usable!", e);
+        }
+    }
+
+    /**
+     * Creates the fetcher for the given engine name: "rest" (the default) uses the blocking
+     * RestTemplate-based fetcher, "reactive" the non-blocking WebClient-based one and "graphql"
+     * the one that fetches issues and comments together via GitHub's GraphQL API.
+     *
+     * @param config the fetcher config
+     * @param engine the engine name (may be null)
+     * @return the fetcher
+     */
+    private static GitHubTicketBoardFetcher createFetcher(GitHubFetcherConfig config, String engine) {
+        final String engineName = (engine == null || engine.trim().isEmpty()) ? "rest" : engine.trim();
+        switch (engineName.toLowerCase()) {
+            case "rest":
+                return new GitHubIssueFetcher(config);
+
+            case "reactive":
+                if (config.isReplayArchive()) {
+                    throw new IllegalArgumentException("The reactive fetch engine can't replay a response archive!");
+                } else if (config.getResponseArchiveDir() != null && !config.getResponseArchiveDir().trim().isEmpty()) {
+                    log.warn("The reactive fetch engine doesn't archive its responses!");
+                }
+                return new ReactiveGitHubIssueFetcher(config);
+
+            case "graphql":
+                return new GitHubGraphQlFetcher(config);
+
+            default:
+                throw new IllegalArgumentException("Unknown fetch engine '" + engine + "'!");
+        }
     }
 
     /**
      * Fetches all issues (tickets) from the given GitHub repository. Returns either
-     * a serialized partial result or a pair of Condor (Actor-, Edges-) files.
-     * The partial result can be used to continue fetching at a later point in time.
+     * the checkpoint journal of a partial result or a pair of Condor (Actor-, Edges-) files.
+     * The journal is used to continue fetching at a later point in time.
      *
      * @param owner              repo owner
      * @param board              repo name
      * @param fetchClosedTickets whether to fetch closed tickets as well or not
      * @param outputDir          folder where results should be persisted
-     * @return either a serialized partial result or a pair of Condor (Actor-, Edges-) files
+     * @return either the journal of a partial result or a pair of Condor (Actor-, Edges-) files
      * @throws IOException if persisting to one of the files didn't work
      */
     public Either<File, Pair<File, File>> fetchGitHubIssues(
             String owner, String board, boolean fetchClosedTickets, String outputDir) throws IOException, ClassNotFoundException {
-        // check if there already exists a partial result in the given output directory:
+        final Either<File, FetchedRepo> fetchedRepo = fetchGitHubRepo(owner, board, fetchClosedTickets, outputDir);
+        log.info("Fetcher statistics for " + owner + "/" + board + ": " + fetcher.getStatistics());
+        return fetchedRepo.map(r -> condorize(r, outputDir));
+    }
+
+    /**
+     * The fetch stage on its own: fetches all issues, comments and their participants from the
+     * given GitHub repository, but doesn't condorize them (see condorize()).
+     *
+     * @param owner              repo owner
+     * @param board              repo name
+     * @param fetchClosedTickets whether to fetch closed tickets as well or not
+     * @param outputDir          folder where (partial) results should be persisted
+     * @return either the journal of a partial result or everything that was fetched
+     * @throws IOException if persisting to one of the files didn't work
+     */
+    public Either<File, FetchedRepo> fetchGitHubRepo(
+            String owner, String board, boolean fetchClosedTickets, String outputDir) throws IOException, ClassNotFoundException {
+        return fetchOrContinue(owner, board, fetchClosedTickets, outputDir);
+    }
+
+    /**
+     * The condorize stage on its own: maps a fetched repo to Condor Actors/Edges and writes them
+     * to CSV files. No request is sent here.
+     *
+     * @param fetchedRepo everything that was fetched for the repo
+     * @param outputDir   folder where the CSV files should be written to
+     * @return a pair of Condor (Actor-, Edges-) files
+     */
+    public Pair<File, File> condorize(FetchedRepo fetchedRepo, String outputDir) {
+        // rectangularize:
+        final List<Pair<Issue, Interaction<User, Comment>>> rectangularizedIssues = rectangularize(
+                fetchedRepo.getIssues(), fetchedRepo.getComments(),
+                fetchedRepo.getAssignments(), fetchedRepo.getReactions());
+
+        // map to edges (tickets) and nodes (persons), then write to CSV files:
+        return CondorizorUtils.mapAndWriteToCsvFiles(
+                fetchedRepo.getUsers(),
+                rectangularizedIssues,
+                this::githubUsersToCondorActors,
+                this::githubIssuesToCondorEdges,
+                outputDir
+        );
+    }
+
+    public GitHubTicketBoardFetcher getFetcher() {
+        return fetcher;
+    }
+
+    private Either<File, FetchedRepo> fetchOrContinue(
+            String owner, String board, boolean fetchClosedTickets, String outputDir) throws IOException, ClassNotFoundException {
+        if (!resumable) {
+            // fetch everything, without looking at (or leaving behind) any former results:
+            return fetchEverything(owner, board, fetchClosedTickets, outputDir, null, null, CheckpointJournal.none());
+        }
+
+        // check if there is the journal of a former run (that was interrupted or ran into a rate limit):
+        // (a journal without a complete header is replayed, too: replay() cleans it up):
+        final Optional<CheckpointJournal.Header> journalHeader = CheckpointJournal.readHeader(owner, board, outputDir);
+        if (journalHeader.isPresent() || CheckpointJournal.journalFile(owner, board, outputDir).exists()) {
+            final PartialFetchingResult<Issue, User, Comment> journaledResult = CheckpointJournal
+                    .replay(owner, board, outputDir);
+            log.debug("There is a checkpoint journal (created at "
+                    + journalHeader.map(CheckpointJournal.Header::getCreatedAt).orElse(null) + ")!");
+            return fetchEverything(owner, board, fetchClosedTickets, outputDir,
+                    journaledResult.getIssueFetchingResult(),
+                    CondorizorUtils.combineCommentsFetchingResults(journaledResult.getCommentsFetchingResults(), null));
+        }
+
+        // check if there already exists a (serialized) partial result of an older version in the given output directory:
         if (PersistenceHelper.checkForPartialResult(owner, board, outputDir)) {
             final PartialFetchingResult<Issue, User, Comment> partialFetchingResult = PersistenceHelper
                     .readPersistedPartialResult(owner, board, outputDir);
@@ -63,22 +267,201 @@ public class GitHubRepoCondorizor {
             final FetchingResult<Issue> issueFetchingResult = partialFetchingResult.getIssueFetchingResult();
             final List<Pair<Issue, FetchingResult<Comment>>> commentsFetchingResults =
                     partialFetchingResult.getCommentsFetchingResults();
+
+            // carry them over into the journal (which supersedes them):
+            try (CheckpointJournal journal = CheckpointJournal.open(owner, board, outputDir)) {
+                journal.appendIssues(issueFetchingResult);
+                for (Pair<Issue, FetchingResult<Comment>> comments : commentsFetchingResults) {
+                    journal.appendComments(comments.getFirst(), comments.getSecond());
+                }
+            }
+            PersistenceHelper.deletePartialResults(owner, board, outputDir);
             return fetchEverything(owner, board, fetchClosedTickets, outputDir, issueFetchingResult, commentsFetchingResults);
+        }
 
+        // is there a dataset from a former run, so that we only have to fetch what changed since then?
+        if (incremental) {
+            final Optional<StoredDataset<Issue, Comment, Event, User>> dataset = PersistenceHelper
+                    .readPersistedDataset(owner, board, outputDir);
+            if (dataset.isPresent() && dataset.get().getWatermark() != null
+                    && dataset.get().isClosedTicketsIncluded() == fetchClosedTickets) {
+                return fetchChanges(owner, board, fetchClosedTickets, outputDir, dataset.get());
+            }
+        }
+        return fetchEverything(owner, board, fetchClosedTickets, outputDir, null, null);
+    }
+
+    /**
+     * Fetches all issues and comments that changed since the last run and merges them into
+     * the stored dataset. Only the events of the changed issues and the profiles of the users
+     * who took part in the changes are fetched, the ones of everything else are taken from the
+     * dataset. If a rate limit occurs, the merged dataset is stored, but its watermark stays the
+     * same, so that the next run picks up where this one stopped.
+     *
+     * @return either the (not yet complete) dataset or everything that was fetched
+     */
+    private Either<File, FetchedRepo> fetchChanges(
+            String owner, String board, boolean fetchClosedTickets, String outputDir,
+            StoredDataset<Issue, Comment, Event, User> dataset) throws IOException {
+        final String watermark = dataset.getWatermark();
+        log.info("Fetching everything that changed since " + watermark + "...");
+        final FetchingResult<Issue> changedIssues = fetcher.fetchTicketsUpdatedSince(owner, board, watermark);
+        final FetchingResult<Comment> changedComments = fetcher
+                .fetchCommentsForBoardUpdatedSince(owner, board, watermark);
+        log.info("There are " + changedIssues.getEntities().size() + " changed issue(s) and "
+                + changedComments.getEntities().size() + " changed comment(s)!");
+
+        // merge the changes into the stored dataset (the changed issues are open and closed ones):
+        final List<Issue> issues = IssueMerger
+                .merge(dataset.getTickets(), changedIssues.getEntities())
+                .stream()
+                .filter(i -> fetchClosedTickets || !"closed".equals(i.getState()))
+                .collect(Collectors.toList());
+        final List<Comment> comments = CondorizorUtils
+                .mergeById(dataset.getComments(), changedComments.getEntities(), Comment::getId);
+
+        if (changedIssues.isRateLimitOccurred() || changedComments.isRateLimitOccurred()) {
+            // (the assignments and profiles are kept as they are, the next run fetches the changes anew):
+            log.warn("A rate limit occurred when fetching the changes!");
+            return Either.left(PersistenceHelper.persistDatasetToDisk(
+                    new StoredDataset<>(watermark, fetchClosedTickets, issues, comments,
+                            dataset.getAssignments(), dataset.getMembers()),
+                    owner, board, outputDir));
+        }
+
+        // an assignment updates its issue, so only the events of the changed issues can be new:
+        final List<Event> events;
+        final List<Event> changedEvents;
+        if (fetchEvents && dataset.getAssignments() != null) {
+            changedEvents = fetchEventsOf(changedIssues.getEntities());
+            events = CondorizorUtils.mergeById(dataset.getAssignments(), changedEvents, Event::getId);
         } else {
-            return fetchEverything(owner, board, fetchClosedTickets, outputDir, null, null);
+            // (the dataset doesn't know the assignments, so all events have to be fetched):
+            events = fetchEvents(owner, board);
+            changedEvents = events;
         }
+
+        // the profiles of all users who took part in the changes are re-fetched, the others are known:
+        final Set<String> changedUserIds = aggregateUsers(
+                changedIssues.getEntities(),
+                Collections.singletonList(new Pair<Issue, List<Comment>>(null, changedComments.getEntities())),
+                CondorizorUtils.groupAssignmentsByIssue(changedIssues.getEntities(), changedEvents),
+                new HashMap<>())
+                .stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        final Map<String, User> unchangedProfiles = (dataset.getMembers() == null)
+                ? new HashMap<>()
+                : dataset.getMembers()
+                .stream()
+                .filter(u -> u.getId() != null && !changedUserIds.contains(u.getId()))
+                .collect(Collectors.toMap(User::getId, u -> u, (u1, u2) -> u2));
+        log.info(changedUserIds.size() + " user(s) took part in the changes, " + unchangedProfiles.size()
+                + " profile(s) are taken from the dataset!");
+
+        final List<Pair<Issue, List<Comment>>> issuesWithComments = CondorizorUtils
+                .joinCommentsToIssues(issues, new FetchingResult<>(comments), new LinkedList<>())
+                .stream()
+                .map(p -> new Pair<>(p.getFirst(), p.getSecond().getEntities()))
+                .collect(Collectors.toList());
+        final FetchedRepo fetchedRepo = fetchParticipants(
+                owner, board, issues, issuesWithComments, events, unchangedProfiles);
+        PersistenceHelper.persistDatasetToDisk(
+                datasetOf(latestUpdate(watermark, issues, comments), fetchClosedTickets, issues, comments, fetchedRepo),
+                owner, board, outputDir);
+        return Either.right(fetchedRepo);
+    }
+
+    /**
+     * Builds the dataset for the next (incremental) run, including the assignments (if they
+     * were fetched at all) and the full-blown users of the given fetched repo.
+     */
+    private StoredDataset<Issue, Comment, Event, User> datasetOf(
+            String watermark, boolean fetchClosedTickets, List<Issue> issues, List<Comment> comments,
+            FetchedRepo fetchedRepo) {
+        final List<Event> assignments = fetchEvents
+                ? fetchedRepo.getAssignments().stream().flatMap(p -> p.getSecond().stream()).collect(Collectors.toList())
+                : null;
+        return new StoredDataset<>(watermark, fetchClosedTickets, issues, comments, assignments, fetchedRepo.getUsers());
+    }
+
+    /**
+     * Stores all issues, comments, assignments and users as the dataset for the next (incremental) run.
+     */
+    private void storeDataset(String owner, String board, boolean fetchClosedTickets, String outputDir,
+                              List<Issue> issues, List<Pair<Issue, List<Comment>>> comments,
+                              FetchedRepo fetchedRepo) throws IOException {
+        final List<Issue> distinctIssues = IssueMerger.merge(issues);
+        final List<Comment> distinctComments = CondorizorUtils.mergeById(comments
+                .stream()
+                .flatMap(p -> p.getSecond()
+                        .stream()
+                        .filter(Objects::nonNull)
+                        .peek(c -> {
+                            // the issue URL is needed to join the comments to their issues later on:
+                            if (c.getIssueUrl() == null) {
+                                c.setIssueUrl(p.getFirst().getUrl());
+                            }
+                        }))
+                .collect(Collectors.toList()), new LinkedList<>(), Comment::getId);
+
+        final String watermark = latestUpdate(null, distinctIssues, distinctComments);
+        PersistenceHelper.persistDatasetToDisk(
+                datasetOf(watermark, fetchClosedTickets, distinctIssues, distinctComments, fetchedRepo),
+                owner, board, outputDir);
+        log.debug("Stored " + distinctIssues.size() + " issue(s) and " + distinctComments.size()
+                + " comment(s), the watermark is " + watermark);
     }
 
-    private Either<File, Pair<File, File>> fetchEverything(
+    /**
+     * Computes the newest "updated_at" timestamp. As all of GitHub's timestamps share the same
+     * (ISO 8601, UTC) format, they can simply be compared as strings.
+     */
+    private static String latestUpdate(String watermark, List<Issue> issues, List<Comment> comments) {
+        return Stream
+                .concat(
+                        Stream.concat(Stream.of(watermark), issues.stream().map(Issue::getUpdatedAt)),
+                        comments.stream().map(Comment::getUpdated_at))
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    /**
+     * Fetches everything (that wasn't fetched by a former run). Every result is journaled as soon
+     * as it is fetched (see CheckpointJournal), the journal is deleted once everything was fetched.
+     */
+    private Either<File, FetchedRepo> fetchEverything(
             String owner, String board, boolean fetchClosedTickets, String outputDir,
             FetchingResult<Issue> formerIssueFetchingResult,
             List<Pair<Issue, FetchingResult<Comment>>> formerCommentsFetchingResults) throws IOException {
-        // first, fetch all issues of the given repo:
+        final CheckpointJournal journal = CheckpointJournal.open(owner, board, outputDir);
+        try {
+            final Either<File, FetchedRepo> fetchedRepo = fetchEverything(owner, board, fetchClosedTickets,
+                    outputDir, formerIssueFetchingResult, formerCommentsFetchingResults, journal);
+            if (fetchedRepo.isRight()) {
+                journal.delete();
+            }
+            return fetchedRepo;
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            journal.close();
+        }
+    }
+
+    private Either<File, FetchedRepo> fetchEverything(
+            String owner, String board, boolean fetchClosedTickets, String outputDir,
+            FetchingResult<Issue> formerIssueFetchingResult,
+            List<Pair<Issue, FetchingResult<Comment>>> formerCommentsFetchingResults,
+            CheckpointJournal journal) throws IOException {
+        // first, fetch all issues of the given repo (journaling them page by page):
         final FetchingResult<Issue> issueFetchingResult = fetcher
                 .fetchTickets(owner, board, fetchClosedTickets,
-                        (formerIssueFetchingResult != null && formerIssueFetchingResult.getVisitedUrls() != null)
-                                ? formerIssueFetchingResult.getVisitedUrls() : new LinkedList<>());
+                        (formerIssueFetchingResult != null)
+                                ? UrlSet.of(formerIssueFetchingResult.getVisitedUrls()) : new UrlSet(),
+                        page -> journalIssues(journal, page));
 
         // did we run into a rate limit?
         final boolean rateLimitOccurredForIssues = issueFetchingResult.isRateLimitOccurred();
@@ -89,22 +472,35 @@ public class GitHubRepoCondorizor {
         // no, then let's unwrap the issues from the FetchingResult object:
         final List<Issue> githubIssues = issueFetchingResult.getEntities();
 
-        // compute all visited comment-URLs into a single list:
-        final List<String> visitedCommentUrls = (formerCommentsFetchingResults != null)
+        // compute all visited comment-URLs into a single set:
+        final UrlSet visitedCommentUrls = (formerCommentsFetchingResults != null)
                 ? formerCommentsFetchingResults
                 .stream()
                 .map(cfr -> cfr
                         .getSecond()
                         .getVisitedUrls())
                 .flatMap(Collection::stream)
-                .collect(Collectors.toList())
-                : new LinkedList<>();
+                .collect(Collectors.toCollection(UrlSet::new))
+                : new UrlSet();
 
-        // fetch all comments and the corresponding users for all issues:
-        final List<Pair<Issue, FetchingResult<Comment>>> commentsForTicketResults = githubIssues
-                .parallelStream()
-                .map(i -> new Pair<>(i, fetcher.fetchCommentsForTicket(i, visitedCommentUrls)))
-                .collect(Collectors.toList());
+        // the comments are fetched for the issues of the former run(s), too (when resuming, this
+        // run only fetches the issues the former one didn't get to), the visited comment URLs
+        // are skipped anyway:
+        final List<Issue> issuesToComment = (formerIssueFetchingResult != null)
+                ? IssueMerger.merge(formerIssueFetchingResult.getEntities(), githubIssues)
+                : githubIssues;
+
+        // fetch all comments and the corresponding users for all issues (either all at once or issue by issue),
+        // the repo-wide comments are only recorded per issue, so they are always fetched anew:
+        final List<Pair<Issue, FetchingResult<Comment>>> commentsForTicketResults;
+        if (fetchCommentsForBoard) {
+            commentsForTicketResults = CondorizorUtils.joinCommentsToIssues(issuesToComment,
+                    fetcher.fetchCommentsForBoard(owner, board, new LinkedList<>()), visitedCommentUrls);
+            commentsForTicketResults.forEach(p -> journalComments(journal, p));
+        } else {
+            commentsForTicketResults = fetcher.fetchCommentsForTickets(
+                    issuesToComment, visitedCommentUrls, p -> journalComments(journal, p));
+        }
 
         // did we run into a rate limit?
         final boolean rateLimitOccurredForComments = commentsForTicketResults
@@ -114,12 +510,6 @@ public class GitHubRepoCondorizor {
             log.warn("A rate limit occurred when fetching comments!");
         }
 
-        // no, then let's unwrap the comments from the FetchingResult objects:
-        final List<Pair<Issue, List<Comment>>> comments = commentsForTicketResults
-                .stream()
-                .map(c -> new Pair<>(c.getFirst(), c.getSecond().getEntities()))
-                .collect(Collectors.toList());
-
         // TODO : fetch all assignees for all tickets:
 //        final List<Pair<Issue, List<User>>> assignees = githubIssues
 //                .parallelStream()
@@ -128,16 +518,18 @@ public class GitHubRepoCondorizor {
 
 
         // re-try fetching the failed issue URLs:
-        final BiFunction<String, List<String>, FetchingResult<Issue>> issueFetcherFunction
+        final BiFunction<String, Collection<String>, FetchingResult<Issue>> issueFetcherFunction
                 = (u, visitedUrlsList) -> fetcher.retryTicketFetching(u, owner, board, visitedUrlsList);
         final FetchingResult<Issue> retriedIssuesFetchingResult = retryIssueFetching(
                 issueFetcherFunction, formerIssueFetchingResult, issueFetchingResult);
+        journal.appendIssues(retriedIssuesFetchingResult);
 
         // ...and the failed comment URLs:
-        final BiFunction<String, List<String>, FetchingResult<Comment>> commentFetcherFunction
+        final BiFunction<String, Collection<String>, FetchingResult<Comment>> commentFetcherFunction
                 = (u, visitedUrlsList) -> fetcher.retryCommentFetching(u, owner, board, visitedUrlsList);
         final List<Pair<Issue, FetchingResult<Comment>>> retriedCommentsFetchingResult = retryCommentsFetching(
                 commentFetcherFunction, formerCommentsFetchingResults, commentsForTicketResults);
+        retriedCommentsFetchingResult.forEach(p -> journalComments(journal, p));
 
         // combine everything! first, the issues:
         final FetchingResult<Issue> combinedIssueFetchingResult = CondorizorUtils
@@ -155,30 +547,61 @@ public class GitHubRepoCondorizor {
                         retriedCommentsFetchingResult);
 
         if (rateLimitOccurredForIssues || rateLimitOccurredForComments) {
-            // a rate limit occurred, persist the partial result to disc:
-            final PartialFetchingResult<Issue, User, Comment> partialFetchingResult
-                    = new PartialFetchingResult<>(combinedIssueFetchingResult, combinedCommentsFetchingResult);
-            return Either.left(PersistenceHelper.persistPartialResultsToDisk(partialFetchingResult, owner, board, outputDir));
+            // a rate limit occurred, everything fetched so far is in the journal:
+            log.info("Everything fetched so far was journaled to " + journal.getFile());
+            return Either.left(journal.getFile());
         } else {
-            // combine everything:
-            final List<Issue> allIssues = io.vavr.collection.List
-                    .ofAll(githubIssues)
-                    .appendAll(combinedIssueFetchingResult.getEntities())
-                    .toJavaList();
+            // combine everything (the combined issues already contain the ones fetched during
+            // this run, but an issue may have been fetched more than once, e.g. as an open and a
+            // closed one, or once more after a retry):
+            final List<Issue> allIssues = IssueMerger.merge(combinedIssueFetchingResult.getEntities());
 
-            final List<Pair<Issue, List<Comment>>> newComments = combinedCommentsFetchingResult
+            // (the combined comments already contain the ones fetched during this run, too, but
+            // an issue's comments may have been fetched more than once, e.g. for an issue that was
+            // listed as an open and a closed one):
+            final List<Pair<Issue, List<Comment>>> allComments = combinedCommentsFetchingResult
                     .stream()
-                    .map(p -> new Pair<>(p.getFirst(), p.getSecond().getEntities()))
+                    .map(p -> new Pair<>(p.getFirst(),
+                            CondorizorUtils.mergeById(p.getSecond().getEntities(), null, Comment::getId)))
                     .collect(Collectors.toList());
 
-            final List<Pair<Issue, List<Comment>>> allComments = io.vavr.collection.List
-                    .ofAll(comments)
-                    .appendAll(CondorizorUtils.combineIssueCommentsPairs(comments, newComments))
-                    .toJavaList();
+            // aggregate and fetch all users:
+            final FetchedRepo fetchedRepo = fetchParticipants(
+                    owner, board, allIssues, allComments, fetchEvents(owner, board), new HashMap<>());
 
-            // aggregate all users, map to Condor Actors/Edges and write to CSV files:
-            return Either.right(condorizeIssuesAndUsers(allIssues, allComments, outputDir
-            ));
+            // remember everything for the next (incremental) run:
+            if (incremental) {
+                storeDataset(owner, board, fetchClosedTickets, outputDir, allIssues, allComments, fetchedRepo);
+            }
+            return Either.right(fetchedRepo);
+        }
+    }
+
+    /**
+     * Journals a page of issues.
+     */
+    private static void journalIssues(CheckpointJournal journal, FetchingResult<Issue> issues) {
+        try {
+            journal.appendIssues(issues);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Journals the comments of an issue, unless there is nothing to journal (e.g. because the
+     * comments were fetched by a former run).
+     */
+    private static void journalComments(CheckpointJournal journal, Pair<Issue, FetchingResult<Comment>> comments) {
+        final FetchingResult<Comment> fetchingResult = comments.getSecond();
+        if (fetchingResult.getEntities().isEmpty() && fetchingResult.getVisitedUrls().isEmpty()
+                && fetchingResult.getFailedUrls().isEmpty()) {
+            return;
+        }
+        try {
+            journal.appendComments(comments.getFirst(), fetchingResult);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -192,24 +615,22 @@ public class GitHubRepoCondorizor {
      * @return the new results
      */
     private FetchingResult<Issue> retryIssueFetching(
-            BiFunction<String, List<String>, FetchingResult<Issue>> fetcherFunction,
+            BiFunction<String, Collection<String>, FetchingResult<Issue>> fetcherFunction,
             FetchingResult<Issue> formerFetchingResult, FetchingResult<Issue> newFetchingResult) {
         // are there any former results at all?
         if (formerFetchingResult != null && formerFetchingResult.getFailedUrls() != null) {
             // combine the old and newly visited URLs:
-            final List<String> visitedIssueUrls = io.vavr.collection.List
-                    .ofAll((formerFetchingResult.getVisitedUrls() != null)
-                            ? formerFetchingResult.getVisitedUrls() : new LinkedList<>())
-                    .appendAll(newFetchingResult.getVisitedUrls())
-                    .toJavaList();
+            final UrlSet visitedIssueUrls = new UrlSet(UrlSet.of(formerFetchingResult.getVisitedUrls()));
+            visitedIssueUrls.addAll(newFetchingResult.getVisitedUrls());
 
             // retry fetching all failed issue URLs:
             log.debug("Trying to re-fetch formerly failed URLs...");
-            return formerFetchingResult
-                    .getFailedUrls()
+            return fetcher
+                    .getStageExecutor()
+                    .mapAll(FetchStageExecutor.Stage.ISSUES, formerFetchingResult.getFailedUrls(),
+                            failedUrl -> fetcherFunction.apply(failedUrl, visitedIssueUrls))
                     .stream()
-                    .map(failedUrl -> fetcherFunction.apply(failedUrl, visitedIssueUrls))
-                    .reduce(new FetchingResult<>(), (acc, i) -> FetchingResult.union(i, acc));
+                    .collect(FetchingResultBuilder.toFetchingResult());
 
         } else {
             return new FetchingResult<>();
@@ -226,86 +647,200 @@ public class GitHubRepoCondorizor {
      * @return the new results
      */
     private List<Pair<Issue, FetchingResult<Comment>>> retryCommentsFetching(
-            BiFunction<String, List<String>, FetchingResult<Comment>> fetcherFunction,
+            BiFunction<String, Collection<String>, FetchingResult<Comment>> fetcherFunction,
             List<Pair<Issue, FetchingResult<Comment>>> formerFetchingResult,
             List<Pair<Issue, FetchingResult<Comment>>> newFetchingResult) {
         if (formerFetchingResult != null) {
-            // get all the formerly visited URLs:
-            final List<String> formerlyVisitedUrls = formerFetchingResult
-                    .stream()
+            // combine the formerly and the newly visited URLs:
+            final UrlSet visitedCommentUrls = Stream
+                    .concat(formerFetchingResult.stream(),
+                            (newFetchingResult == null) ? Stream.empty() : newFetchingResult.stream())
                     .map(p -> p.getSecond().getVisitedUrls())
                     .flatMap(List::stream)
-                    .collect(Collectors.toList());
-
-            // get all the newly visited URLs:
-            final List<String> newlyVisitedUrls = (newFetchingResult == null)
-                    ? new LinkedList<>()
-                    : newFetchingResult
-                    .stream()
-                    .map(p -> p.getSecond().getVisitedUrls())
-                    .flatMap(List::stream)
-                    .collect(Collectors.toList());
-
-            // combine the old and newly visited URLs:
-            final List<String> visitedCommentUrls = io.vavr.collection.List
-                    .ofAll(formerlyVisitedUrls)
-                    .appendAll(newlyVisitedUrls)
-                    .toJavaList();
+                    .collect(Collectors.toCollection(UrlSet::new));
 
             // retry fetching all failed issue URLs:
             log.debug("Trying to re-fetch formerly failed URLs...");
-            return formerFetchingResult
-                    .stream()
-                    .map(p -> {
+            return fetcher
+                    .getStageExecutor()
+                    .mapAll(FetchStageExecutor.Stage.COMMENTS, formerFetchingResult, p -> {
                         final Issue issue = p.getFirst();
                         final FetchingResult<Comment> fetchingResultsForSingleIssue = p
                                 .getSecond()
                                 .getFailedUrls()
                                 .stream()
                                 .map(failedUrl -> fetcherFunction.apply(failedUrl, visitedCommentUrls))
-                                .reduce(new FetchingResult<>(), (acc, i) -> FetchingResult.union(i, acc));
+                                .collect(FetchingResultBuilder.toFetchingResult());
                         return new Pair<>(issue, fetchingResultsForSingleIssue);
-                    })
-                    .collect(Collectors.toList());
+                    });
 
         } else {
             return new LinkedList<>();
         }
     }
 
-    private Pair<File, File> condorizeIssuesAndUsers(
+    private FetchedRepo fetchParticipants(
+            String owner,
+            String board,
             List<Issue> issues,
             List<Pair<Issue, List<Comment>>> comments,
-            String outputDir) {
+            List<Event> events,
+            Map<String, User> knownProfiles) {
+
+        // find out who assigned whom:
+        final List<Pair<Issue, List<Event>>> assignments = CondorizorUtils
+                .groupAssignmentsByIssue(issues, events);
 
-        // aggregate all users over all issues and their comments:
-        final List<User> users = aggregateUsers(issues, comments);
+        // ...and who reacted to what:
+        final Map<String, List<Reaction>> reactions = fetchReactions(issues, comments);
+
+        // aggregate all users over all issues, their comments, assignments and reactions:
+        final List<User> users = aggregateUsers(issues, comments, assignments, reactions);
 
         // fetch additional info about those users:
-        final List<User> fullBlownUsers = users
-                .parallelStream()
-                .map(fetcher::fetchAllInfoForUser)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
+        final List<User> fullBlownUsers = fetchAllInfoForUsers(users, knownProfiles)
+                .stream()
                 // we need at least an ID to prevent duplicates:
                 .filter(u -> u.getId() != null && !u.getId().trim().isEmpty())
                 .collect(Collectors.toList());
+        return new FetchedRepo(owner, board, issues, comments, assignments, reactions, fullBlownUsers);
+    }
 
-        // rectangularize:
-        final List<Pair<Issue, Interaction<User, Comment>>> rectangularizedIssues = rectangularize(
-                issues, comments);
+    /**
+     * Fetches the full-blown profiles of all given users, except for the known ones (e.g. the
+     * unchanged ones of a stored dataset), which are taken as they are.
+     *
+     * @param users         the (shallow) users
+     * @param knownProfiles the full-blown profiles that don't have to be fetched (by user ID)
+     * @return the full-blown users
+     */
+    private List<User> fetchAllInfoForUsers(List<User> users, Map<String, User> knownProfiles) {
+        final Map<Boolean, List<User>> usersByKnown = users
+                .stream()
+                .collect(Collectors.partitioningBy(u -> u.getId() != null && knownProfiles.containsKey(u.getId())));
+        return io.vavr.collection.List
+                .ofAll(usersByKnown.get(true))
+                .map(u -> knownProfiles.get(u.getId()))
+                .appendAll(fetchAllInfoForUsers(usersByKnown.get(false)))
+                .toJavaList();
+    }
 
-        // map to edges (tickets) and nodes (persons), then write to CSV files:
-        return CondorizorUtils.mapAndWriteToCsvFiles(
-                fullBlownUsers,
-                rectangularizedIssues,
-                this::githubUsersToCondorActors,
-                this::githubIssuesToCondorEdges,
-                outputDir
-        );
+    /**
+     * Fetches the full-blown profiles of all given users. If there's a user cache, only those
+     * that aren't cached (or whose cached profile expired) are fetched. In offline mode, no
+     * profile is fetched at all: uncached users are taken as they are (i.e. login and ID only).
+     *
+     * @param users the (shallow) users
+     * @return the full-blown users
+     */
+    private List<User> fetchAllInfoForUsers(List<User> users) {
+        if (userProfileCache == null) {
+            // profiles that were fetched for a former repo (e.g. of the same organization) aren't fetched again:
+            final List<User> unknownUsers = users
+                    .stream()
+                    .filter(u -> u.getId() == null || !fetchedProfiles.containsKey(u.getId()))
+                    .collect(Collectors.toList());
+            fetcher.fetchAllInfoForUsers(unknownUsers)
+                    .stream()
+                    .filter(u -> u.getId() != null)
+                    .forEach(u -> fetchedProfiles.put(u.getId(), u));
+            return users
+                    .stream()
+                    .map(u -> (u.getId() == null) ? null : fetchedProfiles.get(u.getId()))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        final List<User> cachedUsers = new LinkedList<>();
+        final List<User> uncachedUsers = new LinkedList<>();
+        users.forEach(u -> {
+            final Optional<User> cachedUser = userProfileCache.get(u);
+            if (cachedUser.isPresent()) {
+                cachedUsers.add(cachedUser.get());
+            } else {
+                uncachedUsers.add(u);
+            }
+        });
+        log.info(cachedUsers.size() + " user(s) were cached, " + uncachedUsers.size() + " weren't!");
+
+        if (userProfileCache.isOffline()) {
+            return io.vavr.collection.List
+                    .ofAll(cachedUsers)
+                    .appendAll(uncachedUsers)
+                    .toJavaList();
+        } else {
+            final List<User> fetchedUsers = fetcher.fetchAllInfoForUsers(uncachedUsers);
+            fetchedUsers.forEach(userProfileCache::put);
+            return io.vavr.collection.List
+                    .ofAll(cachedUsers)
+                    .appendAll(fetchedUsers)
+                    .toJavaList();
+        }
+    }
+
+    /**
+     * Fetches all issue events of the repo in bulk (roughly one request per 100 events). The
+     * events are only needed for the ASSIGNING edges, so a rate limit doesn't stop the
+     * condorization: the assignments are simply incomplete then.
+     */
+    private List<Event> fetchEvents(String owner, String board) {
+        if (!fetchEvents) {
+            return new LinkedList<>();
+        }
+
+        final FetchingResult<Event> eventFetchingResult = fetcher
+                .fetchEventsForBoard(owner, board, new LinkedList<>());
+        if (eventFetchingResult.isRateLimitOccurred()) {
+            log.warn("A rate limit occurred when fetching the issue events, some assignments will be missing!");
+        }
+        log.debug("I got " + eventFetchingResult.getEntities().size() + " issue events!");
+        return eventFetchingResult.getEntities();
+    }
+
+    /**
+     * Fetches the events of the given issues only (e.g. of the ones that changed since the last
+     * run). Just like fetchEvents(), a rate limit doesn't stop the condorization.
+     */
+    private List<Event> fetchEventsOf(List<Issue> issues) {
+        final FetchingResult<Event> eventFetchingResult = fetcher.fetchEventsForTickets(issues);
+        if (eventFetchingResult.isRateLimitOccurred()) {
+            log.warn("A rate limit occurred when fetching the issue events, some assignments will be missing!");
+        }
+        log.debug("I got " + eventFetchingResult.getEntities().size() + " events of " + issues.size() + " issue(s)!");
+        return eventFetchingResult.getEntities();
+    }
+
+    /**
+     * Fetches the reactions on all issues and comments in batches (many issues and comments per
+     * GraphQL query). Like the events, the reactions don't stop the condorization if they can't
+     * be fetched (e.g. without a token): the REACTION edges are simply incomplete then.
+     */
+    private Map<String, List<Reaction>> fetchReactions(List<Issue> issues, List<Pair<Issue, List<Comment>>> comments) {
+        if (!fetchReactions) {
+            return new HashMap<>();
+        }
+
+        final List<String> nodeIds = Stream
+                .concat(
+                        issues.stream().map(Issue::getNodeId),
+                        comments.stream().flatMap(p -> p.getSecond().stream()).map(Comment::getNodeId))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        final Map<String, List<Reaction>> reactions = fetcher.fetchReactions(nodeIds);
+        if (reactions.size() < new HashSet<>(nodeIds).size()) {
+            log.warn("The reactions for " + (new HashSet<>(nodeIds).size() - reactions.size())
+                    + " issue(s) and comment(s) couldn't be fetched!");
+        }
+        return reactions;
+    }
+
+    private static List<Reaction> reactionsTo(Map<String, List<Reaction>> reactions, String nodeId) {
+        return (nodeId == null) ? Collections.emptyList() : reactions.getOrDefault(nodeId, Collections.emptyList());
     }
 
-    private List<User> aggregateUsers(List<Issue> issues, List<Pair<Issue, List<Comment>>> comments) {
+    private List<User> aggregateUsers(List<Issue> issues, List<Pair<Issue, List<Comment>>> comments,
+                                      List<Pair<Issue, List<Event>>> assignments,
+                                      Map<String, List<Reaction>> reactions) {
         // get all ticket creators:
         final List<User> creators = issues
                 .parallelStream()
@@ -320,17 +855,39 @@ public class GitHubRepoCondorizor {
                 .map(Comment::getUser)
                 .collect(Collectors.toList());
 
+        // ...and everyone who assigned or was assigned:
+        final List<User> assigners = assignments
+                .stream()
+                .map(Pair::getSecond)
+                .flatMap(List::stream)
+                .flatMap(e -> Stream.of(assignerOf(e), e.getAssignee()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        // ...and everyone who reacted:
+        final List<User> reactors = reactions
+                .values()
+                .stream()
+                .flatMap(List::stream)
+                .map(Reaction::getUser)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
         // return the union:
         return io.vavr.collection.List
                 .ofAll(creators)
                 .appendAll(commentators)
+                .appendAll(assigners)
+                .appendAll(reactors)
                 .distinctBy(User::getId)
                 .toJavaList();
     }
 
     private List<Pair<Issue, Interaction<User, Comment>>> rectangularize(
             List<Issue> issues,
-            List<Pair<Issue, List<Comment>>> comments) {
+            List<Pair<Issue, List<Comment>>> comments,
+            List<Pair<Issue, List<Event>>> assignments,
+            Map<String, List<Reaction>> reactions) {
         // map all ticket creations to our pseudo-sum-type:
         final List<Pair<Issue, Interaction<User, Comment>>> creationInteractions = issues
                 .parallelStream()
@@ -354,14 +911,48 @@ public class GitHubRepoCondorizor {
                         new Interaction<User, Comment>(null, p.getSecond(), EdgeType.COMMENT)))
                 .collect(Collectors.toList());
 
+        // ...and all assignments:
+        final List<Pair<Issue, Interaction<User, Comment>>> assigningInteractions = assignments
+                .stream()
+                .flatMap(iwa -> iwa.getSecond()
+                        .stream()
+                        .map(e -> new Pair<Issue, Interaction<User, Comment>>(iwa.getFirst(),
+                                new Interaction<User, Comment>(assignerOf(e), null, EdgeType.ASSIGNING, e.getAssignee()))))
+                .collect(Collectors.toList());
+
+        // ...and all reactions, on the issues themselves and on their comments:
+        final List<Pair<Issue, Interaction<User, Comment>>> reactionInteractions = Stream
+                .concat(
+                        issues.stream()
+                                .flatMap(t -> reactionsTo(reactions, t.getNodeId())
+                                        .stream()
+                                        .map(r -> new Pair<Issue, Interaction<User, Comment>>(t,
+                                                new Interaction<User, Comment>(r.getUser(), null,
+                                                        EdgeType.REACTION, null, r.getContent())))),
+                        comments.stream()
+                                .flatMap(iwc -> iwc.getSecond()
+                                        .stream()
+                                        .flatMap(c -> reactionsTo(reactions, c.getNodeId())
+                                                .stream()
+                                                .map(r -> new Pair<Issue, Interaction<User, Comment>>(iwc.getFirst(),
+                                                        new Interaction<User, Comment>(r.getUser(), c,
+                                                                EdgeType.REACTION, null, r.getContent()))))))
+                .collect(Collectors.toList());
+
         // return the union:
         return io.vavr.collection.List
                 .ofAll(creationInteractions)
                 .appendAll(commentInteractions)
-                // TODO: .appendAll(assigningInteractions)
+                .appendAll(assigningInteractions)
+                .appendAll(reactionInteractions)
                 .toJavaList();
     }
 
+    private static User assignerOf(Event assignment) {
+        // older events don't name the assigner, but the actor is the very same user:
+        return (assignment.getAssigner() != null) ? assignment.getAssigner() : assignment.getActor();
+    }
+
     private List<Actor> githubUsersToCondorActors(List<User> repoUsers) {
         final String fallbackStartTime = TimeFormattingHelper.unixEpoch(); // TODO: calculate "starttime"!
 
@@ -417,6 +1008,24 @@ public class GitHubRepoCondorizor {
                 edge.setCommentBody(escapedCommentBody);
                 edge.setSource(commentator.getId());
             }
+
+            if (i.getSecond().getEdgeType() == EdgeType.ASSIGNING) {
+                // an edge from the one who assigned the issue to the one it was assigned to:
+                final User assignee = i.getSecond().getAssignee();
+                final User assigner = (i.getSecond().getCreator() != null) ? i.getSecond().getCreator() : assignee;
+                edge.setSource(assigner.getId());
+                edge.setTarget(assignee.getId());
+            }
+
+            if (i.getSecond().getEdgeType() == EdgeType.REACTION) {
+                // an edge from the one who reacted to the author of the comment (or the ticket):
+                final Comment comment = i.getSecond().getComment();
+                edge.setSource(i.getSecond().getCreator().getId());
+                if (comment != null && comment.getUser() != null) {
+                    edge.setTarget(comment.getUser().getId());
+                }
+                edge.setCommentBody(i.getSecond().getReaction());
+            }
             return edge;
         };
 
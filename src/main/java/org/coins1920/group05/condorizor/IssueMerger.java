@@ -0,0 +1,119 @@
+package org.coins1920.group05.condorizor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.coins1920.group05.model.github.rest.Issue;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Merges the issues of several sources (the open and the closed issues, retried URLs, a resumed
+ * partial result, a stored dataset, ...) into a list where every issue occurs exactly once. Of
+ * all versions of an issue, the one that was updated last (by its "updated_at") is kept, at the
+ * position where the issue occurred first.
+ * <p>
+ * The sources are added one after the other and are never concatenated, so the merger only holds
+ * a single entry per distinct issue.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class IssueMerger {
+
+    private final Map<Object, Issue> issuesByKey = new LinkedHashMap<>();
+
+    /**
+     * Merges the given issue lists.
+     *
+     * @param sources the issue lists (may be null)
+     * @return all distinct issues, in their latest versions
+     */
+    @SafeVarargs
+    public static List<Issue> merge(Collection<Issue>... sources) {
+        final IssueMerger merger = new IssueMerger();
+        for (Collection<Issue> source : sources) {
+            merger.addAll(source);
+        }
+        return merger.getIssues();
+    }
+
+    /**
+     * Computes a key that is stable across runs (and serialization) for an issue: its ID, its
+     * URL, or its number. Issues without any of them are only equal to themselves.
+     *
+     * @param issue the issue
+     * @return the key
+     */
+    public static Object keyOf(Issue issue) {
+        if (issue.getId() != null) {
+            return "id:" + issue.getId();
+        } else if (issue.getUrl() != null) {
+            return "url:" + issue.getUrl();
+        } else if (issue.getNumber() != null) {
+            return "number:" + issue.getNumber();
+        } else {
+            return issue;
+        }
+    }
+
+    /**
+     * Picks the later version of two versions of the same issue. If both were updated at the
+     * same time (or their update times are unknown or unparseable), the second one wins, as it
+     * was fetched later.
+     *
+     * @param former the version seen first
+     * @param latter the version seen later
+     * @return the later version
+     */
+    public static Issue latest(Issue former, Issue latter) {
+        final Instant formerUpdate = updateTimeOf(former);
+        final Instant latterUpdate = updateTimeOf(latter);
+        if (formerUpdate == null || latterUpdate == null) {
+            return (latterUpdate == null && formerUpdate != null) ? former : latter;
+        }
+        return latterUpdate.isBefore(formerUpdate) ? former : latter;
+    }
+
+    private static Instant updateTimeOf(Issue issue) {
+        if (issue.getUpdatedAt() == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(issue.getUpdatedAt());
+        } catch (DateTimeParseException e) {
+            log.warn("Issue " + keyOf(issue) + " has an unparseable update time: " + issue.getUpdatedAt());
+            return null;
+        }
+    }
+
+    public IssueMerger add(Issue issue) {
+        if (issue != null) {
+            issuesByKey.merge(keyOf(issue), issue, IssueMerger::latest);
+        }
+        return this;
+    }
+
+    public IssueMerger addAll(Collection<Issue> issues) {
+        if (issues != null) {
+            issues.stream()
+                    .filter(Objects::nonNull)
+                    .forEach(this::add);
+        }
+        return this;
+    }
+
+    public int size() {
+        return issuesByKey.size();
+    }
+
+    public List<Issue> getIssues() {
+        return new ArrayList<>(issuesByKey.values());
+    }
+}
@@ -3,6 +3,7 @@ package org.coins1920.group05.condorizor;
 import org.apache.commons.lang3.SerializationUtils;
 import org.coins1920.group05.fetcher.FetchingResult;
 import org.coins1920.group05.fetcher.TrelloBoardFetcher;
+import org.coins1920.group05.fetcher.http.HttpTransportConfig;
 import org.coins1920.group05.model.condor.Actor;
 import org.coins1920.group05.model.condor.Edge;
 import org.coins1920.group05.model.condor.EdgeType;
@@ -24,7 +25,8 @@ public class TrelloBoardCondorizor {
     public Pair<File, File> fetchTrelloBoard(String boardId, String outputDir) {
         final String apiKey = System.getenv("TRELLO_API_KEY");
         final String oauthToken = System.getenv("TRELLO_OAUTH_KEY");
-        final TrelloBoardFetcher fetcher = new TrelloBoardFetcher(apiKey, oauthToken);
+        final TrelloBoardFetcher fetcher = new TrelloBoardFetcher(
+                apiKey, oauthToken, HttpTransportConfig.fromEnvironment());
 
         // fetch all board members:
         final List<Member> trelloBoardMembers = fetcher.fetchBoardMembers(null, boardId);
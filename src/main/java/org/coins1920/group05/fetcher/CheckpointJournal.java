@@ -0,0 +1,417 @@
+package org.coins1920.group05.fetcher;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.coins1920.group05.model.github.rest.Comment;
+import org.coins1920.group05.model.github.rest.Issue;
+import org.coins1920.group05.model.github.rest.User;
+import org.coins1920.group05.util.Pair;
+import org.coins1920.group05.util.TimeFormattingHelper;
+import org.coins1920.group05.util.UrlSet;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * An append-only journal of everything that was fetched for a repo so far. Each result (the
+ * issues, or the comments of a single issue) is appended as a record of its own and forced to
+ * disc right away, so that a run that is killed (or hits a rate limit) loses nothing that was
+ * fetched before. A later run replays the journal in a single sequential pass and continues
+ * where the former one stopped.
+ * <p>
+ * The file starts with a header: a magic number, the format version and (since version 2) the
+ * header's fields, i.e. their length (4 bytes), the owner, the repo and when the journal was
+ * created. The header can be read on its own (see readHeader()), and as there is exactly one
+ * journal per repo (named after owner and repo), finding a repo's checkpoint takes a single
+ * file lookup. The header is followed by the records: the payload's length (4 bytes), the record
+ * type (1 byte), the payload (deflate-compressed JSON, UTF-8, since version 2) and the CRC32
+ * checksum of type and payload (4 bytes). A record that was only partly written (e.g. when the
+ * JVM was killed) is dropped on replay. Journals of version 1 are still replayed (and appended
+ * to) uncompressed.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class CheckpointJournal implements Closeable {
+
+    public static final String JOURNAL_FILENAME_POSTFIX = ".journal";
+
+    private static final int MAGIC = 0x434a524e; // "CJRN"
+    private static final int VERSION = 2;
+    private static final int UNCOMPRESSED_VERSION = 1;
+    private static final int HEADER_LENGTH = 8;
+
+    private static final byte ISSUES_RECORD = 1;
+    private static final byte COMMENTS_RECORD = 2;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final File file;
+    private final FileChannel channel;
+    private final boolean compressed;
+
+    // the records are written under the one lock and forced to disc under the other one:
+    private final Object writeLock = new Object();
+    private final Object forceLock = new Object();
+    private long writtenPosition = 0;
+    private long forcedPosition = 0;
+    private final AtomicLong forces = new AtomicLong();
+
+    private CheckpointJournal(File file, FileChannel channel, boolean compressed) {
+        this.file = file;
+        this.channel = channel;
+        this.compressed = compressed;
+    }
+
+    /**
+     * The header of a journal.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Header {
+        private int version;
+        private String owner;
+        private String board;
+
+        // when the journal was created (ISO 8601, UTC), null for version 1 journals:
+        private String createdAt;
+
+        // the length of the whole header, i.e. where the records start:
+        private long length;
+    }
+
+    public static File journalFile(String owner, String board, String outputDir) {
+        return new File(outputDir, owner + "-" + board + JOURNAL_FILENAME_POSTFIX);
+    }
+
+    /**
+     * Opens the journal of the given repo for appending, creates it if there is none yet.
+     * Replay the journal before (see replay()), so that a partly written record at its end
+     * is cut off.
+     *
+     * @param owner     repo owner
+     * @param board     repo name
+     * @param outputDir folder where the journal is kept
+     * @return the journal
+     * @throws IOException if the journal couldn't be opened
+     */
+    public static CheckpointJournal open(String owner, String board, String outputDir) throws IOException {
+        final File file = journalFile(owner, board, outputDir);
+        final FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (channel.size() == 0) {
+            final ByteArrayOutputStream fields = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(fields)) {
+                out.writeUTF(owner);
+                out.writeUTF(board);
+                out.writeUTF(TimeFormattingHelper.now());
+            }
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH + 4 + fields.size());
+            header.putInt(MAGIC).putInt(VERSION).putInt(fields.size()).put(fields.toByteArray()).flip();
+            writeFully(channel, header);
+            channel.force(true);
+            return new CheckpointJournal(file, channel, true);
+        }
+
+        // keep on appending in the format the journal was created with:
+        final int version = readHeader(file, owner, board).getVersion();
+        return new CheckpointJournal(file, channel, version != UNCOMPRESSED_VERSION);
+    }
+
+    /**
+     * Reads the header of the given repo's journal (and nothing else).
+     *
+     * @param owner     repo owner
+     * @param board     repo name
+     * @param outputDir folder where the journal is kept
+     * @return the header, if there is a journal (with a complete header)
+     * @throws IOException if the journal couldn't be read or is no (known) journal at all
+     */
+    public static Optional<Header> readHeader(String owner, String board, String outputDir) throws IOException {
+        final File file = journalFile(owner, board, outputDir);
+        if (!file.exists() || file.length() < HEADER_LENGTH) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(readHeader(file, owner, board));
+        } catch (EOFException e) {
+            // the run that created the journal was killed while writing its header:
+            return Optional.empty();
+        }
+    }
+
+    private static Header readHeader(File file, String owner, String board) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("'" + file + "' is no checkpoint journal!");
+            }
+            final int version = in.readInt();
+            if (version == UNCOMPRESSED_VERSION) {
+                return new Header(version, owner, board, null, HEADER_LENGTH);
+            } else if (version != VERSION) {
+                throw new IOException("'" + file + "' has the unknown journal version " + version + "!");
+            }
+
+            final int fieldsLength = in.readInt();
+            final Header header = new Header(version, in.readUTF(), in.readUTF(), in.readUTF(),
+                    HEADER_LENGTH + 4 + fieldsLength);
+            if (!header.getOwner().equals(owner) || !header.getBoard().equals(board)) {
+                throw new IOException("'" + file + "' is the journal of " + header.getOwner()
+                        + "/" + header.getBoard() + ", not of " + owner + "/" + board + "!");
+            }
+            return header;
+        }
+    }
+
+    /**
+     * Returns a journal that journals nothing (e.g. for runs that are never continued).
+     *
+     * @return the journal
+     */
+    public static CheckpointJournal none() {
+        return new CheckpointJournal(null, null, false);
+    }
+
+    /**
+     * Rebuilds everything that was fetched from the journal of the given repo, in a single pass.
+     * Every record is turned into its own (small) result: the issue results are combined, the
+     * comment results are returned in the order they were journaled (one pair per record, so the
+     * same issue can show up more than once). Cuts off a partly written record at the end.
+     *
+     * @param owner     repo owner
+     * @param board     repo name
+     * @param outputDir folder where the journal is kept
+     * @return the journaled results (empty, if there is no journal)
+     * @throws IOException if the journal couldn't be read
+     */
+    public static PartialFetchingResult<Issue, User, Comment> replay(
+            String owner, String board, String outputDir) throws IOException {
+        final File file = journalFile(owner, board, outputDir);
+        final FetchingResultBuilder<Issue> issues = new FetchingResultBuilder<>();
+        final List<Pair<Issue, FetchingResult<Comment>>> comments = new LinkedList<>();
+        if (!file.exists()) {
+            return new PartialFetchingResult<>(issues.build(), comments);
+        }
+        final Optional<Header> header = readHeader(owner, board, outputDir);
+        if (!header.isPresent()) {
+            // the run that created the journal was killed before anything was journaled:
+            Files.delete(file.toPath());
+            return new PartialFetchingResult<>(issues.build(), comments);
+        }
+        final boolean compressed = header.get().getVersion() != UNCOMPRESSED_VERSION;
+
+        long validLength = header.get().getLength();
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            skipFully(in, validLength);
+
+            while (true) {
+                final byte[] payload;
+                final byte type;
+                try {
+                    final int length = in.readInt();
+                    if (length < 0 || length > file.length() - validLength - 9) {
+                        // a partly written record (or garbage):
+                        break;
+                    }
+                    type = in.readByte();
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    if (in.readInt() != checksum(type, payload)) {
+                        log.warn("The checksum of the record at offset " + validLength + " of '" + file
+                                + "' doesn't match, dropping it and everything after it!");
+                        break;
+                    }
+                } catch (EOFException e) {
+                    // the end of the journal (or a partly written record):
+                    break;
+                }
+
+                final JsonNode record = compressed
+                        ? objectMapper.readTree(new InflaterInputStream(new ByteArrayInputStream(payload)))
+                        : objectMapper.readTree(payload);
+                if (type == ISSUES_RECORD) {
+                    issues.add(toFetchingResult(record, new TypeReference<FetchingResult<Issue>>() {
+                    }));
+                } else if (type == COMMENTS_RECORD) {
+                    comments.add(new Pair<>(
+                            objectMapper.convertValue(record.path("issue"), Issue.class),
+                            toFetchingResult(record.path("result"), new TypeReference<FetchingResult<Comment>>() {
+                            })));
+                } else {
+                    log.warn("Skipping a record of the unknown type " + type + " in '" + file + "'!");
+                }
+                validLength += 4 + 1 + payload.length + 4;
+                records++;
+            }
+        }
+
+        if (validLength < file.length()) {
+            // cut off what's left of the last record, so that new records can be appended:
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+        }
+        log.debug("Replayed " + records + " record(s) from '" + file + "'");
+        return new PartialFetchingResult<>(issues.build(), comments);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Appends (and forces to disc) a result of fetching issues.
+     *
+     * @param issueFetchingResult the issues
+     * @throws IOException if the record couldn't be written
+     */
+    public void appendIssues(FetchingResult<Issue> issueFetchingResult) throws IOException {
+        append(ISSUES_RECORD, objectMapper.valueToTree(issueFetchingResult));
+    }
+
+    /**
+     * Appends (and forces to disc) the result of fetching the comments of a single issue.
+     *
+     * @param issue                 the issue
+     * @param commentFetchingResult the issue's comments
+     * @throws IOException if the record couldn't be written
+     */
+    public void appendComments(Issue issue, FetchingResult<Comment> commentFetchingResult) throws IOException {
+        final ObjectNode record = objectMapper.createObjectNode();
+        record.set("issue", objectMapper.valueToTree(issue));
+        record.set("result", objectMapper.valueToTree(commentFetchingResult));
+        append(COMMENTS_RECORD, record);
+    }
+
+    /**
+     * Closes and deletes the journal (e.g. after a run that fetched everything).
+     *
+     * @throws IOException if the journal couldn't be deleted
+     */
+    public void delete() throws IOException {
+        close();
+        if (file != null) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Appends a record and returns once it is on disc. The records are written one after the
+     * other, but forced to disc in groups (a group commit): while one thread forces the channel,
+     * the others keep on writing, and the next force covers all of their records at once. So
+     * many threads (e.g. of the COMMENTS stage) appending at the same time share a few forces
+     * instead of queueing up for one force each.
+     */
+    private void append(byte type, JsonNode record) throws IOException {
+        if (channel == null) {
+            return;
+        }
+        // serialize (and compress) outside of any lock:
+        final byte[] payload;
+        if (compressed) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (OutputStream out = new DeflaterOutputStream(bytes)) {
+                objectMapper.writeValue(out, record);
+            }
+            payload = bytes.toByteArray();
+        } else {
+            payload = objectMapper.writeValueAsBytes(record);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(4 + 1 + payload.length + 4);
+        buffer.putInt(payload.length)
+                .put(type)
+                .put(payload)
+                .putInt(checksum(type, payload))
+                .flip();
+
+        final long end;
+        synchronized (writeLock) {
+            writeFully(channel, buffer);
+            writtenPosition += buffer.capacity();
+            end = writtenPosition;
+        }
+
+        synchronized (forceLock) {
+            if (forcedPosition >= end) {
+                // another thread's force covered this record already:
+                return;
+            }
+            final long target;
+            synchronized (writeLock) {
+                target = writtenPosition;
+            }
+            channel.force(false);
+            forcedPosition = target;
+            forces.incrementAndGet();
+        }
+    }
+
+    /**
+     * How often the journal was forced to disc so far (at most once per record).
+     *
+     * @return the number of forces
+     */
+    public long getForces() {
+        return forces.get();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void skipFully(DataInputStream in, long bytes) throws IOException {
+        long remaining = bytes;
+        while (remaining > 0) {
+            final long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static int checksum(byte type, byte[] payload) {
+        final CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static <U> FetchingResult<U> toFetchingResult(JsonNode record, TypeReference<FetchingResult<U>> type) {
+        final FetchingResult<U> fetchingResult = objectMapper.convertValue(record, type);
+        return new FetchingResult<>(
+                (fetchingResult.getEntities() != null) ? fetchingResult.getEntities() : new LinkedList<>(),
+                fetchingResult.isRateLimitOccurred(),
+                UrlSet.of(fetchingResult.getVisitedUrls()),
+                UrlSet.of(fetchingResult.getFailedUrls()));
+    }
+}
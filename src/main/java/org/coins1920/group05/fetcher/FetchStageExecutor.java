@@ -0,0 +1,143 @@
+package org.coins1920.group05.fetcher;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Runs the blocking fetch stages (issues, comments, users) on a dedicated executor instead of
+ * the common ForkJoinPool, which is sized to the number of CPU cores and is shared with all
+ * CPU-bound (parallel stream) work of the JVM. Every stage has its own concurrency limit, so
+ * that the I/O concurrency can be pushed far above the core count.
+ * <p>
+ * If the JVM supports virtual threads (Java 21+), every task gets its own virtual thread.
+ * Otherwise, a cached pool of (daemon) platform threads is used. In both cases, a task is
+ * only submitted once its stage has a free permit, i.e. there are never more threads than
+ * requests in flight.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class FetchStageExecutor {
+
+    public enum Stage {
+        ISSUES, COMMENTS, USERS
+    }
+
+    private static FetchStageExecutor defaultExecutor;
+
+    private final ExecutorService executor;
+    private final Map<Stage, Semaphore> permits = new EnumMap<>(Stage.class);
+
+    public FetchStageExecutor(int maxConcurrentIssueFetches, int maxConcurrentCommentFetches,
+                              int maxConcurrentUserFetches) {
+        this.executor = createExecutor();
+        this.permits.put(Stage.ISSUES, new Semaphore(Math.max(1, maxConcurrentIssueFetches)));
+        this.permits.put(Stage.COMMENTS, new Semaphore(Math.max(1, maxConcurrentCommentFetches)));
+        this.permits.put(Stage.USERS, new Semaphore(Math.max(1, maxConcurrentUserFetches)));
+    }
+
+    public FetchStageExecutor(GitHubFetcherConfig config) {
+        this(config.getMaxConcurrentIssueFetches(), config.getMaxConcurrentCommentFetches(),
+                config.getMaxConcurrentUserFetches());
+    }
+
+    /**
+     * An executor with the default limits, for fetchers that don't bring their own.
+     *
+     * @return the (shared) default executor
+     */
+    public static synchronized FetchStageExecutor defaultExecutor() {
+        if (defaultExecutor == null) {
+            defaultExecutor = new FetchStageExecutor(new GitHubFetcherConfig());
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Applies the given (blocking) function to all items, at most as many at the same time as
+     * the stage allows.
+     *
+     * @param stage the stage the function belongs to
+     * @param items the items
+     * @param f     the function, e.g. a fetcher call
+     * @param <T>   type parameter for the items
+     * @param <R>   type parameter for the results
+     * @return the results, in the same order as the items
+     */
+    public <T, R> List<R> mapAll(Stage stage, List<T> items, Function<T, R> f) {
+        final Semaphore stagePermits = permits.get(stage);
+        final List<Future<R>> futures = new ArrayList<>(items.size());
+        try {
+            for (T item : items) {
+                stagePermits.acquire();
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return f.apply(item);
+                        } finally {
+                            stagePermits.release();
+                        }
+                    }));
+                } catch (RuntimeException e) {
+                    // the task was rejected, so it won't release its permit:
+                    stagePermits.release();
+                    throw e;
+                }
+            }
+
+            final List<R> results = new ArrayList<>(futures.size());
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            } else {
+                throw new IllegalStateException("A task of the " + stage + " stage failed!", e.getCause());
+            }
+
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the " + stage + " stage!", e);
+        }
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor if the JVM supports it. This is done via
+     * reflection, as we still compile against Java 8.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            final ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.debug("Running the fetch stages on virtual threads.");
+            return executor;
+
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("No virtual threads available, running the fetch stages on platform threads.");
+            return Executors.newCachedThreadPool(r -> {
+                final Thread thread = new Thread(r, "github-fetch-stage");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -2,6 +2,8 @@ package org.coins1920.group05.fetcher;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.coins1920.group05.util.RopeList;
+import org.coins1920.group05.util.UrlSet;
 
 import java.io.Serializable;
 import java.util.LinkedList;
@@ -20,6 +22,7 @@ import java.util.Objects;
 @Data
 @AllArgsConstructor
 public class FetchingResult<T> implements Serializable {
+    private static final long serialVersionUID = 4895409845931673548L;
 
     // all entities that could be fetched:
     private List<T> entities;
@@ -27,28 +30,32 @@ public class FetchingResult<T> implements Serializable {
     // did a 401 occur (i.e. rate limit exceeded)?
     private boolean rateLimitOccurred;
 
-    // all URLs that could be fetched:
+    // all URLs that could be fetched (usually a UrlSet):
     private List<String> visitedUrls;
 
-    // all URLs where a 401 occurred:
+    // all URLs where a 401 occurred (usually a UrlSet):
     private List<String> failedUrls;
 
     public FetchingResult() {
         this.entities = new LinkedList<>();
         this.rateLimitOccurred = false;
-        this.visitedUrls = new LinkedList<>();
-        this.failedUrls = new LinkedList<>();
+        this.visitedUrls = new UrlSet();
+        this.failedUrls = new UrlSet();
     }
 
     public FetchingResult(List<T> entities) {
         this.entities = entities;
         this.rateLimitOccurred = false;
-        this.visitedUrls = new LinkedList<>();
-        this.failedUrls = new LinkedList<>();
+        this.visitedUrls = new UrlSet();
+        this.failedUrls = new UrlSet();
     }
 
     /**
-     * Combines to given FetchingResults into a single one.
+     * Combines to given FetchingResults into a single one. The entities are not copied but
+     * linked (see RopeList), so that a union is O(1), no matter how many entities there are.
+     * The visited and failed URLs, however, are copied into new sets. To combine more than two
+     * results, collect them with a FetchingResultBuilder (see toFetchingResult()) instead of a
+     * chain of unions.
      *
      * @param fetchingResult1 the first FetchingResult
      * @param fetchingResult2 the second FetchingResult
@@ -67,29 +74,30 @@ public class FetchingResult<T> implements Serializable {
             return Objects.requireNonNull(fetchingResult1, m);
         }
 
-        final List<U> combinedEntities = io.vavr.collection.List
-                .ofAll(fetchingResult1.getEntities())
-                .appendAll(fetchingResult2.getEntities())
-                .toJavaList();
+        // the entities are only linked (and copied once, when they are read):
+        final List<U> combinedEntities = RopeList
+                .concat(fetchingResult1.getEntities(), fetchingResult2.getEntities());
 
         boolean combinedRateLimitOccurred =
                 fetchingResult1.isRateLimitOccurred() || fetchingResult2.isRateLimitOccurred();
 
-        final List<String> combinedVisitedUrls = io.vavr.collection.List
-                .ofAll(fetchingResult1.getVisitedUrls())
-                .appendAll(fetchingResult2.getVisitedUrls())
-                .toJavaList();
-
-        final List<String> combinedFailedUrls = io.vavr.collection.List
-                .ofAll(fetchingResult1.getFailedUrls())
-                .appendAll(fetchingResult2.getFailedUrls())
-                .toJavaList();
-
         return new FetchingResult<U>(
                 combinedEntities,
                 combinedRateLimitOccurred,
-                combinedVisitedUrls,
-                combinedFailedUrls
+                unionOfUrls(fetchingResult1.getVisitedUrls(), fetchingResult2.getVisitedUrls()),
+                unionOfUrls(fetchingResult1.getFailedUrls(), fetchingResult2.getFailedUrls())
         );
     }
+
+    private static List<String> unionOfUrls(List<String> urls1, List<String> urls2) {
+        // a new set in any case, the results must not share their (mutable) URL sets:
+        final UrlSet combinedUrls = new UrlSet();
+        if (urls1 != null) {
+            combinedUrls.addAll(urls1);
+        }
+        if (urls2 != null) {
+            combinedUrls.addAll(urls2);
+        }
+        return combinedUrls;
+    }
 }
@@ -0,0 +1,85 @@
+package org.coins1920.group05.fetcher;
+
+import org.coins1920.group05.util.ChunkedList;
+import org.coins1920.group05.util.UrlSet;
+
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * Collects the pages of a paginated resource into a single FetchingResult. Unlike a chain of
+ * FetchingResult.union() calls (that copies the visited URLs collected so far for every page
+ * and links a rope segment per page), each page is only appended, so collecting N pages takes
+ * O(N) and ends up in a single flat list.
+ *
+ * @param <T> the type of the entities fetched
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class FetchingResultBuilder<T> {
+
+    private final List<T> entities = new ChunkedList<>();
+    private boolean rateLimitOccurred = false;
+    private final UrlSet visitedUrls = new UrlSet();
+    private final UrlSet failedUrls = new UrlSet();
+
+    /**
+     * Adds a page that was fetched successfully.
+     *
+     * @param url      the page's URL
+     * @param entities the page's entities
+     * @return this builder
+     */
+    public FetchingResultBuilder<T> visitedPage(String url, List<T> entities) {
+        this.entities.addAll(entities);
+        this.visitedUrls.add(url);
+        return this;
+    }
+
+    /**
+     * Adds a page that couldn't be fetched (e.g. due to a rate limit) and has to be re-fetched later on.
+     *
+     * @param url the page's URL
+     * @return this builder
+     */
+    public FetchingResultBuilder<T> failedPage(String url) {
+        this.rateLimitOccurred = true;
+        this.failedUrls.add(url);
+        return this;
+    }
+
+    /**
+     * Adds everything of another FetchingResult.
+     *
+     * @param fetchingResult the FetchingResult (may be null)
+     * @return this builder
+     */
+    public FetchingResultBuilder<T> add(FetchingResult<T> fetchingResult) {
+        if (fetchingResult != null) {
+            this.entities.addAll(fetchingResult.getEntities());
+            this.rateLimitOccurred |= fetchingResult.isRateLimitOccurred();
+            this.visitedUrls.addAll(fetchingResult.getVisitedUrls());
+            this.failedUrls.addAll(fetchingResult.getFailedUrls());
+        }
+        return this;
+    }
+
+    /**
+     * Returns a Collector that combines any number of FetchingResults into a single one in
+     * O(N), keeping their order.
+     *
+     * @param <U> type parameter for the entities
+     * @return the Collector
+     */
+    public static <U> Collector<FetchingResult<U>, ?, FetchingResult<U>> toFetchingResult() {
+        return Collector.of(
+                FetchingResultBuilder<U>::new,
+                FetchingResultBuilder::add,
+                (b1, b2) -> b1.add(b2.build()),
+                FetchingResultBuilder::build);
+    }
+
+    public FetchingResult<T> build() {
+        return new FetchingResult<>(entities, rateLimitOccurred, visitedUrls, failedUrls);
+    }
+}
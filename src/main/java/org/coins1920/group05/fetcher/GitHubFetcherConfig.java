@@ -0,0 +1,148 @@
+package org.coins1920.group05.fetcher;
+
+import lombok.Data;
+import org.coins1920.group05.fetcher.http.HttpTransportConfig;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.coins1920.group05.util.EnvironmentHelper.intFromEnvironment;
+
+/**
+ * All knobs of the GitHub fetchers in one place. The defaults are sensible for
+ * crawling a single repo with a single OAuth token.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Data
+public class GitHubFetcherConfig {
+
+    public static final String GITHUB_ROOT_URI = "https://api.github.com/";
+
+    // the API's root URI:
+    private String rootUri = GITHUB_ROOT_URI;
+
+    // the OAuth tokens to sign the requests with, each one has its own rate limit budget:
+    private List<String> oauthTokens = new LinkedList<>();
+
+    // whether to follow pagination links or not:
+    private boolean paginate = true;
+
+    // how many pages of a single paginated resource may be fetched at the same time:
+    private int maxConcurrentPages = 8;
+
+    // the connection pool, timeouts and compression:
+    private HttpTransportConfig transport = new HttpTransportConfig();
+
+    // how many requests the non-blocking engine may keep in flight at the same time:
+    private int maxConcurrentRequests = 256;
+
+    // how many issue, comment and user requests the blocking engines may run at the same time:
+    private int maxConcurrentIssueFetches = 8;
+    private int maxConcurrentCommentFetches = 64;
+    private int maxConcurrentUserFetches = 64;
+
+    // a directory for the persistent ETag/Last-Modified response cache (null disables it):
+    private String responseCacheDir;
+
+    // a directory for the archive of all raw responses (null disables it):
+    private String responseArchiveDir;
+
+    // whether to answer all requests from the response archive (i.e. without sending any):
+    private boolean replayArchive = false;
+
+    // whether to wait for the rate limit reset (instead of giving up with a partial result):
+    private boolean waitForRateLimitReset = true;
+
+    // whether to spread the requests evenly once the rate limit budget runs low:
+    private boolean paceRequests = true;
+
+    // the longest we are willing to wait for a rate limit to be lifted:
+    private long maxRateLimitWaitSeconds = 65 * 60;
+
+    // how often (and how patiently) a request that failed for a transient reason is re-sent:
+    private int maxRetries = 4;
+    private long retryBaseDelayMillis = 1000;
+    private long retryMaxDelayMillis = 60 * 1000;
+
+    // after how many transient failures in a row (and for how long) no requests are sent to a host:
+    private int circuitBreakerFailureThreshold = 10;
+    private long circuitBreakerOpenSeconds = 60;
+
+    // a directory for the persistent user profile cache, shared between repos and runs (null disables it):
+    private String userCacheDir;
+
+    // how long a cached user profile is considered fresh:
+    private long userCacheTtlSeconds = 7 * 24 * 60 * 60;
+
+    // how many user profiles are kept in memory:
+    private int userCacheMaxEntriesInMemory = 10_000;
+
+    // whether to build the users from the user cache alone (i.e. without fetching any profile):
+    private boolean offline = false;
+
+    /**
+     * Creates a config from the environment variables documented in the README
+     * (GITHUB_OAUTH_KEYS or GITHUB_OAUTH_KEY, GITHUB_CACHE_DIR, GITHUB_ARCHIVE_DIR, ...).
+     *
+     * @param paginate whether to follow pagination links or not
+     * @return the config
+     */
+    public static GitHubFetcherConfig fromEnvironment(boolean paginate) {
+        final GitHubFetcherConfig config = new GitHubFetcherConfig(System.getenv("GITHUB_OAUTH_KEY"), paginate);
+        final String oauthKeys = System.getenv("GITHUB_OAUTH_KEYS");
+        if (oauthKeys != null && !oauthKeys.trim().isEmpty()) {
+            config.setOauthTokens(splitTokens(oauthKeys));
+        }
+        config.setTransport(HttpTransportConfig.fromEnvironment());
+        config.setResponseCacheDir(System.getenv("GITHUB_CACHE_DIR"));
+        config.setResponseArchiveDir(System.getenv("GITHUB_ARCHIVE_DIR"));
+        config.setWaitForRateLimitReset(!"false".equalsIgnoreCase(System.getenv("GITHUB_WAIT_FOR_RATE_LIMIT")));
+        config.setUserCacheDir(System.getenv("GITHUB_USER_CACHE_DIR"));
+        final String userCacheTtlHours = System.getenv("GITHUB_USER_CACHE_TTL_HOURS");
+        if (userCacheTtlHours != null && !userCacheTtlHours.trim().isEmpty()) {
+            config.setUserCacheTtlSeconds(Long.parseLong(userCacheTtlHours.trim()) * 60 * 60);
+        }
+        config.setOffline("true".equalsIgnoreCase(System.getenv("GITHUB_OFFLINE")));
+        config.setMaxRetries(intFromEnvironment("GITHUB_MAX_RETRIES", config.getMaxRetries()));
+        config.setMaxConcurrentIssueFetches(intFromEnvironment(
+                "GITHUB_MAX_CONCURRENT_ISSUES", config.getMaxConcurrentIssueFetches()));
+        config.setMaxConcurrentCommentFetches(intFromEnvironment(
+                "GITHUB_MAX_CONCURRENT_COMMENTS", config.getMaxConcurrentCommentFetches()));
+        config.setMaxConcurrentUserFetches(intFromEnvironment(
+                "GITHUB_MAX_CONCURRENT_USERS", config.getMaxConcurrentUserFetches()));
+        return config;
+    }
+
+    public GitHubFetcherConfig() {
+    }
+
+    public GitHubFetcherConfig(String oauthToken, boolean paginate) {
+        if (oauthToken != null) {
+            this.oauthTokens.add(oauthToken);
+        }
+        this.paginate = paginate;
+    }
+
+    public GitHubFetcherConfig(String oauthToken, boolean paginate, String rootUri) {
+        this(oauthToken, paginate);
+        this.rootUri = rootUri;
+    }
+
+    /**
+     * Splits a comma-separated list of tokens (e.g. "token1,token2").
+     *
+     * @param tokens the comma-separated list
+     * @return the single tokens
+     */
+    public static List<String> splitTokens(String tokens) {
+        return Arrays
+                .stream(tokens.split(","))
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,534 @@
+package org.coins1920.group05.fetcher;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.coins1920.group05.model.github.rest.*;
+import org.springframework.web.client.RestClientException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * A fetcher for GitHub's GraphQL (v4) API. It queries the issues page by page together with
+ * their assignees and (the first page of) their comments. Thus, the comments don't have to be
+ * fetched issue by issue: only issues with more comments than fit onto the nested page need a
+ * follow-up query. All entities are mapped onto the ReST model (Issue, Comment, User), so that
+ * the GitHubRepoCondorizor doesn't notice any difference.
+ * <p>
+ * Everything the GraphQL API is not used for (users, contributors, retries of formerly failed
+ * ReST URLs) is delegated to a GitHubIssueFetcher. Note that GraphQL (unlike ReST) doesn't list
+ * pull requests as issues!
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class GitHubGraphQlFetcher implements GitHubTicketBoardFetcher {
+
+    // the pseudo URL prefix used to keep track of visited and failed GraphQL pages:
+    public static final String GRAPHQL_URL_PREFIX = "/graphql/repos/";
+
+    private static final int ISSUES_PAGE_SIZE = 50;
+    private static final int COMMENTS_PAGE_SIZE = 100;
+    private static final int ASSIGNEES_PAGE_SIZE = 10;
+
+    // GitHub's placeholder for deleted accounts (the ReST API returns this one instead of null):
+    private static final String GHOST_LOGIN = "ghost";
+    private static final String GHOST_ID = "10137";
+
+    static final String ACTOR_FRAGMENT = ""
+            + "fragment actorFields on Actor {"
+            + "  login"
+            + "  ... on User { databaseId }"
+            + "  ... on Bot { databaseId }"
+            + "}";
+
+    private static final String COMMENT_CONNECTION = ""
+            + "  totalCount"
+            + "  pageInfo { hasNextPage endCursor }"
+            + "  nodes { id databaseId body createdAt updatedAt author { ...actorFields } }";
+
+    private static final String ISSUES_QUERY = ""
+            + "query($owner: String!, $name: String!, $states: [IssueState!], $cursor: String) {"
+            + "  repository(owner: $owner, name: $name) {"
+            + "    issues(first: " + ISSUES_PAGE_SIZE + ", after: $cursor, states: $states,"
+            + "           orderBy: {field: CREATED_AT, direction: ASC}) {"
+            + "      pageInfo { hasNextPage endCursor }"
+            + "      nodes {"
+            + "        id databaseId number title state createdAt updatedAt closedAt"
+            + "        author { ...actorFields }"
+            + "        assignees(first: " + ASSIGNEES_PAGE_SIZE + ") { nodes { databaseId login } }"
+            + "        comments(first: " + COMMENTS_PAGE_SIZE + ") {" + COMMENT_CONNECTION + " }"
+            + "      }"
+            + "    }"
+            + "  }"
+            + "}"
+            + ACTOR_FRAGMENT;
+
+    private static final String COMMENTS_QUERY = ""
+            + "query($owner: String!, $name: String!, $number: Int!, $cursor: String) {"
+            + "  repository(owner: $owner, name: $name) {"
+            + "    issue(number: $number) {"
+            + "      comments(first: " + COMMENTS_PAGE_SIZE + ", after: $cursor) {" + COMMENT_CONNECTION + " }"
+            + "    }"
+            + "  }"
+            + "}"
+            + ACTOR_FRAGMENT;
+
+    private final GitHubIssueFetcher restFetcher;
+    private final GitHubIssueFetcher graphQlClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String apiRoot;
+    private final boolean paginate;
+
+    // the comments that came along with the issues, by issue ID:
+    private final Map<String, NestedComments> nestedComments = new ConcurrentHashMap<>();
+
+    public GitHubGraphQlFetcher(String oauthToken, boolean paginate) {
+        this(new GitHubFetcherConfig(oauthToken, paginate));
+    }
+
+    public GitHubGraphQlFetcher(String oauthToken, boolean paginate, String url) {
+        this(new GitHubFetcherConfig(oauthToken, paginate, url));
+    }
+
+    public GitHubGraphQlFetcher(GitHubFetcherConfig config) {
+        // GitHub keeps separate rate limit budgets for v3 and v4, hence two token pools:
+        this.restFetcher = new GitHubIssueFetcher(config);
+        this.graphQlClient = new GitHubIssueFetcher(config);
+        this.paginate = config.isPaginate();
+        this.apiRoot = config.getRootUri().endsWith("/")
+                ? config.getRootUri()
+                : config.getRootUri() + "/";
+    }
+
+    @Override
+    public List<Repo> fetchBoards() {
+        return restFetcher.fetchBoards();
+    }
+
+    @Override
+    public Repo fetchBoard(String owner, String board) {
+        return restFetcher.fetchBoard(owner, board);
+    }
+
+    @Override
+    public List<User> fetchBoardMembers(String owner, String board) {
+        return restFetcher.fetchBoardMembers(owner, board);
+    }
+
+    @Override
+    public FetchingResult<Issue> fetchTickets(String owner, String board, boolean fetchClosedTickets, Collection<String> visitedUrls) {
+        return fetchTickets(owner, board, fetchClosedTickets, visitedUrls, p -> {
+        });
+    }
+
+    @Override
+    public FetchingResult<Issue> fetchTickets(String owner, String board, boolean fetchClosedTickets,
+                                              Collection<String> visitedUrls, Consumer<FetchingResult<Issue>> onPage) {
+        final String states = fetchClosedTickets ? "OPEN,CLOSED" : "OPEN";
+        final String firstPageUrl = issuesUrl(owner, board, states, null);
+
+        // is this an already (and successfully) visited URL?
+        if (!visitedUrls.contains(firstPageUrl)) {
+            final FetchingResult<Issue> issues = fetchIssuePages(owner, board, states, null, visitedUrls, onPage);
+            log.debug("I got " + issues.getEntities().size() + " issues!");
+            return issues;
+
+        } else {
+            // the URL was already visited!
+            return new FetchingResult<>();
+        }
+    }
+
+    @Override
+    public List<Event> fetchActionsForTicket(String ticketId) {
+        return restFetcher.fetchActionsForTicket(ticketId);
+    }
+
+    @Override
+    public List<User> fetchMembersForTicket(Issue ticket) {
+        final List<User> contributors = new LinkedList<>();
+        contributors.addAll(fetchAssigneesForTicket(ticket));
+        contributors.addAll(fetchCommentatorsForTicket(ticket));
+        return contributors;
+    }
+
+    @Override
+    public List<User> fetchAssigneesForTicket(Issue ticket) {
+        return Arrays.asList(ticket.getAssignees());
+    }
+
+    @Override
+    public List<User> fetchCommentatorsForTicket(Issue ticket) {
+        return fetchCommentsForTicket(ticket, new LinkedList<>())
+                .getEntities()
+                .stream()
+                .filter(Objects::nonNull)
+                .map(Comment::getUser)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public FetchingResult<Comment> fetchCommentsForTicket(Issue ticket, Collection<String> visitedUrls) {
+        final NestedComments comments = nestedComments.get(ticket.getId());
+        if (comments == null) {
+            // this issue wasn't fetched via GraphQL (e.g. it stems from a partial result):
+            return restFetcher.fetchCommentsForTicket(ticket, visitedUrls);
+
+        } else if (visitedUrls.contains(comments.getCommentsUrl())) {
+            // the URL was already visited!
+            return new FetchingResult<>();
+
+        } else {
+            return fetchRemainingComments(comments);
+        }
+    }
+
+    @Override
+    public FetchingResult<Comment> fetchCommentsForBoard(String owner, String board, Collection<String> visitedUrls) {
+        return restFetcher.fetchCommentsForBoard(owner, board, visitedUrls);
+    }
+
+    @Override
+    public FetchingResult<Repo> fetchBoardsForOrganization(String organization) {
+        return restFetcher.fetchBoardsForOrganization(organization);
+    }
+
+    @Override
+    public FetchingResult<Event> fetchEventsForBoard(String owner, String board, Collection<String> visitedUrls) {
+        return restFetcher.fetchEventsForBoard(owner, board, visitedUrls);
+    }
+
+    @Override
+    public FetchingResult<Event> fetchEventsForTicket(Issue ticket) {
+        return restFetcher.fetchEventsForTicket(ticket);
+    }
+
+    @Override
+    public FetchingResult<Event> fetchEventsForTickets(List<Issue> issues) {
+        return restFetcher.fetchEventsForTickets(issues);
+    }
+
+    @Override
+    public Map<String, List<Reaction>> fetchReactions(Collection<String> nodeIds) {
+        // the reactions come from the GraphQL API as well, so they use its rate limit budget:
+        return graphQlClient.fetchReactions(nodeIds);
+    }
+
+    @Override
+    public FetchingResult<Issue> fetchTicketsUpdatedSince(String owner, String board, String since) {
+        return restFetcher.fetchTicketsUpdatedSince(owner, board, since);
+    }
+
+    @Override
+    public FetchingResult<Comment> fetchCommentsForBoardUpdatedSince(String owner, String board, String since) {
+        return restFetcher.fetchCommentsForBoardUpdatedSince(owner, board, since);
+    }
+
+    @Override
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> statistics = new LinkedHashMap<>();
+        restFetcher.getStatistics().forEach((k, v) -> statistics.put("rest." + k, v));
+        graphQlClient.getStatistics().forEach((k, v) -> statistics.put("graphql." + k, v));
+        return statistics;
+    }
+
+    @Override
+    public FetchStageExecutor getStageExecutor() {
+        return restFetcher.getStageExecutor();
+    }
+
+    @Override
+    public Optional<User> fetchAllInfoForUser(User user) {
+        return restFetcher.fetchAllInfoForUser(user);
+    }
+
+    @Override
+    public List<User> fetchAllInfoForUsers(List<User> users) {
+        return restFetcher.fetchAllInfoForUsers(users);
+    }
+
+    @Override
+    public FetchingResult<Issue> retryTicketFetching(String url, String owner, String board, Collection<String> visitedUrls) {
+        if (!url.startsWith(GRAPHQL_URL_PREFIX)) {
+            // a ReST URL, e.g. from a partial result of another engine:
+            return restFetcher.retryTicketFetching(url, owner, board, visitedUrls);
+
+        } else if (!visitedUrls.contains(url)) {
+            final Map<String, String> parameters = queryParameters(url);
+            final FetchingResult<Issue> retriedIssues = fetchIssuePages(
+                    owner, board, parameters.getOrDefault("states", "OPEN,CLOSED"), parameters.get("after"),
+                    visitedUrls, p -> {
+                    });
+            log.debug("I got " + retriedIssues.getEntities().size() + " entities!");
+            return retriedIssues;
+
+        } else {
+            // the URL was already visited!
+            return new FetchingResult<>();
+        }
+    }
+
+    @Override
+    public FetchingResult<Comment> retryCommentFetching(String url, String owner, String board, Collection<String> visitedUrls) {
+        // failed comments are always recorded by their ReST URL:
+        return restFetcher.retryCommentFetching(url, owner, board, visitedUrls);
+    }
+
+    /**
+     * Fetches all issue pages, starting at the given cursor, and stops at the first page that was
+     * visited before (the run that visited it also recorded the page following it). Stores the
+     * nested comments of every issue, so that they can be served by fetchCommentsForTicket() later
+     * on. Hands every page to the given callback (see GitHubTicketBoardFetcher.fetchTickets()).
+     */
+    private FetchingResult<Issue> fetchIssuePages(String owner, String board, String states, String cursor,
+                                                  Collection<String> formerlyVisitedUrls,
+                                                  Consumer<FetchingResult<Issue>> onPage) {
+        final List<Issue> issues = new LinkedList<>();
+        final List<String> visitedUrls = new LinkedList<>();
+        String pageCursor = cursor;
+
+        while (true) {
+            final String url = issuesUrl(owner, board, states, pageCursor);
+            if (!visitedUrls.isEmpty() && formerlyVisitedUrls.contains(url)) {
+                return new FetchingResult<>(issues, false, visitedUrls, new LinkedList<>());
+            }
+            final Map<String, Object> variables = new LinkedHashMap<>();
+            variables.put("owner", owner);
+            variables.put("name", board);
+            variables.put("states", Arrays.asList(states.split(",")));
+            variables.put("cursor", pageCursor);
+
+            final JsonNode issueConnection;
+            try {
+                issueConnection = query(ISSUES_QUERY, variables)
+                        .path("repository")
+                        .path("issues");
+            } catch (RestClientException | GraphQlException e) {
+                log.warn("Fetching '" + url + "' failed: " + e.getMessage());
+                onPage.accept(new FetchingResult<>(new LinkedList<>(), true, new LinkedList<>(),
+                        io.vavr.collection.List.of(url).toJavaList()));
+                return new FetchingResult<>(
+                        issues,
+                        true,
+                        visitedUrls,
+                        io.vavr.collection.List.of(url).toJavaList()
+                );
+            }
+
+            final List<Issue> pageIssues = new LinkedList<>();
+            for (JsonNode issueNode : issueConnection.path("nodes")) {
+                final Issue issue = toIssue(owner, board, issueNode);
+                final JsonNode commentConnection = issueNode.path("comments");
+                nestedComments.put(issue.getId(), new NestedComments(
+                        owner, board,
+                        issueNode.path("number").asInt(),
+                        issue.getUrl(),
+                        issuePath(owner, board, issueNode.path("number").asText()) + "/comments",
+                        toComments(commentConnection, issue.getUrl()),
+                        commentConnection.path("pageInfo").path("hasNextPage").asBoolean(false),
+                        commentConnection.path("pageInfo").path("endCursor").asText(null)
+                ));
+                pageIssues.add(issue);
+            }
+            issues.addAll(pageIssues);
+            visitedUrls.add(url);
+
+            final JsonNode pageInfo = issueConnection.path("pageInfo");
+            final boolean hasNextPage = paginate && pageInfo.path("hasNextPage").asBoolean(false);
+            final String nextCursor = pageInfo.path("endCursor").asText();
+            onPage.accept(new FetchingResult<>(pageIssues, false, io.vavr.collection.List.of(url).toJavaList(),
+                    hasNextPage
+                            ? io.vavr.collection.List.of(issuesUrl(owner, board, states, nextCursor)).toJavaList()
+                            : new LinkedList<>()));
+            if (!hasNextPage) {
+                return new FetchingResult<>(issues, false, visitedUrls, new LinkedList<>());
+            }
+            pageCursor = nextCursor;
+        }
+    }
+
+    /**
+     * Adds all comments that didn't fit onto the nested page. If any follow-up query fails, the
+     * issue's comments URL is recorded as failed, so that they can be re-fetched via ReST.
+     */
+    private FetchingResult<Comment> fetchRemainingComments(NestedComments comments) {
+        final List<Comment> allComments = new LinkedList<>(comments.getComments());
+        boolean hasNextPage = comments.isHasNextPage();
+        String cursor = comments.getEndCursor();
+
+        while (hasNextPage) {
+            final Map<String, Object> variables = new LinkedHashMap<>();
+            variables.put("owner", comments.getOwner());
+            variables.put("name", comments.getBoard());
+            variables.put("number", comments.getNumber());
+            variables.put("cursor", cursor);
+
+            try {
+                final JsonNode commentConnection = query(COMMENTS_QUERY, variables)
+                        .path("repository")
+                        .path("issue")
+                        .path("comments");
+                allComments.addAll(toComments(commentConnection, comments.getIssueUrl()));
+                hasNextPage = commentConnection.path("pageInfo").path("hasNextPage").asBoolean(false);
+                cursor = commentConnection.path("pageInfo").path("endCursor").asText(null);
+
+            } catch (RestClientException | GraphQlException e) {
+                log.warn("Fetching the comments for '" + comments.getCommentsUrl() + "' failed: " + e.getMessage());
+                return new FetchingResult<>(
+                        new LinkedList<>(),
+                        true,
+                        new LinkedList<>(),
+                        io.vavr.collection.List.of(comments.getCommentsUrl()).toJavaList()
+                );
+            }
+        }
+
+        return new FetchingResult<>(
+                allComments,
+                false,
+                io.vavr.collection.List.of(comments.getCommentsUrl()).toJavaList(),
+                new LinkedList<>()
+        );
+    }
+
+    private JsonNode query(String query, Map<String, Object> variables) {
+        final JsonNode response = graphQlClient.executeGraphQlQuery(query, variables);
+        if (response == null) {
+            throw new GraphQlException("The response was empty!");
+        }
+
+        final JsonNode errors = response.path("errors");
+        if (errors.isArray() && errors.size() > 0) {
+            // e.g. RATE_LIMITED or NOT_FOUND:
+            final String messages = io.vavr.collection.List
+                    .ofAll(errors)
+                    .map(e -> e.path("type").asText("") + ": " + e.path("message").asText(""))
+                    .mkString("; ");
+            throw new GraphQlException(messages);
+        }
+        return response.path("data");
+    }
+
+    /**
+     * Maps a GraphQL issue node onto the ReST model.
+     */
+    private Issue toIssue(String owner, String board, JsonNode node) {
+        final String number = node.path("number").asText();
+        final ObjectNode issue = objectMapper.createObjectNode();
+        issue.put("id", node.path("databaseId").asText(null));
+        issue.put("node_id", node.path("id").asText(null));
+        issue.put("number", number);
+        issue.put("title", node.path("title").asText(null));
+        issue.put("url", apiUrl(issuePath(owner, board, number)));
+        issue.put("comments_url", apiUrl(issuePath(owner, board, number) + "/comments"));
+        issue.put("events_url", apiUrl(issuePath(owner, board, number) + "/events"));
+        issue.put("state", node.path("state").asText("").toLowerCase());
+        issue.put("comments", node.path("comments").path("totalCount").asText("0"));
+        issue.put("created_at", node.path("createdAt").asText(null));
+        issue.put("updated_at", node.path("updatedAt").asText(null));
+        issue.put("closed_at", node.path("closedAt").asText(null));
+        issue.set("user", toUser(node.path("author")));
+
+        final ArrayNode assignees = issue.putArray("assignees");
+        node.path("assignees").path("nodes").forEach(a -> assignees.add(toUser(a)));
+        return objectMapper.convertValue(issue, Issue.class);
+    }
+
+    private List<Comment> toComments(JsonNode commentConnection, String issueUrl) {
+        final List<Comment> comments = new LinkedList<>();
+        for (JsonNode node : commentConnection.path("nodes")) {
+            final ObjectNode comment = objectMapper.createObjectNode();
+            comment.put("id", node.path("databaseId").asText(null));
+            comment.put("node_id", node.path("id").asText(null));
+            comment.set("user", toUser(node.path("author")));
+            comment.put("created_at", node.path("createdAt").asText(null));
+            comment.put("updated_at", node.path("updatedAt").asText(null));
+            comment.put("body", node.path("body").asText(null));
+            comment.put("issue_url", issueUrl);
+            comments.add(objectMapper.convertValue(comment, Comment.class));
+        }
+        return comments;
+    }
+
+    private ObjectNode toUser(JsonNode node) {
+        return toUser(objectMapper, apiRoot, node);
+    }
+
+    /**
+     * Maps a GraphQL actor node onto the ReST model's user (i.e. login, ID and API URL).
+     */
+    static ObjectNode toUser(ObjectMapper objectMapper, String apiRoot, JsonNode node) {
+        final ObjectNode user = objectMapper.createObjectNode();
+        if (node.isMissingNode() || node.isNull()) {
+            // a deleted account:
+            user.put("id", GHOST_ID);
+            user.put("login", GHOST_LOGIN);
+        } else {
+            user.put("id", node.path("databaseId").asText(null));
+            user.put("login", node.path("login").asText(null));
+        }
+        user.put("url", apiRoot + "users/" + user.path("login").asText());
+        return user;
+    }
+
+    private String apiUrl(String path) {
+        return apiRoot + path.substring(1);
+    }
+
+    private static String issuePath(String owner, String board, String number) {
+        return "/repos/" + owner + "/" + board + "/issues/" + number;
+    }
+
+    private static String issuesUrl(String owner, String board, String states, String cursor) {
+        return GRAPHQL_URL_PREFIX + owner + "/" + board + "/issues?states=" + states
+                + ((cursor != null) ? "&after=" + cursor : "");
+    }
+
+    private static Map<String, String> queryParameters(String url) {
+        final Map<String, String> parameters = new HashMap<>();
+        final int queryStart = url.indexOf('?');
+        if (queryStart >= 0) {
+            for (String parameter : url.substring(queryStart + 1).split("&")) {
+                final int separator = parameter.indexOf('=');
+                if (separator > 0) {
+                    parameters.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * The comments that came along with an issue, plus everything needed to fetch the rest.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class NestedComments {
+        private final String owner;
+        private final String board;
+        private final int number;
+        private final String issueUrl;
+        private final String commentsUrl;
+        private final List<Comment> comments;
+        private final boolean hasNextPage;
+        private final String endCursor;
+    }
+
+    /**
+     * A GraphQL response that carried errors instead of (or along with) data.
+     */
+    private static class GraphQlException extends RuntimeException {
+        GraphQlException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,17 +1,33 @@
 package org.coins1920.group05.fetcher;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.coins1920.group05.fetcher.http.ConditionalRequestInterceptor;
+import org.coins1920.group05.fetcher.http.HttpTransport;
+import org.coins1920.group05.fetcher.http.RateLimitInterceptor;
+import org.coins1920.group05.fetcher.http.ResponseArchive;
+import org.coins1920.group05.fetcher.http.ResponseArchiveInterceptor;
+import org.coins1920.group05.fetcher.http.ResponseCache;
+import org.coins1920.group05.fetcher.http.RetryPolicy;
+import org.coins1920.group05.fetcher.http.SingleFlight;
+import org.coins1920.group05.fetcher.http.StreamingPageExtractor;
+import org.coins1920.group05.fetcher.http.TokenPool;
 import org.coins1920.group05.model.github.rest.*;
 import org.coins1920.group05.util.RestClientHelper;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
-import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URL;
 import java.util.*;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -21,28 +37,119 @@ import java.util.stream.Collectors;
  * @author Julian Cornea (buggitheclown)
  */
 @Slf4j
-public class GitHubIssueFetcher implements TicketBoardFetcher<Repo, User, Issue, Event, Comment> {
-
-    private static final String GITHUB_ROOT_URI = "https://api.github.com/";
+public class GitHubIssueFetcher implements GitHubTicketBoardFetcher {
 
     private final RestTemplate rt;
-    private final String oauthToken;
-    private final Boolean paginate;
+    private final TokenPool tokenPool;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final GitHubPaginator paginator;
+    private final FetchStageExecutor stageExecutor;
+    private final RetryPolicy retryPolicy;
+    private final GitHubReactionFetcher reactionFetcher;
+    private final ResponseArchiveInterceptor archiveInterceptor;
+
+    // concurrent requests for the same user or page share a single HTTP call:
+    private final SingleFlight<String, Optional<User>> userLookups = new SingleFlight<>();
+    private final SingleFlight<String, ResponseEntity<?>> pageLookups = new SingleFlight<>();
 
     public GitHubIssueFetcher(String oauthToken, boolean paginate) {
-        this.oauthToken = oauthToken;
-        this.paginate = paginate;
-        this.rt = new RestTemplateBuilder()
-                .rootUri(GITHUB_ROOT_URI)
-                .build();
+        this(new GitHubFetcherConfig(oauthToken, paginate));
     }
 
     public GitHubIssueFetcher(String oauthToken, boolean paginate, String url) {
-        this.oauthToken = oauthToken;
-        this.paginate = paginate;
+        this(new GitHubFetcherConfig(oauthToken, paginate, url));
+    }
+
+    public GitHubIssueFetcher(GitHubFetcherConfig config) {
+        this.paginator = new GitHubPaginator(config.isPaginate(), config.getMaxConcurrentPages());
+        this.stageExecutor = new FetchStageExecutor(config);
+        this.retryPolicy = new RetryPolicy(config.getMaxRetries(), config.getRetryBaseDelayMillis(),
+                config.getRetryMaxDelayMillis(),
+                config.isWaitForRateLimitReset() ? config.getMaxRateLimitWaitSeconds() * 1000 : 0,
+                config.getCircuitBreakerFailureThreshold(), config.getCircuitBreakerOpenSeconds() * 1000);
+        this.tokenPool = new TokenPool(config.getOauthTokens(), config.isPaceRequests());
+        this.archiveInterceptor = archiveInterceptorFor(config);
         this.rt = new RestTemplateBuilder()
-                .rootUri(url)
+                .rootUri(config.getRootUri())
+                .requestFactory(() -> HttpTransport.requestFactory(config.getTransport()))
+                .additionalInterceptors(interceptorsFor(config, tokenPool, archiveInterceptor))
                 .build();
+        this.reactionFetcher = new GitHubReactionFetcher(this::executeGraphQlQuery, config.getRootUri(),
+                config.isPaginate(), GitHubReactionFetcher.DEFAULT_BATCH_SIZE);
+    }
+
+    private static ResponseArchiveInterceptor archiveInterceptorFor(GitHubFetcherConfig config) {
+        if (config.getResponseArchiveDir() == null || config.getResponseArchiveDir().trim().isEmpty()) {
+            if (config.isReplayArchive()) {
+                throw new IllegalArgumentException("There is no response archive directory to replay from!");
+            }
+            return null;
+        }
+        try {
+            return new ResponseArchiveInterceptor(
+                    ResponseArchive.forDirectory(config.getResponseArchiveDir()), config.isReplayArchive());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The response archive directory '"
+                    + config.getResponseArchiveDir() + "' is not usable!", e);
+        }
+    }
+
+    private static List<ClientHttpRequestInterceptor> interceptorsFor(GitHubFetcherConfig config, TokenPool tokenPool,
+                                                                      ResponseArchiveInterceptor archiveInterceptor) {
+        final List<ClientHttpRequestInterceptor> interceptors = new LinkedList<>();
+        if (archiveInterceptor != null) {
+            // this one has to see the responses exactly as the fetcher does, so it has to be the first interceptor:
+            interceptors.add(archiveInterceptor);
+            if (archiveInterceptor.isReplay()) {
+                // all responses come from the archive, no request is ever sent:
+                return interceptors;
+            }
+        }
+        if (config.getResponseCacheDir() != null && !config.getResponseCacheDir().trim().isEmpty()) {
+            try {
+                interceptors.add(new ConditionalRequestInterceptor(new ResponseCache(config.getResponseCacheDir())));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("The response cache directory '"
+                        + config.getResponseCacheDir() + "' is not usable!", e);
+            }
+        }
+        // this one signs (and re-sends) the requests, so it has to be the last interceptor:
+        interceptors.add(new RateLimitInterceptor(
+                tokenPool, config.isWaitForRateLimitReset(), config.getMaxRateLimitWaitSeconds()));
+        return interceptors;
+    }
+
+    public TokenPool getTokenPool() {
+        return tokenPool;
+    }
+
+    @Override
+    public FetchStageExecutor getStageExecutor() {
+        return stageExecutor;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    @Override
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> statistics = new LinkedHashMap<>(retryPolicy.getStatistics());
+        statistics.put("coalescedUserLookups", userLookups.getHits());
+        statistics.put("coalescedPageLookups", pageLookups.getHits());
+        if (archiveInterceptor != null) {
+            statistics.putAll(archiveInterceptor.getStatistics());
+        }
+        return statistics;
+    }
+
+    public SingleFlight<String, Optional<User>> getUserLookups() {
+        return userLookups;
+    }
+
+    public SingleFlight<String, ResponseEntity<?>> getPageLookups() {
+        return pageLookups;
     }
 
     @Override
@@ -57,49 +164,58 @@ public class GitHubIssueFetcher implements TicketBoardFetcher<Repo, User, Issue,
 
     @Override
     public List<User> fetchBoardMembers(String owner, String board) {
-        final String url = "/repos/{owner}/{board}/contributors";
+        final String url = RestClientHelper.expand("/repos/{owner}/{board}/contributors", owner, board);
         return getAllEntitiesWithPagination((u, e) ->
-                rt.exchange(u, HttpMethod.GET, e, User[].class, owner, board), url)
+                getPage(u, e, User.class, owner, board), url)
                 .getEntities();
     }
 
     @Override
-    public FetchingResult<Issue> fetchTickets(String owner, String board, boolean fetchClosedTickets, List<String> visitedUrls) {
-        final String openTicketsUrl = "/repos/{owner}/{board}/issues";
-
-        // is this an already (and successfully) visited URL?
-        if (!visitedUrls.contains(openTicketsUrl)) {
-            // all open tickets:
-            final FetchingResult<Issue> openIssues = getAllEntitiesWithPagination((u, e) ->
-                    rt.exchange(u, HttpMethod.GET, e, Issue[].class, owner, board), openTicketsUrl);
-            log.debug("I got " + openIssues.getEntities().size() + " issues!");
-
-            // and all closed ones?
-            if (!fetchClosedTickets) {
-                // no, just the open ones:
-                return openIssues;
+    public FetchingResult<Issue> fetchTickets(String owner, String board, boolean fetchClosedTickets, Collection<String> visitedUrls) {
+        return fetchTickets(owner, board, fetchClosedTickets, visitedUrls, p -> {
+        });
+    }
 
-            } else {
-                final String closedTicketsUrl = "/repos/{owner}/{board}/issues?state=closed";
-                final FetchingResult<Issue> closedIssues = getAllEntitiesWithPagination((u, e) ->
-                        rt.exchange(u, HttpMethod.GET, e, Issue[].class, owner, board), closedTicketsUrl);
-                log.debug("I got " + closedIssues.getEntities().size() + " closed issues!");
-
-                // filter out all PRs, we only want issues: // TODO: do we??
-                // TODO: .filter(i -> i.getPullRequest() == null || i.getPullRequest().getUrl() == null)
-                // TODO: the "pull_request" object in the JSON response is not the right property to distinguish issues from PRs!
-                return FetchingResult.union(openIssues, closedIssues);
+    @Override
+    public FetchingResult<Issue> fetchTickets(String owner, String board, boolean fetchClosedTickets,
+                                              Collection<String> visitedUrls, Consumer<FetchingResult<Issue>> onPage) {
+        final String openTicketsUrl = RestClientHelper.expand("/repos/{owner}/{board}/issues", owner, board);
+        final String closedTicketsUrl = RestClientHelper
+                .expand("/repos/{owner}/{board}/issues?state=closed", owner, board);
+
+        // all open tickets and, if requested, all closed ones (both at the same time):
+        final List<String> urls = fetchClosedTickets
+                ? io.vavr.collection.List.of(openTicketsUrl, closedTicketsUrl).toJavaList()
+                : io.vavr.collection.List.of(openTicketsUrl).toJavaList();
+        final List<FetchingResult<Issue>> issues = stageExecutor.mapAll(FetchStageExecutor.Stage.ISSUES, urls, url -> {
+            // each listing is checked on its own: the first page of one of them may have been
+            // journaled before the other one's (the pages following it are re-tried as failed URLs):
+            if (visitedUrls.contains(url)) {
+                return new FetchingResult<Issue>();
             }
+            return getAllEntitiesWithPagination((u, e) -> getPage(u, e, Issue.class, owner, board), url,
+                    visitedUrls, onPage);
+        });
+        log.debug("I got " + issues.get(0).getEntities().size() + " issues!");
+
+        // and all closed ones?
+        if (!fetchClosedTickets) {
+            // no, just the open ones:
+            return issues.get(0);
 
         } else {
-            // the URL was already visited!
-            return new FetchingResult<>();
+            log.debug("I got " + issues.get(1).getEntities().size() + " closed issues!");
+
+            // filter out all PRs, we only want issues: // TODO: do we??
+            // TODO: .filter(i -> i.getPullRequest() == null || i.getPullRequest().getUrl() == null)
+            // TODO: the "pull_request" object in the JSON response is not the right property to distinguish issues from PRs!
+            return FetchingResult.union(issues.get(0), issues.get(1));
         }
     }
 
     @Override
     public List<Event> fetchActionsForTicket(String ticketId) {
-        // TODO: curl 'https://api.github.com/repos/linuxmint/cinnamon-spices-extensions/issues/198/events'
+        // the events are fetched for a whole repo at once, see fetchEventsForBoard():
         return null;
     }
 
@@ -113,8 +229,8 @@ public class GitHubIssueFetcher implements TicketBoardFetcher<Repo, User, Issue,
         // ...then all those users who wrote a comment:
         contributors.addAll(fetchCommentatorsForTicket(ticket));
 
-        // and finally everyone who reacted (e.g. by emoji-liking a comment:
-        // TODO: fetchActionsForTicket().getUsers()
+        // everyone who reacted (e.g. by emoji-liking the issue) is fetched for all issues at once,
+        // see fetchReactions() - and only if GITHUB_FETCH_REACTIONS is set!
 
         return contributors;
     }
@@ -135,7 +251,7 @@ public class GitHubIssueFetcher implements TicketBoardFetcher<Repo, User, Issue,
     }
 
     @Override
-    public FetchingResult<Comment> fetchCommentsForTicket(Issue ticket, List<String> visitedUrls) {
+    public FetchingResult<Comment> fetchCommentsForTicket(Issue ticket, Collection<String> visitedUrls) {
         if (ticket.getCommentsUrl() == null || ticket.getCommentsUrl().isEmpty()) {
             log.warn("  the issue " + ticket.getId() + " has no comments => no comments URL!");
             return new FetchingResult<>();
@@ -146,7 +262,7 @@ public class GitHubIssueFetcher implements TicketBoardFetcher<Repo, User, Issue,
                 try {
                     final String commentsUrl = new URL(ticket.getCommentsUrl()).getPath();
                     return getAllEntitiesWithPagination((u, e) ->
-                            rt.exchange(u, HttpMethod.GET, e, Comment[].class), commentsUrl);
+                            getPage(u, e, Comment.class), commentsUrl);
 
                 } catch (MalformedURLException e) {
                     log.error("The comments URL ('" + ticket.getCommentsUrl() +
@@ -161,11 +277,82 @@ public class GitHubIssueFetcher implements TicketBoardFetcher<Repo, User, Issue,
         }
     }
 
+    @Override
+    public FetchingResult<Comment> fetchCommentsForBoard(String owner, String board, Collection<String> visitedUrls) {
+        final String url = RestClientHelper.expand("/repos/{owner}/{board}/issues/comments?per_page=100", owner, board);
+        return retryFetching(url, owner, board, visitedUrls, (u, e) ->
+                getPage(u, e, Comment.class, owner, board));
+    }
+
+    @Override
+    public FetchingResult<Repo> fetchBoardsForOrganization(String organization) {
+        final String url = RestClientHelper.expand("/orgs/{organization}/repos?per_page=100", organization);
+        return getAllEntitiesWithPagination((u, e) ->
+                getPage(u, e, Repo.class, organization), url);
+    }
+
+    @Override
+    public FetchingResult<Event> fetchEventsForBoard(String owner, String board, Collection<String> visitedUrls) {
+        final String url = RestClientHelper.expand("/repos/{owner}/{board}/issues/events?per_page=100", owner, board);
+        return retryFetching(url, owner, board, visitedUrls, (u, e) ->
+                getPage(u, e, Event.class, owner, board));
+    }
+
+    @Override
+    public FetchingResult<Event> fetchEventsForTicket(Issue ticket) {
+        if (ticket.getEventsUrl() == null || ticket.getEventsUrl().isEmpty()) {
+            log.warn("  the issue " + ticket.getId() + " has no events URL!");
+            return new FetchingResult<>();
+        }
+
+        try {
+            final String eventsUrl = new URL(ticket.getEventsUrl()).getPath();
+            final FetchingResult<Event> events = getAllEntitiesWithPagination((u, e) ->
+                    getPage(u, e, Event.class), eventsUrl);
+            // (the events of a single issue don't carry it):
+            events.getEntities().forEach(e -> e.setIssue(ticket));
+            return events;
+
+        } catch (MalformedURLException e) {
+            log.error("The events URL ('" + ticket.getEventsUrl() +
+                    "') for ticket " + ticket.getId() + "was malformed!", e);
+            return new FetchingResult<>();
+        }
+    }
+
+    @Override
+    public Map<String, List<Reaction>> fetchReactions(Collection<String> nodeIds) {
+        return reactionFetcher.fetchReactions(nodeIds);
+    }
+
+    @Override
+    public FetchingResult<Issue> fetchTicketsUpdatedSince(String owner, String board, String since) {
+        final String url = RestClientHelper
+                .expand("/repos/{owner}/{board}/issues?state=all&per_page=100&since={since}", owner, board, since);
+        return getAllEntitiesWithPagination((u, e) ->
+                getPage(u, e, Issue.class, owner, board, since), url);
+    }
+
+    @Override
+    public FetchingResult<Comment> fetchCommentsForBoardUpdatedSince(String owner, String board, String since) {
+        final String url = RestClientHelper
+                .expand("/repos/{owner}/{board}/issues/comments?per_page=100&since={since}", owner, board, since);
+        return getAllEntitiesWithPagination((u, e) ->
+                getPage(u, e, Comment.class, owner, board, since), url);
+    }
+
     @Override
     public Optional<User> fetchAllInfoForUser(User user) {
+        if (user.getUrl() == null) {
+            return Optional.empty();
+        }
+        return userLookups.execute(user.getUrl(), () -> fetchUser(user));
+    }
+
+    private Optional<User> fetchUser(User user) {
         try {
-            final ResponseEntity<User> responseEntity = rt
-                    .exchange(user.getUrl(), HttpMethod.GET, httpEntityWithDefaultHeaders(), User.class);
+            final ResponseEntity<User> responseEntity = retryPolicy.execute(hostOf(user.getUrl()), () -> rt
+                    .exchange(user.getUrl(), HttpMethod.GET, httpEntityWithDefaultHeaders(), User.class));
             if (responseEntity.getStatusCode() == HttpStatus.OK
                     && responseEntity.getBody() != null) {
                 return Optional.of(responseEntity.getBody());
@@ -180,21 +367,41 @@ public class GitHubIssueFetcher implements TicketBoardFetcher<Repo, User, Issue,
         }
     }
 
-    public FetchingResult<Issue> retryTicketFetching(String url, String owner, String board, List<String> visitedUrls) {
+    /**
+     * Sends a query to GitHub's GraphQL (v4) API. The request goes through the same interceptors
+     * (i.e. the same token pool and rate limit handling) as all ReST requests of this fetcher.
+     *
+     * @param query     the GraphQL query
+     * @param variables the query's variables
+     * @return the whole response body (i.e. "data" and, if there are any, "errors")
+     */
+    public JsonNode executeGraphQlQuery(String query, Map<String, Object> variables) {
+        final Map<String, Object> requestBody = new LinkedHashMap<>();
+        requestBody.put("query", query);
+        requestBody.put("variables", variables);
+        final ResponseEntity<JsonNode> response = retryPolicy.execute(hostOf("/graphql"), () -> rt
+                .exchange("/graphql", HttpMethod.POST, new HttpEntity<>(requestBody, defaultHeaders()), JsonNode.class));
+        return response.getBody();
+    }
+
+    @Override
+    public FetchingResult<Issue> retryTicketFetching(String url, String owner, String board, Collection<String> visitedUrls) {
         return retryFetching(url, owner, board, visitedUrls, (u, e) ->
-                rt.exchange(u, HttpMethod.GET, e, Issue[].class, owner, board));
+                getPage(u, e, Issue.class, owner, board));
     }
 
-    public FetchingResult<Comment> retryCommentFetching(String url, String owner, String board, List<String> visitedUrls) {
+    @Override
+    public FetchingResult<Comment> retryCommentFetching(String url, String owner, String board, Collection<String> visitedUrls) {
         return retryFetching(url, owner, board, visitedUrls, (u, e) ->
-                rt.exchange(u, HttpMethod.GET, e, Comment[].class, owner, board));
+                getPage(u, e, Comment.class, owner, board));
     }
 
-    private <U> FetchingResult<U> retryFetching(String url, String owner, String board, List<String> visitedUrls,
-                                                BiFunction<String, HttpEntity<?>, ResponseEntity<U[]>> f) {
+    private <U> FetchingResult<U> retryFetching(String url, String owner, String board, Collection<String> visitedUrls,
+                                                BiFunction<String, HttpEntity<?>, ResponseEntity<List<U>>> f) {
         // is this an already (and successfully) visited URL?
         if (!visitedUrls.contains(url)) {
-            final FetchingResult<U> retriedIssues = getAllEntitiesWithPagination(f, url);
+            final FetchingResult<U> retriedIssues = getAllEntitiesWithPagination(f, url, visitedUrls, p -> {
+            });
             log.debug("I got " + retriedIssues.getEntities().size() + " entities!");
             return retriedIssues;
 
@@ -206,87 +413,60 @@ public class GitHubIssueFetcher implements TicketBoardFetcher<Repo, User, Issue,
 
     /**
      * This is the magic method that does all the hard work: querying GitHub's API, dealing with
-     * pagination (recursion to the rescue!) and turning rate limits into empty results.
+     * pagination (see GitHubPaginator) and turning rate limits into empty results.
      *
      * @param f   the RestTemplate method to use
      * @param url the URL to query
      * @param <U> type parameter for the entities
      * @return the FetchingResult
      */
-    private <U> FetchingResult<U> getAllEntitiesWithPagination(BiFunction<String, HttpEntity<?>, ResponseEntity<U[]>> f, String url) {
-        final HttpEntity<?> entity = httpEntityWithDefaultHeaders();
-        try {
-            final ResponseEntity<U[]> response = f.apply(url, entity);
-            final List<U> responseEntities = RestClientHelper.nonNullResponseEntities(response);
-
-            final String paginationLinkKey = "Link";
-            if (paginate && response.getHeaders().containsKey(paginationLinkKey)) {
-                final String linkUrls = Objects.requireNonNull(
-                        response.getHeaders().get(paginationLinkKey)).get(0);
-                final Optional<String> linkUrlOptional = RestClientHelper
-                        .splitGithubPaginationLinks(linkUrls);
-                if (linkUrlOptional.isPresent()) {
-                    final String linkUrl = linkUrlOptional.get();
-                    log.debug("Found a link to the next page: " + linkUrl);
-
-                    try {
-                        final FetchingResult<U> fetchingResult = new FetchingResult<>(
-                                responseEntities,
-                                false,
-                                io.vavr.collection.List.of(url).toJavaList(),
-                                new LinkedList<>()
-                        );
-                        return FetchingResult.union(
-                                fetchingResult,
-                                getAllEntitiesWithPagination(f, linkUrl)
-                        );
-
-                        // catch 403 Forbidden exception for pagination requests:
-                    } catch (HttpClientErrorException e) {
-                        return new FetchingResult<>(
-                                responseEntities,
-                                true,
-                                new LinkedList<>(),
-                                io.vavr.collection.List.of(url).toJavaList()
-                        );
-                    }
-
-                } else {
-                    // there was no pagination link:
-                    return new FetchingResult<>(
-                            responseEntities,
-                            false,
-                            io.vavr.collection.List.of(url).toJavaList(),
-                            new LinkedList<>()
-                    );
-                }
-            } else {
-                // there was no pagination link header:
-                return new FetchingResult<>(
-                        responseEntities,
-                        false,
-                        io.vavr.collection.List.of(url).toJavaList(),
-                        new LinkedList<>()
-                );
-            }
+    private <U> FetchingResult<U> getAllEntitiesWithPagination(BiFunction<String, HttpEntity<?>, ResponseEntity<List<U>>> f, String url) {
+        return paginator.fetchAllPages(url, u -> f.apply(u, httpEntityWithDefaultHeaders()));
+    }
 
-            // catch 403 Forbidden exception:
-        } catch (HttpClientErrorException eo) {
-            return new FetchingResult<U>(
-                    new LinkedList<>(),
-                    true,
-                    new LinkedList<>(),
-                    io.vavr.collection.List.of(url).toJavaList()
-            );
-        }
+    /**
+     * Same as above, but skips the pages that were visited before and hands every page to the
+     * given callback as soon as it is there (see GitHubPaginator).
+     */
+    private <U> FetchingResult<U> getAllEntitiesWithPagination(BiFunction<String, HttpEntity<?>, ResponseEntity<List<U>>> f,
+                                                               String url, Collection<String> visitedUrls,
+                                                               Consumer<FetchingResult<U>> onPage) {
+        return paginator.fetchAllPages(url, u -> f.apply(u, httpEntityWithDefaultHeaders()), visitedUrls, onPage);
+    }
+
+    /**
+     * Fetches a single page and decodes its entities while they are streamed in. Concurrent
+     * requests for the same page (and entity type) share a single HTTP call, failed requests are
+     * re-sent according to the RetryPolicy.
+     *
+     * @param url          the URL to query
+     * @param httpEntity   the request's headers
+     * @param clazz        the entities' class
+     * @param uriVariables the URL's variables
+     * @param <U>          type parameter for the entities
+     * @return the page's entities
+     */
+    @SuppressWarnings("unchecked")
+    private <U> ResponseEntity<List<U>> getPage(String url, HttpEntity<?> httpEntity, Class<U> clazz, Object... uriVariables) {
+        final URI uri = rt.getUriTemplateHandler().expand(url, uriVariables);
+        return (ResponseEntity<List<U>>) pageLookups.execute(clazz.getName() + " " + uri, () ->
+                retryPolicy.execute(uri.getHost(), () ->
+                        rt.execute(url, HttpMethod.GET, rt.httpEntityCallback(httpEntity),
+                                new StreamingPageExtractor<>(objectMapper, clazz), uriVariables)));
     }
 
+    private String hostOf(String url) {
+        return rt.getUriTemplateHandler().expand(url).getHost();
+    }
 
     private HttpEntity<?> httpEntityWithDefaultHeaders() {
+        return new HttpEntity<>(defaultHeaders());
+    }
+
+    private HttpHeaders defaultHeaders() {
         final HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.add("user-agent", "Spring RestTemplate");
-        headers.set("Authorization", "token " + this.oauthToken);
-        return new HttpEntity<>(headers);
+        return headers;
     }
 }
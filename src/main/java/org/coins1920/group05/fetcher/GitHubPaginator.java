@@ -0,0 +1,216 @@
+package org.coins1920.group05.fetcher;
+
+import lombok.extern.slf4j.Slf4j;
+import org.coins1920.group05.fetcher.http.FailureClass;
+import org.coins1920.group05.util.RestClientHelper;
+import org.coins1920.group05.util.UrlSet;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Fetches all pages of a paginated GitHub resource. When the first response carries a
+ * rel="last" link, all remaining pages are known upfront and are fetched concurrently
+ * (at most maxConcurrentPages at a time). Otherwise the rel="next" links are followed
+ * one by one.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class GitHubPaginator {
+
+    private static final String PAGINATION_LINK_KEY = "Link";
+
+    private final boolean paginate;
+    private final ExecutorService pageExecutor;
+
+    public GitHubPaginator(boolean paginate, int maxConcurrentPages) {
+        this.paginate = paginate;
+        this.pageExecutor = Executors.newFixedThreadPool(Math.max(1, maxConcurrentPages), r -> {
+            final Thread thread = new Thread(r, "github-page-fetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fetches the given URL and all pages following it. Turns rate limits into failed URLs: the
+     * first page that could not be fetched is recorded as failed, all pages before it as visited.
+     * The "next" links are followed in a loop (not recursively), so there's no limit on the number
+     * of pages and every page is appended to the result in O(1).
+     *
+     * @param url         the URL to query
+     * @param pageFetcher a function that fetches a single page
+     * @param <U>         type parameter for the entities
+     * @return the FetchingResult, with all entities in page order
+     */
+    public <U> FetchingResult<U> fetchAllPages(String url, Function<String, ResponseEntity<List<U>>> pageFetcher) {
+        return fetchAllPages(url, pageFetcher, new UrlSet(), p -> {
+        });
+    }
+
+    /**
+     * Fetches the given URL and all pages following it, see above. Pages that were visited before
+     * (e.g. by an interrupted run) are not fetched again: the run that visited them also recorded
+     * the page following them. Hands every page to the given callback in page order, as soon as
+     * it is there (e.g. to journal it). Each page is handed over as a FetchingResult of its own
+     * that records the page as visited and the page following it (if any) as failed, so that a
+     * run that is interrupted afterwards can be continued by re-trying the failed URLs.
+     *
+     * @param url         the URL to query
+     * @param pageFetcher a function that fetches a single page
+     * @param visitedUrls all URLs that have already been (successfully) visited before
+     * @param onPage      a callback for every page
+     * @param <U>         type parameter for the entities
+     * @return the FetchingResult, with all entities in page order
+     */
+    public <U> FetchingResult<U> fetchAllPages(String url, Function<String, ResponseEntity<List<U>>> pageFetcher,
+                                               Collection<String> visitedUrls, Consumer<FetchingResult<U>> onPage) {
+        final FetchingResultBuilder<U> result = new FetchingResultBuilder<>();
+        final UrlSet visited = UrlSet.of(visitedUrls);
+        final Set<String> seenUrls = new HashSet<>();
+        String currentUrl = url;
+
+        while (currentUrl != null && seenUrls.add(currentUrl)
+                && (currentUrl.equals(url) || !visited.contains(currentUrl))) {
+            try {
+                final ResponseEntity<List<U>> response = pageFetcher.apply(currentUrl);
+                final Map<String, String> links = paginationLinks(response);
+                final String nextUrl = links.get("next");
+                final String lastUrl = links.get("last");
+                visitedPage(currentUrl, RestClientHelper.responseEntityList(response), nextUrl, result, onPage);
+
+                if (nextUrl != null && lastUrl != null
+                        && RestClientHelper.pageNumber(nextUrl).isPresent()
+                        && RestClientHelper.pageNumber(lastUrl).isPresent()) {
+                    // we know how many pages there are, so fetch them all at once:
+                    fetchPagesConcurrently(nextUrl, lastUrl, pageFetcher, visited, result, onPage);
+                    currentUrl = null;
+
+                } else {
+                    // no "last" link, follow the "next" link (if there is one):
+                    if (nextUrl != null) {
+                        log.debug("Found a link to the next page: " + nextUrl);
+                    }
+                    currentUrl = nextUrl;
+                }
+
+                // the request failed (for good, i.e. even after all retries):
+            } catch (RestClientException e) {
+                unavailablePage(currentUrl, null, e, result, onPage);
+                currentUrl = null;
+            }
+        }
+        return result.build();
+    }
+
+    private <U> void fetchPagesConcurrently(String nextUrl, String lastUrl,
+                                            Function<String, ResponseEntity<List<U>>> pageFetcher,
+                                            UrlSet visited, FetchingResultBuilder<U> result,
+                                            Consumer<FetchingResult<U>> onPage) {
+        final int firstPage = RestClientHelper.pageNumber(nextUrl).orElse(0);
+        final int lastPage = RestClientHelper.pageNumber(lastUrl).orElse(0);
+        log.debug("Fetching pages " + firstPage + " to " + lastPage + " concurrently...");
+
+        final List<String> pageUrls = new ArrayList<>();
+        final List<Future<ResponseEntity<List<U>>>> pages = new ArrayList<>();
+        for (int p = firstPage; p <= lastPage; p++) {
+            final String pageUrl = RestClientHelper.withPageNumber(nextUrl, p);
+            pageUrls.add(pageUrl);
+            // a page that was visited before is not fetched again:
+            pages.add(visited.contains(pageUrl) ? null : pageExecutor.submit(() -> pageFetcher.apply(pageUrl)));
+        }
+
+        // collect the pages in their original order, stop at the first one that failed:
+        for (int i = 0; i < pages.size(); i++) {
+            final String pageUrl = pageUrls.get(i);
+            final String followingPageUrl = (i + 1 < pageUrls.size()) ? pageUrls.get(i + 1) : null;
+            if (pages.get(i) == null) {
+                continue;
+            }
+            try {
+                visitedPage(pageUrl, RestClientHelper.responseEntityList(pages.get(i).get()),
+                        followingPageUrl, result, onPage);
+
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RestClientException
+                        && !FailureClass.of((RestClientException) e.getCause()).isRecoverable()) {
+                    // this page is gone for good (e.g. a 404), but the following ones might not be:
+                    log.warn("Fetching '" + pageUrl + "' failed for good, skipping it: " + e.getCause().getMessage());
+                    visitedPage(pageUrl, new LinkedList<>(), followingPageUrl, result, onPage);
+                    continue;
+                }
+
+                pages.stream().filter(Objects::nonNull).forEach(f -> f.cancel(true));
+                if (e.getCause() instanceof RestClientException) {
+                    // e.g. a 403 Forbidden, the pages following this one have to be re-fetched:
+                    unavailablePage(pageUrl, followingPageUrl, (RestClientException) e.getCause(), result, onPage);
+                    return;
+                } else if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else {
+                    throw new IllegalStateException("Fetching '" + pageUrl + "' failed!", e.getCause());
+                }
+
+            } catch (InterruptedException e) {
+                pages.stream().filter(Objects::nonNull).forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while fetching '" + pageUrl + "'!", e);
+            }
+        }
+    }
+
+    /**
+     * Adds a page to the result and hands it to the callback, together with the page that
+     * follows it (as a failed URL, i.e. one that still has to be fetched).
+     */
+    private <U> void visitedPage(String url, List<U> entities, String followingPageUrl,
+                                 FetchingResultBuilder<U> result, Consumer<FetchingResult<U>> onPage) {
+        result.visitedPage(url, entities);
+        final List<String> visitedUrls = new LinkedList<>();
+        visitedUrls.add(url);
+        final List<String> pendingUrls = new LinkedList<>();
+        if (followingPageUrl != null) {
+            pendingUrls.add(followingPageUrl);
+        }
+        onPage.accept(new FetchingResult<>(entities, false, visitedUrls, pendingUrls));
+    }
+
+    private <U> Map<String, String> paginationLinks(ResponseEntity<List<U>> response) {
+        if (paginate && response.getHeaders().containsKey(PAGINATION_LINK_KEY)) {
+            final String linkUrls = Objects.requireNonNull(
+                    response.getHeaders().get(PAGINATION_LINK_KEY)).get(0);
+            return RestClientHelper.parseGithubPaginationLinks(linkUrls);
+        } else {
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Adds a failed request to the result: pages that might be available later on (e.g. after a
+     * rate limit) are recorded as failed URLs, the ones that are gone for good (e.g. a 404) as
+     * visited (but empty) ones.
+     */
+    private <U> void unavailablePage(String url, String followingPageUrl, RestClientException e,
+                                     FetchingResultBuilder<U> result, Consumer<FetchingResult<U>> onPage) {
+        final FailureClass failureClass = FailureClass.of(e);
+        if (failureClass.isRecoverable()) {
+            log.warn("Fetching '" + url + "' failed (" + failureClass + "), it has to be re-fetched later on!");
+            result.failedPage(url);
+            final List<String> failedUrls = new LinkedList<>();
+            failedUrls.add(url);
+            onPage.accept(new FetchingResult<>(new LinkedList<>(), true, new LinkedList<>(), failedUrls));
+        } else {
+            log.warn("Fetching '" + url + "' failed for good, skipping it: " + e.getMessage());
+            visitedPage(url, new LinkedList<>(), followingPageUrl, result, onPage);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package org.coins1920.group05.fetcher;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.coins1920.group05.fetcher.http.FailureClass;
+import org.coins1920.group05.model.github.rest.Reaction;
+import org.springframework.web.client.RestClientException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches the (emoji) reactions on issues and comments via GitHub's GraphQL API. Over ReST,
+ * every single issue and comment would need a request of its own. Here, the reactions of up to
+ * batchSize issues and comments are fetched with a single nodes(ids: ...) query, only nodes
+ * with more than a page of reactions need a follow-up query. The reactions are cached by node ID,
+ * so that no node is queried twice.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class GitHubReactionFetcher {
+
+    // GitHub resolves at most 100 node IDs per query:
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private static final int REACTIONS_PAGE_SIZE = 100;
+
+    private static final String REACTION_CONNECTION = ""
+            + "  pageInfo { hasNextPage endCursor }"
+            + "  nodes { createdAt content user { ...actorFields } }";
+
+    private static final String REACTIONS_QUERY = ""
+            + "query($ids: [ID!]!) {"
+            + "  nodes(ids: $ids) {"
+            + "    ... on Reactable {"
+            + "      id"
+            + "      reactions(first: " + REACTIONS_PAGE_SIZE + ") {" + REACTION_CONNECTION + " }"
+            + "    }"
+            + "  }"
+            + "}"
+            + GitHubGraphQlFetcher.ACTOR_FRAGMENT;
+
+    private static final String MORE_REACTIONS_QUERY = ""
+            + "query($id: ID!, $cursor: String) {"
+            + "  node(id: $id) {"
+            + "    ... on Reactable {"
+            + "      id"
+            + "      reactions(first: " + REACTIONS_PAGE_SIZE + ", after: $cursor) {" + REACTION_CONNECTION + " }"
+            + "    }"
+            + "  }"
+            + "}"
+            + GitHubGraphQlFetcher.ACTOR_FRAGMENT;
+
+    private final BiFunction<String, Map<String, Object>, JsonNode> graphQlClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String apiRoot;
+    private final boolean paginate;
+    private final int batchSize;
+
+    // all reactions fetched so far, by node ID:
+    private final Map<String, List<Reaction>> reactionsByNode = new ConcurrentHashMap<>();
+
+    /**
+     * @param graphQlClient a function that sends a GraphQL query (and its variables) and returns the response body
+     * @param rootUri       the API's root URI (needed for the users' URLs)
+     * @param paginate      whether to fetch more than the first page of reactions per node
+     * @param batchSize     how many nodes are queried at once
+     */
+    public GitHubReactionFetcher(BiFunction<String, Map<String, Object>, JsonNode> graphQlClient,
+                                 String rootUri, boolean paginate, int batchSize) {
+        this.graphQlClient = graphQlClient;
+        this.apiRoot = rootUri.endsWith("/") ? rootUri : rootUri + "/";
+        this.paginate = paginate;
+        this.batchSize = Math.max(1, Math.min(100, batchSize));
+    }
+
+    /**
+     * Fetches the reactions on the given issues and comments. Nodes that could not be fetched
+     * (e.g. due to a rate limit) are missing in the result.
+     *
+     * @param nodeIds the GraphQL node IDs of the issues and comments
+     * @return the reactions, by node ID
+     */
+    public Map<String, List<Reaction>> fetchReactions(Collection<String> nodeIds) {
+        final List<String> uncachedNodeIds = nodeIds
+                .stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .filter(id -> !reactionsByNode.containsKey(id))
+                .collect(Collectors.toList());
+        log.debug("Fetching the reactions for " + uncachedNodeIds.size() + " node(s)...");
+
+        for (int i = 0; i < uncachedNodeIds.size(); i += batchSize) {
+            final List<String> batch = uncachedNodeIds.subList(i, Math.min(i + batchSize, uncachedNodeIds.size()));
+            try {
+                fetchBatch(batch);
+            } catch (RuntimeException e) {
+                log.warn("Couldn't fetch the reactions for " + batch.size() + " node(s): " + e.getMessage());
+                if (e instanceof RestClientException && FailureClass.of((RestClientException) e)
+                        == FailureClass.PRIMARY_RATE_LIMIT) {
+                    // all further batches would fail as well:
+                    break;
+                }
+            }
+        }
+
+        final Map<String, List<Reaction>> reactions = new LinkedHashMap<>();
+        nodeIds.stream()
+                .filter(Objects::nonNull)
+                .filter(reactionsByNode::containsKey)
+                .forEach(id -> reactions.put(id, reactionsByNode.get(id)));
+        return reactions;
+    }
+
+    private void fetchBatch(List<String> nodeIds) {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("ids", new ArrayList<>(nodeIds));
+        for (JsonNode node : query(REACTIONS_QUERY, variables).path("nodes")) {
+            // unknown (e.g. deleted) nodes are null:
+            if (node.hasNonNull("id")) {
+                final String nodeId = node.path("id").asText();
+                final List<Reaction> reactions = toReactions(nodeId, node.path("reactions"));
+                reactions.addAll(fetchMoreReactions(nodeId, node.path("reactions").path("pageInfo")));
+                reactionsByNode.put(nodeId, reactions);
+            }
+        }
+    }
+
+    private List<Reaction> fetchMoreReactions(String nodeId, JsonNode pageInfo) {
+        final List<Reaction> reactions = new LinkedList<>();
+        JsonNode currentPageInfo = pageInfo;
+        while (paginate && currentPageInfo.path("hasNextPage").asBoolean(false)) {
+            final Map<String, Object> variables = new HashMap<>();
+            variables.put("id", nodeId);
+            variables.put("cursor", currentPageInfo.path("endCursor").asText(null));
+            final JsonNode connection = query(MORE_REACTIONS_QUERY, variables).path("node").path("reactions");
+            reactions.addAll(toReactions(nodeId, connection));
+            currentPageInfo = connection.path("pageInfo");
+        }
+        return reactions;
+    }
+
+    private JsonNode query(String query, Map<String, Object> variables) {
+        final JsonNode response = graphQlClient.apply(query, variables);
+        if (response == null) {
+            throw new IllegalStateException("The response was empty!");
+        }
+
+        // unknown node IDs come back as errors (along with the data for all other nodes):
+        final JsonNode errors = response.path("errors");
+        if (errors.isArray() && errors.size() > 0) {
+            final String messages = io.vavr.collection.List
+                    .ofAll(errors)
+                    .map(e -> e.path("type").asText("") + ": " + e.path("message").asText(""))
+                    .mkString("; ");
+            if (!response.hasNonNull("data")) {
+                throw new IllegalStateException(messages);
+            }
+            log.debug("The reactions query returned errors: " + messages);
+        }
+        return response.path("data");
+    }
+
+    private List<Reaction> toReactions(String nodeId, JsonNode reactionConnection) {
+        final List<Reaction> reactions = new LinkedList<>();
+        for (JsonNode node : reactionConnection.path("nodes")) {
+            final ObjectNode reaction = objectMapper.createObjectNode();
+            reaction.put("content", node.path("content").asText(null));
+            reaction.set("user", GitHubGraphQlFetcher.toUser(objectMapper, apiRoot, node.path("user")));
+            reaction.put("subject_id", nodeId);
+            reaction.put("created_at", node.path("createdAt").asText(null));
+            reactions.add(objectMapper.convertValue(reaction, Reaction.class));
+        }
+        return reactions;
+    }
+}
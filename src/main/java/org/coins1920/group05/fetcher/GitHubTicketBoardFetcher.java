@@ -0,0 +1,222 @@
+package org.coins1920.group05.fetcher;
+
+import org.coins1920.group05.model.github.rest.*;
+import org.coins1920.group05.util.Pair;
+import org.coins1920.group05.util.UrlSet;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * The GitHub-specific part of the fetcher contract. Any implementation (blocking or
+ * non-blocking) can be plugged into the GitHubRepoCondorizor.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public interface GitHubTicketBoardFetcher extends TicketBoardFetcher<Repo, User, Issue, Event, Comment> {
+
+    /**
+     * Fetches all issues of a repo (see fetchTickets()) and hands them to the given callback page
+     * by page, as soon as each page is there (e.g. to journal it). Every page is handed over as a
+     * FetchingResult of its own, which records the page that follows it (if any) as a failed URL,
+     * so that an interrupted run can be continued by re-trying the failed URLs. The callback may be
+     * called from several threads at once. The default implementation hands over the whole result
+     * at once, when everything was fetched.
+     *
+     * @param owner              the repo owner's name
+     * @param board              the repo name
+     * @param fetchClosedTickets whether to fetch closed tickets as well or not
+     * @param visitedUrls        all URLs that have already been (successfully) visited before
+     * @param onPage             a callback for every page
+     * @return a FetchingResult that contains all issues
+     */
+    default FetchingResult<Issue> fetchTickets(String owner, String board, boolean fetchClosedTickets,
+                                               Collection<String> visitedUrls, Consumer<FetchingResult<Issue>> onPage) {
+        final FetchingResult<Issue> issues = fetchTickets(owner, board, fetchClosedTickets, visitedUrls);
+        onPage.accept(issues);
+        return issues;
+    }
+
+    /**
+     * Re-fetches a formerly failed issue URL (and all pages following it).
+     *
+     * @param url         the URL that failed before
+     * @param owner       the repo owner's name
+     * @param board       the repo name
+     * @param visitedUrls all URLs that have already been (successfully) visited before
+     * @return a FetchingResult that contains the fetched issues
+     */
+    FetchingResult<Issue> retryTicketFetching(String url, String owner, String board, Collection<String> visitedUrls);
+
+    /**
+     * Re-fetches a formerly failed comment URL (and all pages following it).
+     *
+     * @param url         the URL that failed before
+     * @param owner       the repo owner's name
+     * @param board       the repo name
+     * @param visitedUrls all URLs that have already been (successfully) visited before
+     * @return a FetchingResult that contains the fetched comments
+     */
+    FetchingResult<Comment> retryCommentFetching(String url, String owner, String board, Collection<String> visitedUrls);
+
+    /**
+     * Fetches all comments of a repo at once, i.e. via the repo-wide comments endpoint instead
+     * of one request (or more) per issue. Every comment carries the URL of its issue.
+     *
+     * @param owner       the repo owner's name
+     * @param board       the repo name
+     * @param visitedUrls all URLs that have already been (successfully) visited before
+     * @return a FetchingResult that contains all comments of the repo
+     */
+    FetchingResult<Comment> fetchCommentsForBoard(String owner, String board, Collection<String> visitedUrls);
+
+    /**
+     * Fetches all repositories of an organization.
+     *
+     * @param organization the organization's name
+     * @return a FetchingResult that contains the organization's repos
+     */
+    FetchingResult<Repo> fetchBoardsForOrganization(String organization);
+
+    /**
+     * Fetches all issue events (e.g. assignments) of a repo at once, i.e. via the repo-wide events
+     * endpoint instead of one request per issue. Every event carries the issue it belongs to.
+     *
+     * @param owner       the repo owner's name
+     * @param board       the repo name
+     * @param visitedUrls all URLs that have already been (successfully) visited before
+     * @return a FetchingResult that contains all issue events of the repo
+     */
+    FetchingResult<Event> fetchEventsForBoard(String owner, String board, Collection<String> visitedUrls);
+
+    /**
+     * Fetches all events of a single issue, i.e. via the issue's own events endpoint. Every event
+     * carries the given issue, just like the repo-wide ones (see fetchEventsForBoard()).
+     *
+     * @param ticket the issue
+     * @return a FetchingResult that contains the issue's events
+     */
+    FetchingResult<Event> fetchEventsForTicket(Issue ticket);
+
+    /**
+     * Fetches the events of the given issues only (e.g. of the ones that changed since the last
+     * run), instead of all events of the repo. The default implementation simply calls
+     * fetchEventsForTicket() for every issue in parallel (in the COMMENTS stage, as the events
+     * are fetched issue by issue, just like the comments).
+     *
+     * @param issues the issues
+     * @return a FetchingResult that contains the events of all given issues
+     */
+    default FetchingResult<Event> fetchEventsForTickets(List<Issue> issues) {
+        return getStageExecutor()
+                .mapAll(FetchStageExecutor.Stage.COMMENTS, issues, this::fetchEventsForTicket)
+                .stream()
+                .collect(FetchingResultBuilder.toFetchingResult());
+    }
+
+    /**
+     * Fetches the (emoji) reactions on the given issues and comments in batches, i.e. with a
+     * single GraphQL query for many of them instead of one ReST request each.
+     *
+     * @param nodeIds the GraphQL node IDs of the issues and comments
+     * @return the reactions by node ID, nodes that couldn't be fetched are missing
+     */
+    Map<String, List<Reaction>> fetchReactions(Collection<String> nodeIds);
+
+    /**
+     * Fetches all issues (open and closed ones) that were created or updated since the given point in time.
+     *
+     * @param owner the repo owner's name
+     * @param board the repo name
+     * @param since an ISO 8601 timestamp (e.g. "2019-12-07T14:11:51Z")
+     * @return a FetchingResult that contains the changed issues
+     */
+    FetchingResult<Issue> fetchTicketsUpdatedSince(String owner, String board, String since);
+
+    /**
+     * Fetches all comments of a repo that were created or updated since the given point in time.
+     *
+     * @param owner the repo owner's name
+     * @param board the repo name
+     * @param since an ISO 8601 timestamp (e.g. "2019-12-07T14:11:51Z")
+     * @return a FetchingResult that contains the changed comments
+     */
+    FetchingResult<Comment> fetchCommentsForBoardUpdatedSince(String owner, String board, String since);
+
+    /**
+     * Counters that tell how the fetching went (e.g. how many requests were re-sent). The default
+     * implementation has none.
+     *
+     * @return the counters by name
+     */
+    default Map<String, Long> getStatistics() {
+        return new LinkedHashMap<>();
+    }
+
+    /**
+     * The executor that runs the blocking fetch stages. The default implementation returns an
+     * executor with the default limits.
+     *
+     * @return the executor
+     */
+    default FetchStageExecutor getStageExecutor() {
+        return FetchStageExecutor.defaultExecutor();
+    }
+
+    /**
+     * Fetches the comments for all given issues. The default implementation simply calls
+     * fetchCommentsForTicket() for every issue in parallel (in the COMMENTS stage).
+     *
+     * @param issues      the issues
+     * @param visitedUrls all URLs that have already been (successfully) visited before
+     * @return a list of (issue, comments fetching result) pairs, in the same order as the issues
+     */
+    default List<Pair<Issue, FetchingResult<Comment>>> fetchCommentsForTickets(List<Issue> issues, Collection<String> visitedUrls) {
+        return fetchCommentsForTickets(issues, visitedUrls, p -> {
+        });
+    }
+
+    /**
+     * Fetches the comments for all given issues, see above. Hands every issue's comments to the
+     * given callback as soon as they are fetched (e.g. to journal them), the callback may be
+     * called from several threads at once.
+     *
+     * @param issues      the issues
+     * @param visitedUrls all URLs that have already been (successfully) visited before
+     * @param onFetched   a callback for every (issue, comments fetching result) pair
+     * @return a list of (issue, comments fetching result) pairs, in the same order as the issues
+     */
+    default List<Pair<Issue, FetchingResult<Comment>>> fetchCommentsForTickets(
+            List<Issue> issues, Collection<String> visitedUrls,
+            Consumer<Pair<Issue, FetchingResult<Comment>>> onFetched) {
+        // every issue looks its comments URL up, so hash the visited URLs only once:
+        final UrlSet visited = UrlSet.of(visitedUrls);
+        return getStageExecutor().mapAll(FetchStageExecutor.Stage.COMMENTS, issues, i -> {
+            final Pair<Issue, FetchingResult<Comment>> comments = new Pair<>(i, fetchCommentsForTicket(i, visited));
+            onFetched.accept(comments);
+            return comments;
+        });
+    }
+
+    /**
+     * Fetches all available info for all given users. The default implementation simply
+     * calls fetchAllInfoForUser() for every user in parallel (in the USERS stage).
+     *
+     * @param users the users
+     * @return all users that could be fetched
+     */
+    default List<User> fetchAllInfoForUsers(List<User> users) {
+        return getStageExecutor()
+                .mapAll(FetchStageExecutor.Stage.USERS, users, this::fetchAllInfoForUser)
+                .stream()
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList());
+    }
+}
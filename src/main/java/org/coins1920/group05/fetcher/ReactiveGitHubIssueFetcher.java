@@ -0,0 +1,567 @@
+package org.coins1920.group05.fetcher;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.coins1920.group05.fetcher.http.FailureClass;
+import org.coins1920.group05.fetcher.http.HttpTransport;
+import org.coins1920.group05.fetcher.http.RateLimitExchangeFilter;
+import org.coins1920.group05.fetcher.http.RetryPolicy;
+import org.coins1920.group05.fetcher.http.SingleFlight;
+import org.coins1920.group05.fetcher.http.TokenPool;
+import org.coins1920.group05.model.github.rest.*;
+import org.coins1920.group05.util.Pair;
+import org.coins1920.group05.util.UrlSet;
+import org.coins1920.group05.util.RestClientHelper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * A non-blocking fetcher implementation for GitHub's v3 API. All requests are issued via
+ * a WebClient (Reactor Netty), so hundreds of requests can be in flight at the same time
+ * on a handful of event loop threads. The results are the very same FetchingResults the
+ * blocking GitHubIssueFetcher returns.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class ReactiveGitHubIssueFetcher implements GitHubTicketBoardFetcher {
+
+    private final WebClient wc;
+    private final String rootUri;
+    private final boolean paginate;
+    private final int maxConcurrentPages;
+    private final int maxConcurrentRequests;
+    private final GitHubReactionFetcher reactionFetcher;
+    private final RetryPolicy retryPolicy;
+
+    // concurrent requests for the same user share a single HTTP call:
+    private final SingleFlight<String, Optional<User>> userLookups = new SingleFlight<>();
+
+    public ReactiveGitHubIssueFetcher(String oauthToken, boolean paginate) {
+        this(new GitHubFetcherConfig(oauthToken, paginate));
+    }
+
+    public ReactiveGitHubIssueFetcher(String oauthToken, boolean paginate, String url) {
+        this(new GitHubFetcherConfig(oauthToken, paginate, url));
+    }
+
+    public ReactiveGitHubIssueFetcher(GitHubFetcherConfig config) {
+        this.rootUri = config.getRootUri();
+        this.paginate = config.isPaginate();
+        this.maxConcurrentPages = Math.max(1, config.getMaxConcurrentPages());
+        this.maxConcurrentRequests = Math.max(1, config.getMaxConcurrentRequests());
+        this.retryPolicy = new RetryPolicy(config.getMaxRetries(), config.getRetryBaseDelayMillis(),
+                config.getRetryMaxDelayMillis(),
+                config.isWaitForRateLimitReset() ? config.getMaxRateLimitWaitSeconds() * 1000 : 0,
+                config.getCircuitBreakerFailureThreshold(), config.getCircuitBreakerOpenSeconds() * 1000);
+        final TokenPool tokenPool = new TokenPool(config.getOauthTokens(), config.isPaceRequests());
+        this.wc = WebClient
+                .builder()
+                .baseUrl(config.getRootUri())
+                .clientConnector(HttpTransport.clientConnector(config.getTransport()))
+                .defaultHeaders(this::addDefaultHeaders)
+                .filter(new RateLimitExchangeFilter(
+                        tokenPool, config.isWaitForRateLimitReset(), config.getMaxRateLimitWaitSeconds()))
+                .build();
+        this.reactionFetcher = new GitHubReactionFetcher(this::executeGraphQlQuery, config.getRootUri(),
+                config.isPaginate(), GitHubReactionFetcher.DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public List<Repo> fetchBoards() {
+        return null;
+    }
+
+    @Override
+    public Repo fetchBoard(String owner, String board) {
+        return null;
+    }
+
+    @Override
+    public List<User> fetchBoardMembers(String owner, String board) {
+        final String url = RestClientHelper.expand("/repos/{owner}/{board}/contributors", owner, board);
+        return getAllEntitiesWithPagination(url, User.class, owner, board)
+                .block()
+                .getEntities();
+    }
+
+    @Override
+    public FetchingResult<Issue> fetchTickets(String owner, String board, boolean fetchClosedTickets, Collection<String> visitedUrls) {
+        final String openTicketsUrl = RestClientHelper.expand("/repos/{owner}/{board}/issues", owner, board);
+
+        // all open tickets (each listing is checked against its own URL):
+        final Mono<FetchingResult<Issue>> openIssues = visitedUrls.contains(openTicketsUrl)
+                ? Mono.just(new FetchingResult<>())
+                : getAllEntitiesWithPagination(openTicketsUrl, Issue.class, owner, board);
+
+        // and all closed ones?
+        if (!fetchClosedTickets) {
+            // no, just the open ones:
+            return openIssues.block();
+
+        } else {
+            // fetch the open and the closed ones at the same time:
+            final String closedTicketsUrl = RestClientHelper
+                    .expand("/repos/{owner}/{board}/issues?state=closed", owner, board);
+            final Mono<FetchingResult<Issue>> closedIssues = visitedUrls.contains(closedTicketsUrl)
+                    ? Mono.just(new FetchingResult<>())
+                    : getAllEntitiesWithPagination(closedTicketsUrl, Issue.class, owner, board);
+            return Mono
+                    .zip(openIssues, closedIssues, FetchingResult::union)
+                    .block();
+        }
+    }
+
+    @Override
+    public List<Event> fetchActionsForTicket(String ticketId) {
+        return null;
+    }
+
+    @Override
+    public List<User> fetchMembersForTicket(Issue ticket) {
+        final List<User> contributors = new LinkedList<>();
+        contributors.addAll(fetchAssigneesForTicket(ticket));
+        contributors.addAll(fetchCommentatorsForTicket(ticket));
+        return contributors;
+    }
+
+    @Override
+    public List<User> fetchAssigneesForTicket(Issue ticket) {
+        return Arrays.asList(ticket.getAssignees());
+    }
+
+    @Override
+    public List<User> fetchCommentatorsForTicket(Issue ticket) {
+        return fetchCommentsForTicket(ticket, new LinkedList<>())
+                .getEntities()
+                .stream()
+                .filter(Objects::nonNull)
+                .map(Comment::getUser)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public FetchingResult<Comment> fetchCommentsForTicket(Issue ticket, Collection<String> visitedUrls) {
+        return commentsForTicket(ticket, visitedUrls).block();
+    }
+
+    @Override
+    public FetchingResult<Comment> fetchCommentsForBoard(String owner, String board, Collection<String> visitedUrls) {
+        final String url = RestClientHelper.expand("/repos/{owner}/{board}/issues/comments?per_page=100", owner, board);
+        return retryFetching(url, Comment.class, visitedUrls, owner, board);
+    }
+
+    @Override
+    public FetchingResult<Repo> fetchBoardsForOrganization(String organization) {
+        final String url = RestClientHelper.expand("/orgs/{organization}/repos?per_page=100", organization);
+        return getAllEntitiesWithPagination(url, Repo.class, organization).block();
+    }
+
+    @Override
+    public FetchingResult<Event> fetchEventsForBoard(String owner, String board, Collection<String> visitedUrls) {
+        final String url = RestClientHelper.expand("/repos/{owner}/{board}/issues/events?per_page=100", owner, board);
+        return retryFetching(url, Event.class, visitedUrls, owner, board);
+    }
+
+    @Override
+    public FetchingResult<Event> fetchEventsForTicket(Issue ticket) {
+        return eventsForTicket(ticket).block();
+    }
+
+    @Override
+    public FetchingResult<Event> fetchEventsForTickets(List<Issue> issues) {
+        return Flux
+                .fromIterable(issues)
+                .flatMapSequential(this::eventsForTicket, maxConcurrentRequests)
+                .collect(FetchingResultBuilder<Event>::new, FetchingResultBuilder::add)
+                .map(FetchingResultBuilder::build)
+                .block();
+    }
+
+    @Override
+    public Map<String, List<Reaction>> fetchReactions(Collection<String> nodeIds) {
+        return reactionFetcher.fetchReactions(nodeIds);
+    }
+
+    @Override
+    public FetchingResult<Issue> fetchTicketsUpdatedSince(String owner, String board, String since) {
+        final String url = RestClientHelper
+                .expand("/repos/{owner}/{board}/issues?state=all&per_page=100&since={since}", owner, board, since);
+        return getAllEntitiesWithPagination(url, Issue.class, owner, board, since).block();
+    }
+
+    @Override
+    public FetchingResult<Comment> fetchCommentsForBoardUpdatedSince(String owner, String board, String since) {
+        final String url = RestClientHelper
+                .expand("/repos/{owner}/{board}/issues/comments?per_page=100&since={since}", owner, board, since);
+        return getAllEntitiesWithPagination(url, Comment.class, owner, board, since).block();
+    }
+
+    @Override
+    public List<Pair<Issue, FetchingResult<Comment>>> fetchCommentsForTickets(
+            List<Issue> issues, Collection<String> visitedUrls,
+            Consumer<Pair<Issue, FetchingResult<Comment>>> onFetched) {
+        // keep up to maxConcurrentRequests comment requests in flight, but preserve the issue order:
+        final UrlSet visited = UrlSet.of(visitedUrls);
+        return Flux
+                .fromIterable(issues)
+                .flatMapSequential(i -> commentsForTicket(i, visited)
+                        .map(c -> new Pair<>(i, c))
+                        .doOnNext(onFetched), maxConcurrentRequests)
+                .collectList()
+                .block();
+    }
+
+    @Override
+    public Optional<User> fetchAllInfoForUser(User user) {
+        return userInfo(user).block();
+    }
+
+    @Override
+    public List<User> fetchAllInfoForUsers(List<User> users) {
+        return Flux
+                .fromIterable(users)
+                .flatMapSequential(this::userInfo, maxConcurrentRequests)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collectList()
+                .block();
+    }
+
+    @Override
+    public FetchingResult<Issue> retryTicketFetching(String url, String owner, String board, Collection<String> visitedUrls) {
+        return retryFetching(url, Issue.class, visitedUrls, owner, board);
+    }
+
+    @Override
+    public FetchingResult<Comment> retryCommentFetching(String url, String owner, String board, Collection<String> visitedUrls) {
+        return retryFetching(url, Comment.class, visitedUrls, owner, board);
+    }
+
+    private <U> FetchingResult<U> retryFetching(String url, Class<U> clazz, Collection<String> visitedUrls, Object... uriVariables) {
+        // is this an already (and successfully) visited URL?
+        if (!visitedUrls.contains(url)) {
+            final FetchingResult<U> retriedEntities = getAllEntitiesWithPagination(
+                    url, clazz, UrlSet.of(visitedUrls), uriVariables).block();
+            log.debug("I got " + retriedEntities.getEntities().size() + " entities!");
+            return retriedEntities;
+
+        } else {
+            // the URL was already visited!
+            return new FetchingResult<>();
+        }
+    }
+
+    private Mono<FetchingResult<Comment>> commentsForTicket(Issue ticket, Collection<String> visitedUrls) {
+        if (ticket.getCommentsUrl() == null || ticket.getCommentsUrl().isEmpty()) {
+            log.warn("  the issue " + ticket.getId() + " has no comments => no comments URL!");
+            return Mono.just(new FetchingResult<>());
+
+        } else if (visitedUrls.contains(ticket.getCommentsUrl())) {
+            // the URL was already visited!
+            return Mono.just(new FetchingResult<>());
+
+        } else {
+            try {
+                final String commentsUrl = new URL(ticket.getCommentsUrl()).getPath();
+                return getAllEntitiesWithPagination(commentsUrl, Comment.class);
+
+            } catch (MalformedURLException e) {
+                log.error("The comments URL ('" + ticket.getCommentsUrl() +
+                        "') for ticket " + ticket.getId() + "was malformed!", e);
+                return Mono.just(new FetchingResult<>());
+            }
+        }
+    }
+
+    private Mono<FetchingResult<Event>> eventsForTicket(Issue ticket) {
+        if (ticket.getEventsUrl() == null || ticket.getEventsUrl().isEmpty()) {
+            log.warn("  the issue " + ticket.getId() + " has no events URL!");
+            return Mono.just(new FetchingResult<>());
+        }
+
+        try {
+            final String eventsUrl = new URL(ticket.getEventsUrl()).getPath();
+            return getAllEntitiesWithPagination(eventsUrl, Event.class)
+                    // (the events of a single issue don't carry it):
+                    .doOnNext(events -> events.getEntities().forEach(e -> e.setIssue(ticket)));
+
+        } catch (MalformedURLException e) {
+            log.error("The events URL ('" + ticket.getEventsUrl() +
+                    "') for ticket " + ticket.getId() + "was malformed!", e);
+            return Mono.just(new FetchingResult<>());
+        }
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public SingleFlight<String, Optional<User>> getUserLookups() {
+        return userLookups;
+    }
+
+    private Mono<Optional<User>> userInfo(User user) {
+        if (user.getUrl() == null) {
+            return Mono.just(Optional.empty());
+        }
+        return userLookups.executeAsync(user.getUrl(), () -> fetchUser(user));
+    }
+
+    private Mono<Optional<User>> fetchUser(User user) {
+        return requestFor(user.getUrl())
+                .exchange()
+                .flatMap(r -> {
+                    if (r.statusCode() == HttpStatus.OK) {
+                        return r.bodyToMono(User.class)
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty());
+                    } else {
+                        log.warn("I couldn't fetch the user for URL: " + user.getUrl());
+                        return r.bodyToMono(Void.class)
+                                .thenReturn(Optional.<User>empty());
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.warn("Something went wrong: ", e);
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    private <U> Mono<FetchingResult<U>> getAllEntitiesWithPagination(String url, Class<U> clazz, Object... uriVariables) {
+        return getAllEntitiesWithPagination(url, clazz, new UrlSet(), uriVariables);
+    }
+
+    /**
+     * The reactive counterpart to GitHubPaginator.fetchAllPages(): fetches all pages (concurrently,
+     * if the first one tells us how many there are) and handles error responses the same way, i.e.
+     * by their FailureClass (see fetchPage()). A failed page doesn't stop its siblings: they are
+     * fetched anyway. Pages that were visited before are not fetched again.
+     *
+     * @param url          the URL (or URL template) to query
+     * @param clazz        the entity type
+     * @param visited      all URLs that have already been (successfully) visited before
+     * @param uriVariables the URL template's variables
+     * @param <U>          type parameter for the entities
+     * @return the FetchingResult
+     */
+    private <U> Mono<FetchingResult<U>> getAllEntitiesWithPagination(String url, Class<U> clazz, UrlSet visited,
+                                                                     Object... uriVariables) {
+        return fetchPage(url, clazz, uriVariables)
+                .flatMapMany(first -> Flux.concat(Flux.just(first), followingPages(first, clazz, visited)))
+                .map(Page::getFetchingResult)
+                // append page by page (instead of copying everything collected so far for every page):
+                .collect(PageCollector<U>::new, PageCollector::add)
+                .map(PageCollector::build);
+    }
+
+    private <U> Flux<Page<U>> followingPages(Page<U> first, Class<U> clazz, UrlSet visited) {
+        final String nextUrl = first.getNextUrl();
+        final String lastUrl = first.getLastUrl();
+        if (nextUrl == null || visited.contains(nextUrl)) {
+            return Flux.empty();
+
+        } else if (lastUrl != null
+                && RestClientHelper.pageNumber(nextUrl).isPresent()
+                && RestClientHelper.pageNumber(lastUrl).isPresent()) {
+            // we know how many pages there are, so fetch them all at once (in order):
+            final int firstPage = RestClientHelper.pageNumber(nextUrl).get();
+            final int lastPage = RestClientHelper.pageNumber(lastUrl).get();
+            // (a page that was visited before is not fetched again):
+            return Flux
+                    .range(firstPage, Math.max(0, lastPage - firstPage + 1))
+                    .map(p -> RestClientHelper.withPageNumber(nextUrl, p))
+                    .filter(pageUrl -> !visited.contains(pageUrl))
+                    .flatMapSequential(pageUrl -> fetchPage(pageUrl, clazz), maxConcurrentPages);
+
+        } else {
+            // follow the "next" links one by one:
+            return fetchPage(nextUrl, clazz)
+                    .expand(p -> p.getNextUrl() == null || visited.contains(p.getNextUrl())
+                            ? Mono.empty()
+                            : fetchPage(p.getNextUrl(), clazz));
+        }
+    }
+
+    /**
+     * Fetches a single page. Failed requests are re-sent according to the RetryPolicy (that also
+     * guards the host with a CircuitBreaker), just like the ones of the blocking fetcher. Whatever
+     * still fails afterwards (an error response, but also a connection reset or a timeout) ends up
+     * as an unavailable page, instead of failing everything that is fetched along with it.
+     */
+    private <U> Mono<Page<U>> fetchPage(String url, Class<U> clazz, Object... uriVariables) {
+        return retryPolicy
+                .executeAsync(hostOf(url), () -> requestFor(url, uriVariables)
+                        .exchange()
+                        .flatMap(r -> {
+                            if (r.statusCode().isError()) {
+                                return r.bodyToMono(byte[].class)
+                                        .defaultIfEmpty(new byte[0])
+                                        .flatMap(body -> Mono.<ResponseEntity<List<U>>>error(
+                                                WebClientResponseException.create(r.rawStatusCode(),
+                                                        r.statusCode().getReasonPhrase(), r.headers().asHttpHeaders(),
+                                                        body, StandardCharsets.UTF_8)));
+                            } else {
+                                return r.toEntityList(clazz);
+                            }
+                        }))
+                .map(e -> {
+                    final Map<String, String> links = paginationLinks(e);
+                    return new Page<>(
+                            new FetchingResult<>(
+                                    nonNullEntities(e),
+                                    false,
+                                    io.vavr.collection.List.of(url).toJavaList(),
+                                    new LinkedList<>()
+                            ),
+                            links.get("next"),
+                            links.get("last")
+                    );
+                })
+                .onErrorResume(e -> Mono.just(unavailablePage(url, FailureClass.of(e), e)));
+    }
+
+    private String hostOf(String url) {
+        return URI.create(url.startsWith("http") ? url : rootUri).getHost();
+    }
+
+    /**
+     * Turns a failed request into a page, see GitHubPaginator.unavailablePage(): pages that might
+     * be available later on (e.g. after a 5xx or a rate limit) are recorded as failed URLs, the ones
+     * that are gone for good (e.g. a 404) as visited (but empty) ones. Only rate limits are flagged
+     * as such.
+     */
+    private <U> Page<U> unavailablePage(String url, FailureClass failureClass, Throwable e) {
+        if (failureClass.isRecoverable()) {
+            log.warn("Fetching '" + url + "' failed (" + failureClass + ": " + e.getMessage()
+                    + "), it has to be re-fetched later on!");
+            return new Page<>(
+                    new FetchingResult<>(
+                            new LinkedList<>(),
+                            failureClass.isRateLimit(),
+                            new LinkedList<>(),
+                            io.vavr.collection.List.of(url).toJavaList()
+                    ),
+                    null,
+                    null);
+
+        } else {
+            log.warn("Fetching '" + url + "' failed for good, skipping it: " + e.getMessage());
+            return new Page<>(
+                    new FetchingResult<>(
+                            new LinkedList<>(),
+                            false,
+                            io.vavr.collection.List.of(url).toJavaList(),
+                            new LinkedList<>()
+                    ),
+                    null,
+                    null);
+        }
+    }
+
+    private WebClient.RequestHeadersSpec<?> requestFor(String url, Object... uriVariables) {
+        // absolute URLs (e.g. pagination links) must not be prefixed with the base URL:
+        return url.startsWith("http")
+                ? wc.get().uri(URI.create(url))
+                : wc.get().uri(url, uriVariables);
+    }
+
+    private <U> Map<String, String> paginationLinks(ResponseEntity<List<U>> response) {
+        final String paginationLinkKey = "Link";
+        if (paginate && response.getHeaders().containsKey(paginationLinkKey)) {
+            final String linkUrls = Objects.requireNonNull(
+                    response.getHeaders().get(paginationLinkKey)).get(0);
+            return RestClientHelper.parseGithubPaginationLinks(linkUrls);
+        } else {
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Sends a query to GitHub's GraphQL (v4) API, through the same rate limit filter as all
+     * ReST requests of this fetcher.
+     */
+    private JsonNode executeGraphQlQuery(String query, Map<String, Object> variables) {
+        final Map<String, Object> requestBody = new LinkedHashMap<>();
+        requestBody.put("query", query);
+        requestBody.put("variables", variables);
+        return wc.post()
+                .uri("/graphql")
+                .syncBody(requestBody)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block();
+    }
+
+    private <U> List<U> nonNullEntities(ResponseEntity<List<U>> response) {
+        if (response.getBody() == null) {
+            return new LinkedList<>();
+        } else {
+            log.debug("I got " + response.getBody().size() + " item(s)!");
+            return response
+                    .getBody()
+                    .stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void addDefaultHeaders(HttpHeaders headers) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.add("user-agent", "Spring WebClient");
+    }
+
+    /**
+     * Collects the pages of a paginated resource, see FetchingResultBuilder. Only the first failed
+     * page is recorded as such: re-fetching it walks on to all (not yet visited) pages after it,
+     * so the ones that failed as well would be fetched twice otherwise.
+     */
+    private static class PageCollector<U> {
+        private final FetchingResultBuilder<U> builder = new FetchingResultBuilder<>();
+        private boolean failedPageSeen = false;
+
+        void add(FetchingResult<U> page) {
+            if (!page.getFailedUrls().isEmpty()) {
+                if (failedPageSeen) {
+                    builder.add(new FetchingResult<>(new LinkedList<>(), page.isRateLimitOccurred(),
+                            new LinkedList<>(), new LinkedList<>()));
+                    return;
+                }
+                failedPageSeen = true;
+            }
+            builder.add(page);
+        }
+
+        FetchingResult<U> build() {
+            return builder.build();
+        }
+    }
+
+    /**
+     * A single page of entities plus the links to the next and the last page (if there are any).
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class Page<U> {
+        private final FetchingResult<U> fetchingResult;
+        private final String nextUrl;
+        private final String lastUrl;
+    }
+}
@@ -0,0 +1,52 @@
+package org.coins1920.group05.fetcher;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.coins1920.group05.model.general.AbstractAction;
+import org.coins1920.group05.model.general.AbstractComment;
+import org.coins1920.group05.model.general.AbstractMember;
+import org.coins1920.group05.model.general.AbstractTicket;
+
+import java.io.Serializable;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Holds all issues and comments of a repo that were fetched so far, plus a high-water mark:
+ * the newest "updated_at" timestamp seen. The next (incremental) run only has to fetch what
+ * changed since then. The assignments and the full-blown profiles of all participants are
+ * kept as well, so that only the ones of changed issues (and comments) have to be re-fetched.
+ *
+ * @param <T> the type of the tickets
+ * @param <C> the type of the comments
+ * @param <A> the type of the (assignment) actions
+ * @param <M> the type of the members
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Data
+@AllArgsConstructor
+public class StoredDataset<T extends AbstractTicket, C extends AbstractComment, A extends AbstractAction,
+        M extends AbstractMember> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // the newest "updated_at" timestamp of all tickets and comments (ISO 8601, UTC):
+    private String watermark;
+
+    // whether the closed tickets were fetched as well:
+    private boolean closedTicketsIncluded;
+
+    private List<T> tickets;
+    private List<C> comments;
+
+    // the assignments of all tickets (null, if they weren't fetched):
+    private List<A> assignments;
+
+    // the full-blown members (null for datasets of older versions):
+    private List<M> members;
+
+    public StoredDataset() {
+        this.tickets = new LinkedList<>();
+        this.comments = new LinkedList<>();
+    }
+}
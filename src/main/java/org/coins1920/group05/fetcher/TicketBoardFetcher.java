@@ -2,6 +2,7 @@ package org.coins1920.group05.fetcher;
 
 import org.coins1920.group05.model.general.*;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,10 +47,10 @@ public interface TicketBoardFetcher<B extends AbstractBoard,
      * @param owner              the board/repo owner's name
      * @param board              the board name or ID
      * @param fetchClosedTickets whether to fetch closed tickets as well or not
-     * @param visitedUrls        a list of URLs that have already been (successfully) visited before
+     * @param visitedUrls        all URLs that have already been (successfully) visited before
      * @return a FetchingResult that contains the fetched entities as well as meta info on URLs visited
      */
-    FetchingResult<T> fetchTickets(String owner, String board, boolean fetchClosedTickets, List<String> visitedUrls);
+    FetchingResult<T> fetchTickets(String owner, String board, boolean fetchClosedTickets, Collection<String> visitedUrls);
 
     List<A> fetchActionsForTicket(String ticketId);
 
@@ -59,7 +60,7 @@ public interface TicketBoardFetcher<B extends AbstractBoard,
 
     List<M> fetchCommentatorsForTicket(T ticket);
 
-    FetchingResult<C> fetchCommentsForTicket(T ticket, List<String> visitedUrls);
+    FetchingResult<C> fetchCommentsForTicket(T ticket, Collection<String> visitedUrls);
 
     Optional<M> fetchAllInfoForUser(M user);
 }
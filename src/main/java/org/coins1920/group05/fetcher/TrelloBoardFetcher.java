@@ -1,5 +1,7 @@
 package org.coins1920.group05.fetcher;
 
+import org.coins1920.group05.fetcher.http.HttpTransport;
+import org.coins1920.group05.fetcher.http.HttpTransportConfig;
 import org.coins1920.group05.model.trello.*;
 import org.coins1920.group05.util.RestClientHelper;
 import org.slf4j.Logger;
@@ -8,6 +10,7 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
@@ -28,18 +31,23 @@ public class TrelloBoardFetcher implements TicketBoardFetcher<Board, Member, Car
     private final String token;
 
     public TrelloBoardFetcher(String key, String token) {
-        this.key = key;
-        this.token = token;
-        this.rt = new RestTemplateBuilder()
-                .rootUri(TRELLO_ROOT_URI)
-                .build();
+        this(key, token, TRELLO_ROOT_URI);
+    }
+
+    public TrelloBoardFetcher(String key, String token, HttpTransportConfig transportConfig) {
+        this(key, token, TRELLO_ROOT_URI, transportConfig);
     }
 
     public TrelloBoardFetcher(String key, String token, String url) {
+        this(key, token, url, new HttpTransportConfig());
+    }
+
+    public TrelloBoardFetcher(String key, String token, String url, HttpTransportConfig transportConfig) {
         this.key = key;
         this.token = token;
         this.rt = new RestTemplateBuilder()
                 .rootUri(url)
+                .requestFactory(() -> HttpTransport.requestFactory(transportConfig))
                 .build();
     }
 
@@ -66,7 +74,7 @@ public class TrelloBoardFetcher implements TicketBoardFetcher<Board, Member, Car
 
     @Override
     public FetchingResult<Card> fetchTickets(
-            String owner, String board, boolean fetchClosedTickets, List<String> visitedUrls) {
+            String owner, String board, boolean fetchClosedTickets, Collection<String> visitedUrls) {
         final String url = assembleUrl("boards/{board}/cards", null);
         final ResponseEntity<Card[]> response = rt.getForEntity(url, Card[].class, board, key, token);
         return new FetchingResult<>(RestClientHelper.nonNullResponseEntities(response));
@@ -100,7 +108,7 @@ public class TrelloBoardFetcher implements TicketBoardFetcher<Board, Member, Car
     }
 
     @Override
-    public FetchingResult<Comment> fetchCommentsForTicket(Card ticket, List<String> visitedUrls) {
+    public FetchingResult<Comment> fetchCommentsForTicket(Card ticket, Collection<String> visitedUrls) {
         logger.warn("The operation 'fetchAssigneesForTicket()' is not yet supported and will return an empty list!");
         return new FetchingResult<>();
     }
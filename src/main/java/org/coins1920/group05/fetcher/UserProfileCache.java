@@ -0,0 +1,194 @@
+package org.coins1920.group05.fetcher;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.coins1920.group05.model.github.rest.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A persistent cache for (full-blown) user profiles. The same users show up in many repos, so
+ * the cache is meant to be shared between repos and runs: every profile is stored as a JSON file
+ * (named after the SHA-256 hash of the user's URL) and is considered fresh for a configurable
+ * time (based on the file's modification time). The most recently used profiles are kept in
+ * memory as well.
+ * <p>
+ * In offline mode, expired profiles are served as well and no profile is fetched at all.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class UserProfileCache {
+
+    private static final String CACHE_FILE_POSTFIX = ".user.json";
+
+    private final Path cacheDir;
+    private final long ttlMillis;
+    private final boolean offline;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // the in-memory front, in LRU order:
+    private final Map<String, CachedUser> recentlyUsed;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public UserProfileCache(String cacheDir, long ttlSeconds, int maxEntriesInMemory, boolean offline) throws IOException {
+        this(cacheDir, ttlSeconds, maxEntriesInMemory, offline, Clock.systemUTC());
+    }
+
+    public UserProfileCache(String cacheDir, long ttlSeconds, int maxEntriesInMemory, boolean offline,
+                            Clock clock) throws IOException {
+        this.cacheDir = Files.createDirectories(Paths.get(cacheDir));
+        this.ttlMillis = ttlSeconds * 1000;
+        this.offline = offline;
+        this.clock = clock;
+        this.recentlyUsed = new LinkedHashMap<String, CachedUser>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > maxEntriesInMemory;
+            }
+        };
+    }
+
+    /**
+     * Looks up the full-blown profile of a (shallow) user, e.g. an issue's author.
+     *
+     * @param user the shallow user
+     * @return the cached profile, if there is a fresh one (or any one, when offline)
+     */
+    public Optional<User> get(User user) {
+        final String key = keyFor(user);
+        if (key == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        final Optional<CachedUser> cachedUser = fromMemory(key);
+        final Optional<CachedUser> result = cachedUser.isPresent() ? cachedUser : fromDisk(key);
+        if (result.isPresent() && (offline || isFresh(result.get()))) {
+            hits.incrementAndGet();
+            return Optional.of(result.get().getUser());
+        } else {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a (freshly fetched) profile. The file is written to a temporary file first and
+     * then moved, so that concurrent runs never see half-written entries.
+     *
+     * @param user the full-blown user
+     */
+    public void put(User user) {
+        final String key = keyFor(user);
+        if (key == null) {
+            return;
+        }
+
+        final long now = clock.millis();
+        synchronized (recentlyUsed) {
+            recentlyUsed.put(key, new CachedUser(user, now));
+        }
+        try {
+            final Path tmp = Files.createTempFile(cacheDir, "tmp-", CACHE_FILE_POSTFIX);
+            objectMapper.writeValue(tmp.toFile(), user);
+            Files.move(tmp, pathFor(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.setLastModifiedTime(pathFor(key), FileTime.fromMillis(now));
+
+        } catch (IOException e) {
+            log.warn("The profile of '" + key + "' could not be cached!", e);
+        }
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private Optional<CachedUser> fromMemory(String key) {
+        synchronized (recentlyUsed) {
+            return Optional.ofNullable(recentlyUsed.get(key));
+        }
+    }
+
+    private Optional<CachedUser> fromDisk(String key) {
+        final Path path = pathFor(key);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        try {
+            final User user = objectMapper.readValue(path.toFile(), User.class);
+            // guard against (very unlikely) hash collisions:
+            if (!key.equals(keyFor(user))) {
+                return Optional.empty();
+            }
+
+            final CachedUser cachedUser = new CachedUser(user, Files.getLastModifiedTime(path).toMillis());
+            synchronized (recentlyUsed) {
+                recentlyUsed.put(key, cachedUser);
+            }
+            return Optional.of(cachedUser);
+
+        } catch (IOException e) {
+            log.warn("The cached profile of '" + key + "' could not be read, ignoring it!", e);
+            return Optional.empty();
+        }
+    }
+
+    private boolean isFresh(CachedUser cachedUser) {
+        return clock.millis() - cachedUser.getFetchedAtMillis() <= ttlMillis;
+    }
+
+    private Path pathFor(String key) {
+        return cacheDir.resolve(DigestUtils.sha256Hex(key) + CACHE_FILE_POSTFIX);
+    }
+
+    private static String keyFor(User user) {
+        if (user == null) {
+            return null;
+        } else if (user.getUrl() != null && !user.getUrl().isEmpty()) {
+            return user.getUrl();
+        } else if (user.getId() != null && !user.getId().isEmpty()) {
+            return "id:" + user.getId();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * A profile plus the point in time it was fetched.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class CachedUser {
+        private final User user;
+        private final long fetchedAtMillis;
+    }
+}
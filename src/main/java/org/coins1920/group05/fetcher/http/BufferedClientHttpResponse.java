@@ -0,0 +1,58 @@
+package org.coins1920.group05.fetcher.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * A ClientHttpResponse whose body has already been read into memory (or was
+ * served from a cache), so it can be read by more than one party.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class BufferedClientHttpResponse implements ClientHttpResponse {
+
+    private final HttpStatus status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    public BufferedClientHttpResponse(HttpStatus status, HttpHeaders headers, byte[] body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    @Override
+    public HttpStatus getStatusCode() {
+        return status;
+    }
+
+    @Override
+    public int getRawStatusCode() {
+        return status.value();
+    }
+
+    @Override
+    public String getStatusText() {
+        return status.getReasonPhrase();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public InputStream getBody() {
+        return new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public void close() {
+        // nothing to release, the body lives in memory
+    }
+}
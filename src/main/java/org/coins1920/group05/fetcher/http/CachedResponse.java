@@ -0,0 +1,28 @@
+package org.coins1920.group05.fetcher.http;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response that was stored in the ResponseCache, together with its validators
+ * (ETag and Last-Modified) and all response headers (e.g. pagination links).
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Data
+@AllArgsConstructor
+public class CachedResponse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String url;
+    private String etag;
+    private String lastModified;
+    private Map<String, List<String>> headers;
+    private byte[] body;
+}
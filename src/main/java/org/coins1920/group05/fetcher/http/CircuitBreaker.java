@@ -0,0 +1,143 @@
+package org.coins1920.group05.fetcher.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Clock;
+
+/**
+ * A circuit breaker for a single host: after too many transient failures in a row, the circuit
+ * opens and all requests to that host are rejected for a while. Afterwards, a single trial
+ * request is let through. If it succeeds, the circuit closes again, otherwise it re-opens.
+ * This way a struggling API isn't hammered with requests that will fail anyway.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String host;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openUntilMillis = 0;
+    private boolean trialInFlight = false;
+    private long trials = 0;
+
+    private long timesOpened = 0;
+    private long rejectedRequests = 0;
+
+    public CircuitBreaker(String host, int failureThreshold, long openMillis) {
+        this(host, failureThreshold, openMillis, Clock.systemUTC());
+    }
+
+    public CircuitBreaker(String host, int failureThreshold, long openMillis, Clock clock) {
+        this.host = host;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether a request may be sent right now.
+     *
+     * @return the number of the trial, if the request is the trial request of a half-open
+     * circuit (see endTrial()), 0 otherwise
+     * @throws CircuitOpenException if the circuit is open
+     */
+    public synchronized long acquire() {
+        if (state == State.OPEN && clock.millis() >= openUntilMillis) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+
+        if (state == State.OPEN || (state == State.HALF_OPEN && trialInFlight)) {
+            rejectedRequests++;
+            throw new CircuitOpenException(host, millisUntilHalfOpen());
+        } else if (state == State.HALF_OPEN) {
+            trialInFlight = true;
+            return ++trials;
+        }
+        return 0;
+    }
+
+    /**
+     * Ends a trial request that neither succeeded nor failed (see onSuccess() and onFailure()),
+     * e.g. because it threw something other than a RestClientException. The next request is the
+     * trial, then. Does nothing, if the given trial was ended already.
+     *
+     * @param trial the trial's number (see acquire())
+     */
+    public synchronized void endTrial(long trial) {
+        if (trial != 0 && trial == trials && state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("The circuit for " + host + " is closed again.");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    /**
+     * Records a transient failure (other failures say nothing about the host's health).
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                timesOpened++;
+                log.warn("Opening the circuit for " + host + " after " + consecutiveFailures
+                        + " failure(s) in a row, no requests are sent for " + (openMillis / 1000) + "s.");
+            }
+            state = State.OPEN;
+            openUntilMillis = clock.millis() + openMillis;
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getTimesOpened() {
+        return timesOpened;
+    }
+
+    public synchronized long getRejectedRequests() {
+        return rejectedRequests;
+    }
+
+    private long millisUntilHalfOpen() {
+        return Math.max(0, openUntilMillis - clock.millis());
+    }
+
+    /**
+     * Thrown instead of sending a request while the circuit is open.
+     */
+    public static class CircuitOpenException extends RestClientException {
+
+        private final long retryInMillis;
+
+        public CircuitOpenException(String host, long retryInMillis) {
+            super("The circuit for " + host + " is open!");
+            this.retryInMillis = retryInMillis;
+        }
+
+        public long getRetryInMillis() {
+            return retryInMillis;
+        }
+    }
+}
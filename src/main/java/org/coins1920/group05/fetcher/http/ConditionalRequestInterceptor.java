@@ -0,0 +1,121 @@
+package org.coins1920.group05.fetcher.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns all GET requests into conditional requests: if there is a cached response for
+ * the URL, its ETag/Last-Modified validators are sent along. A 304 Not Modified (which
+ * doesn't count against GitHub's rate limit) is then answered from the ResponseCache.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class ConditionalRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ResponseCache responseCache;
+    private final AtomicLong notModifiedResponses = new AtomicLong();
+    private final AtomicLong fullResponses = new AtomicLong();
+
+    public ConditionalRequestInterceptor(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        if (request.getMethod() != HttpMethod.GET) {
+            return execution.execute(request, body);
+        }
+
+        // add the validators of the cached response (if there is one):
+        final String url = request.getURI().toString();
+        final Optional<CachedResponse> cachedResponse = responseCache.get(url);
+        cachedResponse.ifPresent(c -> {
+            if (c.getEtag() != null) {
+                request.getHeaders().set(HttpHeaders.IF_NONE_MATCH, c.getEtag());
+            }
+            if (c.getLastModified() != null) {
+                request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, c.getLastModified());
+            }
+        });
+
+        final ClientHttpResponse response = execution.execute(request, body);
+        if (response.getRawStatusCode() == HttpStatus.NOT_MODIFIED.value() && cachedResponse.isPresent()) {
+            // nothing changed, serve the local copy:
+            notModifiedResponses.incrementAndGet();
+            log.debug("Not modified, serving '" + url + "' from the response cache.");
+            final HttpHeaders headers = cachedHeadersWithFreshRateLimits(cachedResponse.get(), response.getHeaders());
+            response.close();
+            return new BufferedClientHttpResponse(HttpStatus.OK, headers, cachedResponse.get().getBody());
+
+        } else if (response.getRawStatusCode() == HttpStatus.OK.value() && hasValidators(response.getHeaders())) {
+            // a new (or changed) resource, store it:
+            fullResponses.incrementAndGet();
+            final byte[] responseBody = StreamUtils.copyToByteArray(response.getBody());
+            final HttpHeaders headers = new HttpHeaders();
+            headers.putAll(response.getHeaders());
+            response.close();
+
+            final Map<String, List<String>> serializableHeaders = new LinkedHashMap<>();
+            headers.forEach((name, values) -> serializableHeaders.put(name, new ArrayList<>(values)));
+            responseCache.put(new CachedResponse(
+                    url,
+                    headers.getETag(),
+                    headers.getFirst(HttpHeaders.LAST_MODIFIED),
+                    serializableHeaders,
+                    responseBody
+            ));
+            return new BufferedClientHttpResponse(HttpStatus.OK, headers, responseBody);
+
+        } else {
+            fullResponses.incrementAndGet();
+            return response;
+        }
+    }
+
+    public long getNotModifiedResponses() {
+        return notModifiedResponses.get();
+    }
+
+    public long getFullResponses() {
+        return fullResponses.get();
+    }
+
+    private boolean hasValidators(HttpHeaders headers) {
+        return headers.getETag() != null || headers.getFirst(HttpHeaders.LAST_MODIFIED) != null;
+    }
+
+    /**
+     * Restores the cached headers (e.g. the pagination links), but keeps the rate limit headers
+     * of the actual 304 response, as those are more recent.
+     */
+    private HttpHeaders cachedHeadersWithFreshRateLimits(CachedResponse cachedResponse, HttpHeaders freshHeaders) {
+        final HttpHeaders headers = new HttpHeaders();
+        for (Map.Entry<String, List<String>> header : cachedResponse.getHeaders().entrySet()) {
+            headers.put(header.getKey(), header.getValue());
+        }
+        freshHeaders.forEach((name, values) -> {
+            if (name.toLowerCase().startsWith("x-ratelimit-")) {
+                headers.put(name, values);
+            }
+        });
+        return headers;
+    }
+}
@@ -0,0 +1,117 @@
+package org.coins1920.group05.fetcher.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * The kinds of failures a request can end with. They decide whether (and how) it is re-sent.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public enum FailureClass {
+
+    // a 5xx, a timeout or any other I/O error, might work when re-sent a bit later:
+    TRANSIENT,
+
+    // GitHub's secondary rate limit (a.k.a. abuse detection), works again after a minute or so:
+    SECONDARY_RATE_LIMIT,
+
+    // the primary (hourly) rate limit, works again after the reset:
+    PRIMARY_RATE_LIMIT,
+
+    // any other 4xx (e.g. a 404 for a deleted resource), won't ever work:
+    PERMANENT;
+
+    /**
+     * Sorts a failed request into one of the failure classes.
+     *
+     * @param e the exception the RestTemplate threw
+     * @return the failure class
+     */
+    public static FailureClass of(RestClientException e) {
+        if (e instanceof CircuitBreaker.CircuitOpenException || e instanceof ResourceAccessException) {
+            return TRANSIENT;
+
+        } else if (e instanceof HttpStatusCodeException) {
+            final HttpStatusCodeException statusCodeException = (HttpStatusCodeException) e;
+            return of(statusCodeException.getRawStatusCode(), statusCodeException.getResponseHeaders(),
+                    statusCodeException.getResponseBodyAsString());
+
+        } else {
+            // e.g. a truncated response body:
+            return TRANSIENT;
+        }
+    }
+
+    /**
+     * Sorts a failed request of either the RestTemplate or the WebClient into one of the failure
+     * classes.
+     *
+     * @param e the exception the RestTemplate threw or the WebClient signalled
+     * @return the failure class
+     */
+    public static FailureClass of(Throwable e) {
+        if (e instanceof RestClientException) {
+            return of((RestClientException) e);
+
+        } else if (e instanceof WebClientResponseException) {
+            final WebClientResponseException responseException = (WebClientResponseException) e;
+            return of(responseException.getRawStatusCode(), responseException.getHeaders(),
+                    responseException.getResponseBodyAsString());
+
+        } else {
+            // e.g. a connection reset or a timeout:
+            return TRANSIENT;
+        }
+    }
+
+    /**
+     * Sorts an error response into one of the failure classes (e.g. one the WebClient received).
+     *
+     * @param status  the response's (raw) status code
+     * @param headers the response's headers (may be null)
+     * @param body    the response's body (may be null)
+     * @return the failure class
+     */
+    public static FailureClass of(int status, HttpHeaders headers, String body) {
+        final String lowerCaseBody = (body == null) ? "" : body.toLowerCase();
+        if (status >= 500) {
+            return TRANSIENT;
+
+        } else if (status == 403 || status == 429) {
+            if ((headers != null && headers.getFirst(RateLimitScheduler.RETRY_AFTER) != null)
+                    || lowerCaseBody.contains("secondary rate limit")
+                    || lowerCaseBody.contains("abuse")) {
+                return SECONDARY_RATE_LIMIT;
+            } else {
+                // GitHub doesn't always tell why, so any other 403 is treated as a rate limit:
+                return PRIMARY_RATE_LIMIT;
+            }
+
+        } else {
+            return PERMANENT;
+        }
+    }
+
+    /**
+     * Whether this is one of GitHub's rate limits (the primary or the secondary one).
+     *
+     * @return true for rate limits
+     */
+    public boolean isRateLimit() {
+        return this == PRIMARY_RATE_LIMIT || this == SECONDARY_RATE_LIMIT;
+    }
+
+    /**
+     * Whether the request might work when re-sent later on (i.e. in this or the next run).
+     *
+     * @return true for everything but permanent failures
+     */
+    public boolean isRecoverable() {
+        return this != PERMANENT;
+    }
+}
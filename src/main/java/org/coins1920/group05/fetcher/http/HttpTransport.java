@@ -0,0 +1,122 @@
+package org.coins1920.group05.fetcher.http;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The HTTP transport all fetchers share: a pool of keep-alive connections (so that TCP and TLS
+ * handshakes are done once per connection instead of once per request) and gzip compression
+ * (GitHub's JSON responses shrink to a fraction of their size). All fetchers with the same
+ * config share the same pool.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class HttpTransport {
+
+    private static final int MAX_STALE_CONNECTION_RETRIES = 3;
+
+    private static final Map<HttpTransportConfig, CloseableHttpClient> blockingClients = new ConcurrentHashMap<>();
+    private static final Map<HttpTransportConfig, HttpClient> nonBlockingClients = new ConcurrentHashMap<>();
+
+    private HttpTransport() {
+    }
+
+    /**
+     * A request factory for RestTemplates, backed by a pooled Apache HttpClient.
+     *
+     * @param config the transport config
+     * @return the request factory
+     */
+    public static ClientHttpRequestFactory requestFactory(HttpTransportConfig config) {
+        return new HttpComponentsClientHttpRequestFactory(
+                blockingClients.computeIfAbsent(copyOf(config), HttpTransport::createBlockingClient));
+    }
+
+    /**
+     * A connector for WebClients, backed by a pooled Reactor Netty client.
+     *
+     * @param config the transport config
+     * @return the connector
+     */
+    public static ClientHttpConnector clientConnector(HttpTransportConfig config) {
+        return new ReactorClientHttpConnector(
+                nonBlockingClients.computeIfAbsent(copyOf(config), HttpTransport::createNonBlockingClient));
+    }
+
+    private static CloseableHttpClient createBlockingClient(HttpTransportConfig config) {
+        log.debug("Creating a pooled HTTP client: " + config);
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(config.getMaxConnectionsTotal());
+        connectionManager.setDefaultMaxPerRoute(config.getMaxConnectionsPerRoute());
+        // don't hand out connections the server might have closed in the meantime:
+        connectionManager.setValidateAfterInactivity(2_000);
+
+        final RequestConfig requestConfig = RequestConfig
+                .custom()
+                .setConnectTimeout(config.getConnectTimeoutMillis())
+                .setSocketTimeout(config.getReadTimeoutMillis())
+                .setConnectionRequestTimeout(config.getReadTimeoutMillis())
+                .build();
+
+        final HttpClientBuilder builder = HttpClientBuilder
+                .create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                // a kept-alive connection that was closed by the server fails without a response,
+                // all our requests are reads (even the GraphQL POSTs), so they can simply be re-sent:
+                .setRetryHandler((e, executionCount, context) ->
+                        executionCount <= MAX_STALE_CONNECTION_RETRIES && e instanceof NoHttpResponseException)
+                .evictExpiredConnections()
+                .evictIdleConnections(config.getIdleConnectionTimeoutSeconds(), TimeUnit.SECONDS);
+        if (!config.isCompression()) {
+            // otherwise, "Accept-Encoding: gzip,deflate" is sent and the responses are decompressed transparently:
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    private static HttpClient createNonBlockingClient(HttpTransportConfig config) {
+        log.debug("Creating a pooled non-blocking HTTP client: " + config);
+        return HttpClient
+                .create(ConnectionProvider.fixed("fetcher", config.getMaxConnectionsTotal(),
+                        config.getReadTimeoutMillis()))
+                .compress(config.isCompression())
+                .keepAlive(true)
+                .tcpConfiguration(tcp -> tcp
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getConnectTimeoutMillis())
+                        .doOnConnected(c -> c.addHandlerLast(
+                                new ReadTimeoutHandler(config.getReadTimeoutMillis(), TimeUnit.MILLISECONDS))));
+    }
+
+    private static HttpTransportConfig copyOf(HttpTransportConfig config) {
+        // the config is mutable, so the map keys have to be copies:
+        final HttpTransportConfig copy = new HttpTransportConfig();
+        copy.setConnectTimeoutMillis(config.getConnectTimeoutMillis());
+        copy.setReadTimeoutMillis(config.getReadTimeoutMillis());
+        copy.setMaxConnectionsPerRoute(config.getMaxConnectionsPerRoute());
+        copy.setMaxConnectionsTotal(config.getMaxConnectionsTotal());
+        copy.setIdleConnectionTimeoutSeconds(config.getIdleConnectionTimeoutSeconds());
+        copy.setCompression(config.isCompression());
+        return copy;
+    }
+}
@@ -0,0 +1,49 @@
+package org.coins1920.group05.fetcher.http;
+
+import lombok.Data;
+
+import static org.coins1920.group05.util.EnvironmentHelper.intFromEnvironment;
+
+/**
+ * The knobs of the HTTP transport that all fetchers share (see HttpTransport).
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Data
+public class HttpTransportConfig {
+
+    // how long to wait for a TCP (and TLS) connection to be established:
+    private int connectTimeoutMillis = 10_000;
+
+    // how long to wait for data on an established connection:
+    private int readTimeoutMillis = 60_000;
+
+    // how many (keep-alive) connections may be open to a single host and in total:
+    private int maxConnectionsPerRoute = 64;
+    private int maxConnectionsTotal = 256;
+
+    // how long an idle connection is kept in the pool:
+    private int idleConnectionTimeoutSeconds = 30;
+
+    // whether to ask for (and transparently decompress) gzip'ed responses:
+    private boolean compression = true;
+
+    /**
+     * Creates a config from the environment variables documented in the README
+     * (HTTP_CONNECT_TIMEOUT_SECONDS, HTTP_READ_TIMEOUT_SECONDS, HTTP_MAX_CONNECTIONS_PER_ROUTE).
+     *
+     * @return the config
+     */
+    public static HttpTransportConfig fromEnvironment() {
+        final HttpTransportConfig config = new HttpTransportConfig();
+        config.setConnectTimeoutMillis(intFromEnvironment(
+                "HTTP_CONNECT_TIMEOUT_SECONDS", config.getConnectTimeoutMillis() / 1000) * 1000);
+        config.setReadTimeoutMillis(intFromEnvironment(
+                "HTTP_READ_TIMEOUT_SECONDS", config.getReadTimeoutMillis() / 1000) * 1000);
+        config.setMaxConnectionsPerRoute(intFromEnvironment(
+                "HTTP_MAX_CONNECTIONS_PER_ROUTE", config.getMaxConnectionsPerRoute()));
+        config.setMaxConnectionsTotal(Math.max(config.getMaxConnectionsTotal(), config.getMaxConnectionsPerRoute()));
+        return config;
+    }
+}
@@ -0,0 +1,72 @@
+package org.coins1920.group05.fetcher.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * The non-blocking counterpart to the RateLimitInterceptor: signs requests with a token from
+ * the TokenPool, delays (instead of blocks) them according to that token's RateLimitScheduler
+ * and re-sends rate-limited requests with another token or once the limit is lifted.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class RateLimitExchangeFilter implements ExchangeFilterFunction {
+
+    private final TokenPool tokenPool;
+    private final boolean waitForReset;
+    private final long maxWaitMillis;
+    private final int maxAttempts;
+
+    public RateLimitExchangeFilter(TokenPool tokenPool, boolean waitForReset, long maxWaitSeconds) {
+        this.tokenPool = tokenPool;
+        this.waitForReset = waitForReset;
+        this.maxWaitMillis = maxWaitSeconds * 1000;
+        this.maxAttempts = tokenPool.size() + 2;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return exchange(request, next, tokenPool.select(), 1);
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next,
+                                          TokenPool.PooledToken token, int attempt) {
+        final ClientRequest signedRequest = (token.getToken() == null)
+                ? request
+                : ClientRequest
+                .from(request)
+                .headers(h -> h.set(HttpHeaders.AUTHORIZATION, token.authorizationHeader()))
+                .build();
+
+        return Mono
+                .defer(() -> {
+                    final long delay = token.getScheduler().reserve();
+                    return Mono.delay(Duration.ofMillis(waitForReset ? delay : 0));
+                })
+                .then(Mono.defer(() -> next.exchange(signedRequest)))
+                .flatMap(response -> {
+                    final HttpHeaders headers = response.headers().asHttpHeaders();
+                    token.getScheduler().update(headers);
+                    if (attempt < maxAttempts
+                            && token.getScheduler().registerRateLimit(response.rawStatusCode(), headers)) {
+                        // fail over to another token or wait until the limit is lifted:
+                        final TokenPool.PooledToken nextToken = tokenPool.select();
+                        final long waitMillis = nextToken.getScheduler().millisUntilAvailable();
+                        if (waitMillis == 0 || (waitForReset && waitMillis <= maxWaitMillis)) {
+                            // release the connection first:
+                            return response
+                                    .bodyToMono(Void.class)
+                                    .then(exchange(request, next, nextToken, attempt + 1));
+                        }
+                    }
+                    return Mono.just(response);
+                });
+    }
+}
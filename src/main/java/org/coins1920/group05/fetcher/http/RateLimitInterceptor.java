@@ -0,0 +1,81 @@
+package org.coins1920.group05.fetcher.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Signs every request with a token from the TokenPool and paces it according to that token's
+ * RateLimitScheduler. Requests that run into a rate limit are re-sent with another token or,
+ * if all tokens are used up, once the limit is lifted. This way a crawl continues inside the
+ * same process instead of ending with a partial result.
+ * <p>
+ * This interceptor re-executes requests, so it has to be the last one in the chain!
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class RateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    private final TokenPool tokenPool;
+    private final boolean waitForReset;
+    private final long maxWaitMillis;
+    private final int maxAttempts;
+
+    public RateLimitInterceptor(TokenPool tokenPool, boolean waitForReset, long maxWaitSeconds) {
+        this.tokenPool = tokenPool;
+        this.waitForReset = waitForReset;
+        this.maxWaitMillis = maxWaitSeconds * 1000;
+        this.maxAttempts = tokenPool.size() + 2;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        TokenPool.PooledToken token = tokenPool.select();
+        for (int attempt = 1; ; attempt++) {
+            final long delay = token.getScheduler().reserve();
+            if (waitForReset) {
+                sleep(delay);
+            }
+            if (token.getToken() != null) {
+                request.getHeaders().set(HttpHeaders.AUTHORIZATION, token.authorizationHeader());
+            }
+
+            final ClientHttpResponse response = execution.execute(request, body);
+            token.getScheduler().update(response.getHeaders());
+
+            if (attempt < maxAttempts
+                    && token.getScheduler().registerRateLimit(response.getRawStatusCode(), response.getHeaders())) {
+                // fail over to another token or wait until the limit is lifted:
+                final TokenPool.PooledToken nextToken = tokenPool.select();
+                final long waitMillis = nextToken.getScheduler().millisUntilAvailable();
+                if (waitMillis == 0 || (waitForReset && waitMillis <= maxWaitMillis)) {
+                    log.debug("The rate limit of " + token + " was hit, continuing with " + nextToken + ".");
+                    response.close();
+                    token = nextToken;
+                    continue;
+                }
+            }
+            return response;
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the rate limit!");
+            }
+        }
+    }
+}
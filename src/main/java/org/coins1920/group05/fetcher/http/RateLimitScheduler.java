@@ -0,0 +1,170 @@
+package org.coins1920.group05.fetcher.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Clock;
+
+/**
+ * Keeps track of GitHub's rate limit budget (X-RateLimit-Remaining, X-RateLimit-Reset and
+ * Retry-After) and tells its callers how long to wait before they may send their next request.
+ * Once the remaining budget runs low, the requests are spread evenly until the reset time.
+ * When the limit is hit, all requests wait until the reset time (or for Retry-After seconds).
+ * <p>
+ * The scheduler itself never blocks, it only computes delays. This way it can be used by the
+ * blocking (RateLimitInterceptor) as well as by the non-blocking (RateLimitExchangeFilter) engine.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class RateLimitScheduler {
+
+    public static final String RATE_LIMIT_LIMIT = "X-RateLimit-Limit";
+    public static final String RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+    public static final String RATE_LIMIT_RESET = "X-RateLimit-Reset";
+    public static final String RETRY_AFTER = "Retry-After";
+
+    // start pacing once less than this fraction of the budget is left:
+    private static final double PACING_THRESHOLD = 0.2;
+
+    private final boolean paceRequests;
+    private final Clock clock;
+
+    private long limit = -1;
+    private long remaining = -1;
+    private long resetAtMillis = 0;
+    private long blockedUntilMillis = 0;
+    private long nextSlotMillis = 0;
+    private long rateLimitsHit = 0;
+
+    public RateLimitScheduler(boolean paceRequests) {
+        this(paceRequests, Clock.systemUTC());
+    }
+
+    public RateLimitScheduler(boolean paceRequests, Clock clock) {
+        this.paceRequests = paceRequests;
+        this.clock = clock;
+    }
+
+    /**
+     * Reserves a slot for the next request.
+     *
+     * @return how many milliseconds the caller has to wait before sending the request
+     */
+    public synchronized long reserve() {
+        final long now = clock.millis();
+        long start = Math.max(now, blockedUntilMillis);
+
+        if (remaining == 0 && resetAtMillis > start) {
+            // the budget is used up, wait for the reset:
+            start = resetAtMillis;
+
+        } else if (paceRequests && isBudgetLow() && resetAtMillis > start) {
+            // spread the remaining requests evenly until the reset:
+            final long interval = (resetAtMillis - start) / Math.max(1, remaining);
+            start = Math.max(start, nextSlotMillis);
+            nextSlotMillis = start + interval;
+        }
+
+        if (remaining > 0) {
+            remaining--;
+        }
+        return start - now;
+    }
+
+    /**
+     * Updates the budget from a response's rate limit headers.
+     *
+     * @param headers the response headers
+     */
+    public synchronized void update(HttpHeaders headers) {
+        final Long newLimit = longHeader(headers, RATE_LIMIT_LIMIT);
+        final Long newRemaining = longHeader(headers, RATE_LIMIT_REMAINING);
+        final Long newReset = longHeader(headers, RATE_LIMIT_RESET);
+        if (newLimit != null) {
+            limit = newLimit;
+        }
+        if (newRemaining != null) {
+            remaining = newRemaining;
+        }
+        if (newReset != null) {
+            resetAtMillis = newReset * 1000;
+        }
+    }
+
+    /**
+     * Checks whether a response was caused by a rate limit. If so, all further requests are
+     * held back until the limit is lifted.
+     *
+     * @param status  the response's status code
+     * @param headers the response headers
+     * @return true, if the response was caused by a rate limit
+     */
+    public synchronized boolean registerRateLimit(int status, HttpHeaders headers) {
+        if (status != 403 && status != 429) {
+            return false;
+        }
+
+        final long now = clock.millis();
+        final Long retryAfterSeconds = longHeader(headers, RETRY_AFTER);
+        final Long remainingRequests = longHeader(headers, RATE_LIMIT_REMAINING);
+        final long blockedUntil;
+        if (retryAfterSeconds != null) {
+            // a secondary rate limit (or abuse detection):
+            blockedUntil = now + retryAfterSeconds * 1000;
+        } else if (remainingRequests != null && remainingRequests == 0 && resetAtMillis > 0) {
+            // the primary rate limit, wait a second longer to be on the safe side:
+            blockedUntil = Math.max(now, resetAtMillis) + 1000;
+        } else {
+            // e.g. a 403 for a private resource:
+            return false;
+        }
+
+        rateLimitsHit++;
+        blockedUntilMillis = Math.max(blockedUntilMillis, blockedUntil);
+        log.warn("Hit a rate limit, it will be lifted in " + ((blockedUntil - now) / 1000) + "s.");
+        return true;
+    }
+
+    /**
+     * Computes how long it takes until the next request can be sent (ignoring any pacing).
+     *
+     * @return the time in milliseconds, 0 if a request can be sent right away
+     */
+    public synchronized long millisUntilAvailable() {
+        final long now = clock.millis();
+        final long availableAt = (remaining == 0)
+                ? Math.max(blockedUntilMillis, resetAtMillis)
+                : blockedUntilMillis;
+        return Math.max(0, availableAt - now);
+    }
+
+    public synchronized long getRemaining() {
+        return remaining;
+    }
+
+    public synchronized long getResetAtMillis() {
+        return resetAtMillis;
+    }
+
+    public synchronized long getRateLimitsHit() {
+        return rateLimitsHit;
+    }
+
+    private boolean isBudgetLow() {
+        return remaining >= 0 && limit > 0 && remaining < limit * PACING_THRESHOLD;
+    }
+
+    private static Long longHeader(HttpHeaders headers, String name) {
+        final String value = headers.getFirst(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
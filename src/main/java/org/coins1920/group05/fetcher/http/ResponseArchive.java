@@ -0,0 +1,284 @@
+package org.coins1920.group05.fetcher.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An append-only archive of raw API responses (status, headers and body), one archive file per
+ * repo: everything below /repos/{owner}/{repo} goes into "{owner}-{repo}.archive", all other
+ * resources (users, organizations, GraphQL queries) into the shared "github.archive". The
+ * archive can be replayed later on, e.g. to condorize a repo once more without any request.
+ * <p>
+ * An archive file starts with a header (a magic number and the format version), followed by
+ * the responses: the record's length (4 bytes), the request key (modified UTF-8) and the
+ * gzip-compressed response. Only the keys are read when an archive is opened for replay, the
+ * responses are read (and decompressed) when they are looked up. If a key was archived more
+ * than once, its latest response wins.
+ * <p>
+ * All fetchers that archive to (or replay from) the same directory share the same instance
+ * (see forDirectory()).
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class ResponseArchive {
+
+    public static final String ARCHIVE_FILENAME_POSTFIX = ".archive";
+
+    private static final String SHARED_ARCHIVE_NAME = "github";
+    private static final Pattern REPO_PATH = Pattern.compile("^/repos/([^/?#]+)/([^/?#]+)");
+
+    private static final int MAGIC = 0x43524152; // "CRAR"
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 8;
+
+    private static final Map<Path, ResponseArchive> archives = new ConcurrentHashMap<>();
+
+    private final Path archiveDir;
+
+    // the archive files opened for appending so far:
+    private final Map<Path, FileChannel> channels = new HashMap<>();
+
+    // the archive files indexed so far (request key -> the offset of its latest record):
+    private final Map<Path, Map<String, Long>> indexes = new ConcurrentHashMap<>();
+
+    private ResponseArchive(Path archiveDir) {
+        this.archiveDir = archiveDir;
+    }
+
+    /**
+     * Returns the archive for the given directory.
+     *
+     * @param archiveDir the directory
+     * @return the archive
+     * @throws IOException if the directory couldn't be created
+     */
+    public static ResponseArchive forDirectory(String archiveDir) throws IOException {
+        final Path dir = Files.createDirectories(Paths.get(archiveDir)).toAbsolutePath().normalize();
+        return archives.computeIfAbsent(dir, ResponseArchive::new);
+    }
+
+    /**
+     * Computes the name of the archive file a request (by its key) belongs to.
+     *
+     * @param key the request key (a path, see ResponseArchiveInterceptor)
+     * @return the archive file's name
+     */
+    public static String archiveNameFor(String key) {
+        final Matcher matcher = REPO_PATH.matcher(key);
+        return (matcher.find() ? matcher.group(1) + "-" + matcher.group(2) : SHARED_ARCHIVE_NAME)
+                + ARCHIVE_FILENAME_POSTFIX;
+    }
+
+    /**
+     * Appends a response.
+     *
+     * @param key     the request key
+     * @param status  the response's status
+     * @param headers the response's headers
+     * @param body    the response's body
+     * @throws IOException if the response couldn't be written
+     */
+    public void append(String key, HttpStatus status, HttpHeaders headers, byte[] body) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 256);
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(compressed))) {
+            out.writeInt(status.value());
+            out.writeInt(headers.size());
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeInt(header.getValue().size());
+                for (String value : header.getValue()) {
+                    out.writeUTF(value);
+                }
+            }
+            out.writeInt(body.length);
+            out.write(body);
+        }
+
+        final ByteArrayOutputStream record = new ByteArrayOutputStream(compressed.size() + key.length() + 8);
+        try (DataOutputStream out = new DataOutputStream(record)) {
+            out.writeInt(0); // the length, see below
+            out.writeUTF(key);
+            compressed.writeTo(out);
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(record.toByteArray());
+        buffer.putInt(0, buffer.remaining() - 4);
+
+        final Path file = archiveDir.resolve(archiveNameFor(key));
+        synchronized (channels) {
+            final FileChannel channel = channelFor(file);
+            final long offset = channel.size();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // keep the index (if the file was indexed already) up to date:
+            final Map<String, Long> index = indexes.get(file);
+            if (index != null) {
+                index.put(key, offset);
+            }
+        }
+    }
+
+    /**
+     * Looks up the latest response for a request.
+     *
+     * @param key the request key
+     * @return the archived response, if there is one
+     */
+    public Optional<BufferedClientHttpResponse> get(String key) {
+        final Path file = archiveDir.resolve(archiveNameFor(key));
+        final Long offset = indexFor(file).get(key);
+        if (offset == null) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer length = ByteBuffer.allocate(4);
+            readFully(channel, length, offset);
+            final ByteBuffer record = ByteBuffer.allocate(length.getInt(0));
+            readFully(channel, record, offset + 4);
+
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.array()))) {
+                in.readUTF(); // the key
+                return Optional.of(readResponse(new DataInputStream(new GZIPInputStream(in))));
+            }
+
+        } catch (IOException e) {
+            log.warn("The archived response for '" + key + "' could not be read, ignoring it!", e);
+            return Optional.empty();
+        }
+    }
+
+    private static BufferedClientHttpResponse readResponse(DataInputStream in) throws IOException {
+        final HttpStatus status = HttpStatus.valueOf(in.readInt());
+        final HttpHeaders headers = new HttpHeaders();
+        final int headerCount = in.readInt();
+        for (int h = 0; h < headerCount; h++) {
+            final String name = in.readUTF();
+            final int valueCount = in.readInt();
+            for (int v = 0; v < valueCount; v++) {
+                headers.add(name, in.readUTF());
+            }
+        }
+        final byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return new BufferedClientHttpResponse(status, headers, body);
+    }
+
+    /**
+     * Opens an archive file for appending. Writes the header of a new file, cuts off a record
+     * that was only partly written (e.g. when the JVM was killed) at the end of an existing one.
+     */
+    private FileChannel channelFor(Path file) throws IOException {
+        FileChannel channel = channels.get(file);
+        if (channel == null) {
+            final long validLength = Files.exists(file) ? scan(file, new HashMap<>()) : 0;
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.truncate(validLength);
+            channel.position(validLength);
+            if (validLength == 0) {
+                final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            }
+            channels.put(file, channel);
+        }
+        return channel;
+    }
+
+    private Map<String, Long> indexFor(Path file) {
+        return indexes.computeIfAbsent(file, f -> {
+            final Map<String, Long> index = new ConcurrentHashMap<>();
+            if (Files.exists(f)) {
+                try {
+                    scan(f, index);
+                    log.debug("Indexed " + index.size() + " archived response(s) in '" + f + "'");
+                } catch (IOException e) {
+                    log.warn("The response archive '" + f + "' could not be read, ignoring it!", e);
+                }
+            }
+            return index;
+        });
+    }
+
+    /**
+     * Reads the keys of all (complete) records of an archive file.
+     *
+     * @return the length of the file's valid part (0, if it isn't even a valid archive file)
+     */
+    private static long scan(Path file, Map<String, Long> index) throws IOException {
+        final long fileLength = Files.size(file);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (fileLength < HEADER_LENGTH || in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("'" + file + "' is no response archive (of version " + VERSION + ")!");
+                return 0;
+            }
+
+            long offset = HEADER_LENGTH;
+            while (offset + 4 <= fileLength) {
+                final int length = in.readInt();
+                if (length < 2 || offset + 4 + length > fileLength) {
+                    // a partly written record:
+                    break;
+                }
+                final String key = in.readUTF();
+                skipFully(in, length - 2 - utfLength(key));
+                index.put(key, offset);
+                offset += 4 + length;
+            }
+            return offset;
+        }
+    }
+
+    private static int utfLength(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            length += (c >= 0x0001 && c <= 0x007f) ? 1 : (c > 0x07ff) ? 3 : 2;
+        }
+        return length;
+    }
+
+    private static void skipFully(DataInputStream in, long bytes) throws IOException {
+        long remaining = bytes;
+        while (remaining > 0) {
+            final long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long currentPosition = position;
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, currentPosition);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            currentPosition += read;
+        }
+    }
+}
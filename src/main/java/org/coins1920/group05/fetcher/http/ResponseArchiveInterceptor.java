@@ -0,0 +1,110 @@
+package org.coins1920.group05.fetcher.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.coins1920.group05.util.UrlSet;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Archives the raw responses of all requests in a ResponseArchive (when recording), or answers
+ * all requests from a ResponseArchive without sending them (when replaying). A request that
+ * isn't archived is answered with a 404 Not Found when replaying.
+ * <p>
+ * Responses that say nothing about the resource itself (rate limits, server errors) are not
+ * archived. When recording, this has to be the first interceptor, so that it sees the same
+ * responses as the fetcher (e.g. the cached body instead of a 304 Not Modified).
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class ResponseArchiveInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ResponseArchive responseArchive;
+    private final boolean replay;
+    private final AtomicLong archivedResponses = new AtomicLong();
+    private final AtomicLong replayedResponses = new AtomicLong();
+    private final AtomicLong missingResponses = new AtomicLong();
+
+    public ResponseArchiveInterceptor(ResponseArchive responseArchive, boolean replay) {
+        this.responseArchive = responseArchive;
+        this.replay = replay;
+    }
+
+    /**
+     * Computes the archive key of a request: its path and query (i.e. the same key for the same
+     * resource, no matter which host it was fetched from), followed by a hash of the request body
+     * for anything but GET requests (e.g. GraphQL queries, which are all sent to the same URL).
+     *
+     * @param request the request
+     * @param body    the request's body
+     * @return the key
+     */
+    public static String keyOf(HttpRequest request, byte[] body) {
+        final String key = UrlSet.keyOf(request.getURI().toString());
+        return (request.getMethod() == HttpMethod.GET || body == null || body.length == 0)
+                ? key
+                : key + "#" + request.getMethod() + ":" + DigestUtils.sha256Hex(body);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        final String key = keyOf(request, body);
+        if (replay) {
+            final Optional<BufferedClientHttpResponse> archivedResponse = responseArchive.get(key);
+            if (archivedResponse.isPresent()) {
+                replayedResponses.incrementAndGet();
+                return archivedResponse.get();
+            }
+            missingResponses.incrementAndGet();
+            log.warn("There is no archived response for '" + key + "'!");
+            return new BufferedClientHttpResponse(HttpStatus.NOT_FOUND, new HttpHeaders(), new byte[0]);
+        }
+
+        final ClientHttpResponse response = execution.execute(request, body);
+        final int status = response.getRawStatusCode();
+        if (status >= 500 || status == HttpStatus.FORBIDDEN.value()
+                || status == HttpStatus.TOO_MANY_REQUESTS.value()
+                || HttpStatus.resolve(status) == null) {
+            return response;
+        }
+
+        final byte[] responseBody = StreamUtils.copyToByteArray(response.getBody());
+        final HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        response.close();
+        try {
+            responseArchive.append(key, HttpStatus.valueOf(status), headers, responseBody);
+            archivedResponses.incrementAndGet();
+        } catch (IOException e) {
+            log.warn("The response for '" + key + "' could not be archived!", e);
+        }
+        return new BufferedClientHttpResponse(HttpStatus.valueOf(status), headers, responseBody);
+    }
+
+    public boolean isReplay() {
+        return replay;
+    }
+
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("archivedResponses", archivedResponses.get());
+        statistics.put("replayedResponses", replayedResponses.get());
+        statistics.put("missingArchivedResponses", missingResponses.get());
+        return statistics;
+    }
+}
@@ -0,0 +1,81 @@
+package org.coins1920.group05.fetcher.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * A persistent, on-disk response cache. Every URL is stored in its own file (named after
+ * the URL's SHA-256 hash), so the cache can be shared between runs and between repos.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class ResponseCache {
+
+    private static final String CACHE_FILE_POSTFIX = ".response";
+
+    private final Path cacheDir;
+
+    public ResponseCache(String cacheDir) throws IOException {
+        this.cacheDir = Files.createDirectories(Paths.get(cacheDir));
+    }
+
+    /**
+     * Looks up the cached response for a given URL.
+     *
+     * @param url the (absolute) URL
+     * @return the cached response, if there is one
+     */
+    public Optional<CachedResponse> get(String url) {
+        final Path path = pathFor(url);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(path.toFile())))) {
+            final CachedResponse cachedResponse = (CachedResponse) objectInputStream.readObject();
+            // guard against (very unlikely) hash collisions:
+            return url.equals(cachedResponse.getUrl())
+                    ? Optional.of(cachedResponse)
+                    : Optional.empty();
+
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.warn("The cached response for '" + url + "' could not be read, ignoring it!", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a response. The file is written to a temporary file first and then moved, so
+     * concurrent readers never see half-written entries.
+     *
+     * @param cachedResponse the response
+     */
+    public void put(CachedResponse cachedResponse) {
+        final Path path = pathFor(cachedResponse.getUrl());
+        try {
+            final Path tmp = Files.createTempFile(cacheDir, "tmp-", CACHE_FILE_POSTFIX);
+            try (ObjectOutputStream outputStream = new ObjectOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmp.toFile())))) {
+                outputStream.writeObject(cachedResponse);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (IOException e) {
+            log.warn("The response for '" + cachedResponse.getUrl() + "' could not be cached!", e);
+        }
+    }
+
+    private Path pathFor(String url) {
+        return cacheDir.resolve(DigestUtils.sha256Hex(url) + CACHE_FILE_POSTFIX);
+    }
+}
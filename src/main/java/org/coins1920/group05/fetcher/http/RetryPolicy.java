@@ -0,0 +1,259 @@
+package org.coins1920.group05.fetcher.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Re-sends failed requests, depending on their FailureClass: transient failures (5xx, I/O errors)
+ * are retried with an exponential backoff plus (full) jitter, secondary rate limits after the
+ * time GitHub asks for (or a minute). Primary rate limits are left to the RateLimitInterceptor
+ * and permanent failures are never retried. Every host has its own CircuitBreaker. Requests
+ * can be blocking (see execute()) or non-blocking ones (see executeAsync()).
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class RetryPolicy {
+
+    private static final long SECONDARY_RATE_LIMIT_DELAY_MILLIS = 60 * 1000;
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long maxRateLimitWaitMillis;
+    private final int circuitBreakerFailureThreshold;
+    private final long circuitBreakerOpenMillis;
+
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<FailureClass, AtomicLong> failures = new EnumMap<>(FailureClass.class);
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong givenUp = new AtomicLong();
+
+    /**
+     * @param maxRetries                     how often a single request may be re-sent
+     * @param baseDelayMillis                the backoff before the first retry
+     * @param maxDelayMillis                 the backoff's upper bound
+     * @param maxRateLimitWaitMillis         the longest we wait for a secondary rate limit (0 never waits)
+     * @param circuitBreakerFailureThreshold how many transient failures in a row open a host's circuit
+     * @param circuitBreakerOpenMillis       how long a circuit stays open
+     */
+    public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis, long maxRateLimitWaitMillis,
+                       int circuitBreakerFailureThreshold, long circuitBreakerOpenMillis) {
+        this.maxRetries = Math.max(0, maxRetries);
+        this.baseDelayMillis = Math.max(1, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+        this.maxRateLimitWaitMillis = maxRateLimitWaitMillis;
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+        this.circuitBreakerOpenMillis = circuitBreakerOpenMillis;
+        for (FailureClass failureClass : FailureClass.values()) {
+            failures.put(failureClass, new AtomicLong());
+        }
+    }
+
+    /**
+     * Sends a request (i.e. calls the RestTemplate) and re-sends it as long as the policy allows.
+     *
+     * @param host    the host the request goes to
+     * @param request the request
+     * @param <T>     type parameter for the response
+     * @return the response
+     * @throws RestClientException the last failure, if the request couldn't be sent successfully
+     */
+    public <T> T execute(String host, Supplier<T> request) {
+        final CircuitBreaker circuitBreaker = circuitBreakerFor(host);
+        for (int attempt = 0; ; attempt++) {
+            long trial = 0;
+            try {
+                trial = circuitBreaker.acquire();
+                final T response = request.get();
+                circuitBreaker.onSuccess();
+                return response;
+
+            } catch (RestClientException e) {
+                final FailureClass failureClass = FailureClass.of(e);
+                recordFailure(circuitBreaker, failureClass, e);
+
+                final long delay = delayFor(failureClass, e, attempt);
+                if (attempt >= maxRetries || delay < 0) {
+                    givenUp.incrementAndGet();
+                    throw e;
+                }
+
+                retries.incrementAndGet();
+                log.warn("Request to " + host + " failed (" + failureClass + ": " + e.getMessage()
+                        + "), retrying in " + delay + "ms...");
+                sleep(delay);
+
+            } finally {
+                // a trial that failed with anything but a RestClientException must not block the circuit:
+                circuitBreaker.endTrial(trial);
+            }
+        }
+    }
+
+    /**
+     * The non-blocking counterpart to execute(): subscribes to the request (e.g. a WebClient
+     * exchange) and re-subscribes to it (after a delay, instead of a sleep) as long as the policy
+     * allows. Errors are sorted into failure classes just like the RestTemplate's exceptions,
+     * so error responses have to be signalled as WebClientResponseExceptions.
+     *
+     * @param host    the host the request goes to
+     * @param request the request
+     * @param <T>     type parameter for the response
+     * @return the response, or the last failure, if the request couldn't be sent successfully
+     */
+    public <T> Mono<T> executeAsync(String host, Supplier<Mono<T>> request) {
+        return executeAsync(circuitBreakerFor(host), host, request, 0);
+    }
+
+    private <T> Mono<T> executeAsync(CircuitBreaker circuitBreaker, String host,
+                                     Supplier<Mono<T>> request, int attempt) {
+        return Mono
+                .defer(() -> {
+                    final long trial = circuitBreaker.acquire();
+                    return request
+                            .get()
+                            .doOnSuccess(response -> circuitBreaker.onSuccess())
+                            // a cancelled trial must not block the circuit:
+                            .doFinally(signal -> circuitBreaker.endTrial(trial));
+                })
+                .onErrorResume(e -> {
+                    final FailureClass failureClass = FailureClass.of(e);
+                    recordFailure(circuitBreaker, failureClass, e);
+
+                    final long delay = delayFor(failureClass, e, attempt);
+                    if (attempt >= maxRetries || delay < 0) {
+                        givenUp.incrementAndGet();
+                        return Mono.error(e);
+                    }
+
+                    retries.incrementAndGet();
+                    log.warn("Request to " + host + " failed (" + failureClass + ": " + e.getMessage()
+                            + "), retrying in " + delay + "ms...");
+                    return Mono
+                            .delay(Duration.ofMillis(delay))
+                            .then(executeAsync(circuitBreaker, host, request, attempt + 1));
+                });
+    }
+
+    private CircuitBreaker circuitBreakerFor(String host) {
+        return circuitBreakers.computeIfAbsent(String.valueOf(host),
+                h -> new CircuitBreaker(h, circuitBreakerFailureThreshold, circuitBreakerOpenMillis));
+    }
+
+    private void recordFailure(CircuitBreaker circuitBreaker, FailureClass failureClass, Throwable e) {
+        failures.get(failureClass).incrementAndGet();
+        if (failureClass == FailureClass.TRANSIENT) {
+            if (!(e instanceof CircuitBreaker.CircuitOpenException)) {
+                circuitBreaker.onFailure();
+            }
+        } else {
+            // the host answered, so it is healthy:
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    /**
+     * Computes how long to wait before the next attempt.
+     *
+     * @return the delay in milliseconds, or -1 if the request must not be re-sent
+     */
+    private long delayFor(FailureClass failureClass, Throwable e, int attempt) {
+        switch (failureClass) {
+            case TRANSIENT:
+                final long backoff = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt, 30));
+                final long jitteredBackoff = ThreadLocalRandom.current().nextLong(backoff + 1);
+                if (e instanceof CircuitBreaker.CircuitOpenException) {
+                    // there's no point in asking before the circuit is half-open again:
+                    return Math.max(jitteredBackoff, ((CircuitBreaker.CircuitOpenException) e).getRetryInMillis());
+                }
+                return jitteredBackoff;
+
+            case SECONDARY_RATE_LIMIT:
+                final long retryAfterMillis = retryAfterMillis(e);
+                final long delay = (retryAfterMillis > 0) ? retryAfterMillis : SECONDARY_RATE_LIMIT_DELAY_MILLIS;
+                return (delay <= maxRateLimitWaitMillis) ? delay : -1;
+
+            default:
+                return -1;
+        }
+    }
+
+    private static long retryAfterMillis(Throwable e) {
+        final HttpHeaders headers;
+        if (e instanceof HttpStatusCodeException) {
+            headers = ((HttpStatusCodeException) e).getResponseHeaders();
+        } else if (e instanceof WebClientResponseException) {
+            headers = ((WebClientResponseException) e).getHeaders();
+        } else {
+            headers = null;
+        }
+        final String retryAfter = (headers == null) ? null : headers.getFirst(RateLimitScheduler.RETRY_AFTER);
+        if (retryAfter != null) {
+            try {
+                return Long.parseLong(retryAfter.trim()) * 1000;
+            } catch (NumberFormatException nfe) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a retry!", e);
+        }
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getGivenUp() {
+        return givenUp.get();
+    }
+
+    public long getFailures(FailureClass failureClass) {
+        return failures.get(failureClass).get();
+    }
+
+    public long getCircuitBreakerOpenings() {
+        return circuitBreakers.values().stream().mapToLong(CircuitBreaker::getTimesOpened).sum();
+    }
+
+    public long getCircuitBreakerRejections() {
+        return circuitBreakers.values().stream().mapToLong(CircuitBreaker::getRejectedRequests).sum();
+    }
+
+    /**
+     * All counters (retries, failures by class, circuit breaker openings, ...) by name.
+     *
+     * @return the counters
+     */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("retries", getRetries());
+        statistics.put("givenUp", getGivenUp());
+        failures.forEach((failureClass, count) -> statistics.put("failures." + failureClass, count.get()));
+        statistics.put("circuitBreakerOpenings", getCircuitBreakerOpenings());
+        statistics.put("circuitBreakerRejections", getCircuitBreakerRejections());
+        return statistics;
+    }
+}
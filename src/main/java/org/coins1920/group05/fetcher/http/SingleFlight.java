@@ -0,0 +1,113 @@
+package org.coins1920.group05.fetcher.http;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent lookups of the same key: the first caller does the actual work (e.g. an
+ * HTTP request), all callers that ask for the same key while that work is still in flight wait
+ * for it and get the very same result (or exception). Nothing is cached beyond that, i.e. once
+ * the lookup is done, the next caller for that key triggers a new one.
+ *
+ * @param <K> type parameter for the keys (e.g. URLs)
+ * @param <V> type parameter for the results
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    // hits are lookups that joined another one, misses are the ones that did the actual work:
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Runs the supplier, unless there already is a lookup for the given key in flight.
+     *
+     * @param key      the key
+     * @param supplier does the actual work
+     * @return the (possibly shared) result
+     */
+    public V execute(K key, Supplier<V> supplier) {
+        final CompletableFuture<V> call = new CompletableFuture<>();
+        final CompletableFuture<V> runningCall = inFlight.putIfAbsent(key, call);
+        if (runningCall != null) {
+            hits.incrementAndGet();
+            return join(runningCall);
+        }
+
+        misses.incrementAndGet();
+        try {
+            final V value = supplier.get();
+            call.complete(value);
+            return value;
+
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * The non-blocking counterpart to execute(): subscribes to the supplied Mono, unless there
+     * already is a lookup for the given key in flight.
+     *
+     * @param key      the key
+     * @param supplier creates the Mono that does the actual work
+     * @return the (possibly shared) result
+     */
+    public Mono<V> executeAsync(K key, Supplier<Mono<V>> supplier) {
+        return Mono.defer(() -> {
+            final CompletableFuture<V> call = new CompletableFuture<>();
+            final CompletableFuture<V> runningCall = inFlight.putIfAbsent(key, call);
+            if (runningCall != null) {
+                hits.incrementAndGet();
+                return Mono.fromFuture(runningCall);
+            }
+
+            misses.incrementAndGet();
+            return supplier
+                    .get()
+                    // an empty Mono completes the call with null, which is an empty Mono again:
+                    .doOnSuccess(call::complete)
+                    .doOnError(call::completeExceptionally)
+                    .doOnCancel(() -> call.cancel(false))
+                    .doFinally(s -> inFlight.remove(key, call));
+        });
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V join(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            } else {
+                throw e;
+            }
+        }
+    }
+}
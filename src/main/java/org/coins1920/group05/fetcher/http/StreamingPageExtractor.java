@@ -0,0 +1,52 @@
+package org.coins1920.group05.fetcher.http;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes a page (i.e. a JSON array) of entities straight from the response stream, one element
+ * at a time: no intermediate array is built and all properties that aren't part of the model
+ * are skipped by the parser instead of being materialized.
+ *
+ * @param <U> type parameter for the entities
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class StreamingPageExtractor<U> implements ResponseExtractor<ResponseEntity<List<U>>> {
+
+    private final ObjectReader reader;
+
+    public StreamingPageExtractor(ObjectMapper objectMapper, Class<U> clazz) {
+        this.reader = objectMapper.readerFor(clazz);
+    }
+
+    @Override
+    public ResponseEntity<List<U>> extractData(ClientHttpResponse response) throws IOException {
+        final List<U> entities = new ArrayList<>();
+        try (JsonParser parser = reader.getFactory().createParser(response.getBody())) {
+            final JsonToken firstToken = parser.nextToken();
+            if (firstToken == JsonToken.START_ARRAY) {
+                // a page of entities:
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.VALUE_NULL) {
+                        entities.add(reader.readValue(parser));
+                    }
+                }
+            } else if (firstToken == JsonToken.START_OBJECT) {
+                // a single entity:
+                entities.add(reader.readValue(parser));
+            }
+        }
+        return new ResponseEntity<>(entities, response.getHeaders(), response.getStatusCode());
+    }
+}
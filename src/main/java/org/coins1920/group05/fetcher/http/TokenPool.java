@@ -0,0 +1,104 @@
+package org.coins1920.group05.fetcher.http;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A pool of OAuth tokens, each with its own rate limit budget (i.e. its own RateLimitScheduler).
+ * Every request is routed to the token with the most remaining budget. Once a token runs out,
+ * the requests fail over to the others, so the total throughput scales with the number of tokens.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+@Slf4j
+public class TokenPool {
+
+    private final List<PooledToken> tokens;
+
+    public TokenPool(List<String> oauthTokens, boolean paceRequests) {
+        final List<String> nonEmptyTokens = (oauthTokens == null)
+                ? Collections.emptyList()
+                : oauthTokens.stream()
+                .filter(t -> t != null && !t.trim().isEmpty())
+                .map(String::trim)
+                .distinct()
+                .collect(Collectors.toList());
+
+        this.tokens = new ArrayList<>();
+        if (nonEmptyTokens.isEmpty()) {
+            // no token at all, send unauthenticated requests (with their own, much smaller budget):
+            tokens.add(new PooledToken(null, 0, new RateLimitScheduler(paceRequests)));
+        } else {
+            for (int i = 0; i < nonEmptyTokens.size(); i++) {
+                tokens.add(new PooledToken(nonEmptyTokens.get(i), i, new RateLimitScheduler(paceRequests)));
+            }
+        }
+        log.debug("Using a pool of " + tokens.size() + " token(s).");
+    }
+
+    /**
+     * Picks the token that can be used the soonest and, among those, the one with the
+     * most remaining budget. Tokens whose budget is still unknown count as fresh ones.
+     *
+     * @return the token to use for the next request
+     */
+    public PooledToken select() {
+        return tokens
+                .stream()
+                .min(Comparator
+                        .comparingLong((PooledToken t) -> t.getScheduler().millisUntilAvailable())
+                        .thenComparing(Comparator.comparingLong(TokenPool::effectiveRemaining).reversed()))
+                .orElseThrow(() -> new IllegalStateException("The token pool is empty!"));
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    /**
+     * Sums up the remaining budget of all tokens (tokens with an unknown budget are left out).
+     *
+     * @return the total remaining budget
+     */
+    public long totalRemaining() {
+        return tokens
+                .stream()
+                .mapToLong(t -> t.getScheduler().getRemaining())
+                .filter(r -> r > 0)
+                .sum();
+    }
+
+    private static long effectiveRemaining(PooledToken token) {
+        final long remaining = token.getScheduler().getRemaining();
+        return (remaining < 0) ? Long.MAX_VALUE : remaining;
+    }
+
+    /**
+     * A single token and its rate limit budget. The token itself never shows up in any log,
+     * only its index in the pool.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class PooledToken {
+        private final String token;
+        private final int index;
+        private final RateLimitScheduler scheduler;
+
+        public String authorizationHeader() {
+            return "token " + token;
+        }
+
+        @Override
+        public String toString() {
+            return "token #" + index;
+        }
+    }
+}
@@ -5,7 +5,10 @@ import lombok.Getter;
 import org.coins1920.group05.model.condor.EdgeType;
 
 /**
- * A generic interaction "sum type": creation | comment .
+ * A generic interaction "sum type": creation | comment | assigning | reaction .
+ * For assignments, the creator is the one who assigned the ticket to the assignee.
+ * For reactions, the creator is the one who reacted (with the given emoji) to the comment
+ * or, if there is no comment, to the ticket itself.
  */
 @Getter
 @AllArgsConstructor
@@ -13,4 +16,14 @@ public class Interaction<M extends AbstractMember, C extends AbstractComment> {
     private M creator;
     private C comment;
     private EdgeType edgeType;
+    private M assignee;
+    private String reaction;
+
+    public Interaction(M creator, C comment, EdgeType edgeType) {
+        this(creator, comment, edgeType, null, null);
+    }
+
+    public Interaction(M creator, C comment, EdgeType edgeType, M assignee) {
+        this(creator, comment, edgeType, assignee, null);
+    }
 }
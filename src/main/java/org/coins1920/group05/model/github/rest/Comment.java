@@ -1,5 +1,6 @@
 package org.coins1920.group05.model.github.rest;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 import org.coins1920.group05.model.general.AbstractComment;
 
@@ -9,8 +10,16 @@ import org.coins1920.group05.model.general.AbstractComment;
 @AllArgsConstructor
 @ToString(callSuper = true)
 public class Comment extends AbstractComment {
+    private static final long serialVersionUID = 3167362672677075389L;
+
     private User user; // the author of this very comment
     private String created_at;
     private String updated_at;
     private String body;
+
+    @JsonProperty("issue_url")
+    private String issueUrl; // points to the issue this comment belongs to
+
+    @JsonProperty("node_id")
+    private String nodeId; // the GraphQL node ID, needed to fetch the reactions
 }
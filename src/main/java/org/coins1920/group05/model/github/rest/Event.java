@@ -1,6 +1,23 @@
 package org.coins1920.group05.model.github.rest;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
 import org.coins1920.group05.model.general.AbstractAction;
 
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(callSuper = true)
 public class Event extends AbstractAction {
+    private static final long serialVersionUID = 6627201773002654687L;
+
+    private String event; // the event type, e.g. "assigned" or "closed"
+    private User actor; // the user who triggered the event
+    private User assignee; // the user who was (un-)assigned, for "assigned" and "unassigned" events only
+    private User assigner;
+    private Issue issue; // the issue this event belongs to (only for repo-wide events)
+
+    @JsonProperty("created_at")
+    private String createdAt;
 }
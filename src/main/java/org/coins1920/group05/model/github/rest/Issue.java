@@ -10,6 +10,8 @@ import org.coins1920.group05.model.general.AbstractTicket;
 @AllArgsConstructor
 @ToString(callSuper = true)
 public class Issue extends AbstractTicket {
+    private static final long serialVersionUID = -8878040509985587249L;
+
     private String number;
     private String title;
     private String url;
@@ -34,6 +36,9 @@ public class Issue extends AbstractTicket {
     @JsonProperty("closed_at")
     private String closedAt;
 
+    @JsonProperty("node_id")
+    private String nodeId; // the GraphQL node ID, needed to fetch the reactions
+
     @JsonProperty("pull_request")
     private PullRequest pullRequest;
 }
@@ -0,0 +1,23 @@
+package org.coins1920.group05.model.github.rest;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+import org.coins1920.group05.model.general.AbstractAction;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(callSuper = true)
+public class Reaction extends AbstractAction {
+    private static final long serialVersionUID = -2370186442019563418L;
+
+    private String content; // the emoji, e.g. "THUMBS_UP" or "HEART"
+    private User user; // the user who reacted
+
+    @JsonProperty("subject_id")
+    private String subjectId; // the node ID of the issue or comment this reaction belongs to
+
+    @JsonProperty("created_at")
+    private String createdAt;
+}
@@ -1,6 +1,23 @@
 package org.coins1920.group05.model.github.rest;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
 import org.coins1920.group05.model.general.AbstractBoard;
 
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(callSuper = true)
 public class Repo extends AbstractBoard {
+    private String name;
+    private User owner;
+
+    @JsonProperty("full_name")
+    private String fullName; // e.g. "linuxmint/cinnamon-spices-desklets"
+
+    @JsonProperty("has_issues")
+    private boolean hasIssues; // whether the repo's issue tracker is enabled
+
+    private boolean archived;
 }
@@ -0,0 +1,101 @@
+package org.coins1920.group05.util;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A list that only grows at its end. The elements are kept in chunks that double in size
+ * (16, 32, 64, ...), so that appending never copies any element that is already in the list
+ * (unlike an ArrayList, that copies its whole array whenever it grows) and is O(1), while get()
+ * is still O(1) as well. Elements can be replaced, but not removed.
+ * <p>
+ * A ChunkedList is serialized as a plain ArrayList.
+ *
+ * @param <T> type parameter for the elements
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class ChunkedList<T> extends AbstractList<T> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = -3418846027366410207L;
+
+    // the first chunk holds 2^4 = 16 elements:
+    private static final int FIRST_CHUNK_BITS = 4;
+    private static final int FIRST_CHUNK_SIZE = 1 << FIRST_CHUNK_BITS;
+
+    private final List<Object[]> chunks = new ArrayList<>();
+    private int size = 0;
+
+    public ChunkedList() {
+    }
+
+    public ChunkedList(Collection<? extends T> elements) {
+        addAll(elements);
+    }
+
+    @Override
+    public boolean add(T element) {
+        final int chunk = chunkOf(size);
+        if (chunk == chunks.size()) {
+            chunks.add(new Object[FIRST_CHUNK_SIZE << chunk]);
+        }
+        chunks.get(chunk)[offsetOf(size, chunk)] = element;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> elements) {
+        elements.forEach(this::add);
+        return !elements.isEmpty();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        checkIndex(index);
+        final int chunk = chunkOf(index);
+        return (T) chunks.get(chunk)[offsetOf(index, chunk)];
+    }
+
+    @Override
+    public T set(int index, T element) {
+        final T formerElement = get(index);
+        final int chunk = chunkOf(index);
+        chunks.get(chunk)[offsetOf(index, chunk)] = element;
+        return formerElement;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Chunk k holds the indices 16 * (2^k - 1) to 16 * (2^(k+1) - 1) - 1, i.e. the chunk of an
+     * index is the position of the highest bit of (index + 16), minus 4.
+     */
+    private static int chunkOf(int index) {
+        return (31 - Integer.numberOfLeadingZeros(index + FIRST_CHUNK_SIZE)) - FIRST_CHUNK_BITS;
+    }
+
+    private static int offsetOf(int index, int chunk) {
+        return (index + FIRST_CHUNK_SIZE) - (FIRST_CHUNK_SIZE << chunk);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    private Object writeReplace() {
+        // keeps the serialized form (e.g. of a partial result) independent of this class:
+        return new ArrayList<>(this);
+    }
+}
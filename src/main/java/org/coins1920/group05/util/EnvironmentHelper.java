@@ -0,0 +1,18 @@
+package org.coins1920.group05.util;
+
+public class EnvironmentHelper {
+
+    /**
+     * Reads an integer from an environment variable.
+     *
+     * @param name         the environment variable's name
+     * @param defaultValue the value to use if the variable is not set (or blank)
+     * @return the variable's value or the default value
+     */
+    public static int intFromEnvironment(String name, int defaultValue) {
+        final String value = System.getenv(name);
+        return (value == null || value.trim().isEmpty())
+                ? defaultValue
+                : Integer.parseInt(value.trim());
+    }
+}
@@ -1,25 +1,33 @@
 package org.coins1920.group05.util;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.coins1920.group05.fetcher.FetchingResult;
 import org.coins1920.group05.fetcher.PartialFetchingResult;
+import org.coins1920.group05.fetcher.StoredDataset;
 import org.coins1920.group05.model.github.rest.Comment;
+import org.coins1920.group05.model.github.rest.Event;
 import org.coins1920.group05.model.github.rest.Issue;
 import org.coins1920.group05.model.github.rest.User;
 
 import java.io.*;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
- * A helper class for persisting partial fetching results to disc.
+ * A helper class for persisting datasets to disc and for reading the partial fetching results
+ * of older versions.
  *
  * @author Patrick Preuß (patrickp89)
  * @author Julian Cornea (buggitheclown)
@@ -28,27 +36,16 @@ import java.util.stream.Collectors;
 public class PersistenceHelper {
 
     private static final String PARTIAL_FILE_FILENAME_POSTFIX = ".partial";
+    private static final String DATASET_FILE_FILENAME_POSTFIX = ".dataset";
 
-    public static synchronized File persistPartialResultsToDisk(
-            PartialFetchingResult<Issue, User, Comment> partialFetchingResult,
-            String owner, String board, String outputDir) throws IOException {
-        final String ts = TimeFormattingHelper.now();
-        final String fileName = owner + "-" + board + "-" + ts + PARTIAL_FILE_FILENAME_POSTFIX;
-        final File partialResult = new File(outputDir, fileName);
-
-        final ObjectOutputStream outputStream = new ObjectOutputStream(
-                new FileOutputStream(partialResult)
-        );
-        outputStream.writeObject(nonNullify(partialFetchingResult));
-        outputStream.flush();
-        outputStream.close();
-
-        return partialResult;
-    }
+    // the first bytes of a (Java-)serialized object, i.e. of a dataset of an older version:
+    private static final int SERIALIZATION_MAGIC = 0xaced;
 
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
     /**
-     * Prevents null values to be written to disc.
+     * Prevents null values in partial results that were read from disc.
      *
      * @param partialFetchingResult the partial fetching result
      * @return a PartialFetchingResult without null values
@@ -68,6 +65,18 @@ public class PersistenceHelper {
     }
 
 
+    /**
+     * Reads the newest partial result of the given repo. Partial results are no longer written
+     * (the CheckpointJournal replaces them), the ones of older versions are only read to carry
+     * them over into the journal.
+     *
+     * @param owner     repo owner
+     * @param board     repo name
+     * @param outputDir folder where the partial results are kept
+     * @return the newest partial result
+     * @throws IOException            if the partial result couldn't be read
+     * @throws ClassNotFoundException if the partial result couldn't be deserialized
+     */
     public static PartialFetchingResult<Issue, User, Comment> readPersistedPartialResult(
             String owner, String board, String outputDir) throws IOException, ClassNotFoundException {
         final String fileNamePrefix = owner + "-" + board + "-";
@@ -77,10 +86,10 @@ public class PersistenceHelper {
             case 0:
                 throw new IllegalStateException("There are no matching files in '" + outputDir + "'!");
             case 1:
-                return deserialize(matchingFiles.get(0));
+                return nonNullify(deserialize(matchingFiles.get(0)));
             default:
                 log.debug("There are multiple files matching '" + owner + "', '" + board + "':");
-                return pickNewestPartialResultFile(matchingFiles);
+                return nonNullify(pickNewestPartialResultFile(matchingFiles));
         }
     }
 
@@ -151,11 +160,100 @@ public class PersistenceHelper {
     }
 
 
+    /**
+     * Lists the partial results of a repo. Partial results are always written to the output
+     * folder itself, so its sub folders (e.g. the ones of an organization's repos) are skipped,
+     * and only the file names matching the prefix are looked at.
+     *
+     * @param fileNamePrefix the prefix, e.g. "{owner}-{board}-"
+     * @param outputDir      folder where the partial results are persisted
+     * @return the matching files
+     * @throws IOException if the folder couldn't be read
+     */
     public static List<Path> getMatchingFiles(String fileNamePrefix, String outputDir) throws IOException {
-        return Files
-                .walk(Paths.get(outputDir))
-                .filter(p -> p.getFileName().toString().endsWith(PARTIAL_FILE_FILENAME_POSTFIX))
-                .filter(p -> p.getFileName().toString().startsWith(fileNamePrefix))
-                .collect(Collectors.toList());
+        final List<Path> matchingFiles = new LinkedList<>();
+        if (!Files.isDirectory(Paths.get(outputDir))) {
+            return matchingFiles;
+        }
+        try (DirectoryStream<Path> partialResults = Files.newDirectoryStream(Paths.get(outputDir),
+                p -> p.getFileName().toString().startsWith(fileNamePrefix)
+                        && p.getFileName().toString().endsWith(PARTIAL_FILE_FILENAME_POSTFIX))) {
+            partialResults.forEach(matchingFiles::add);
+        }
+        return matchingFiles;
+    }
+
+
+    /**
+     * Deletes all partial results of a repo (e.g. once they were carried over into a journal).
+     *
+     * @param owner     repo owner
+     * @param board     repo name
+     * @param outputDir folder where the partial results are persisted
+     * @throws IOException if a partial result couldn't be deleted
+     */
+    public static synchronized void deletePartialResults(String owner, String board, String outputDir) throws IOException {
+        for (Path partialResult : getMatchingFiles(owner + "-" + board + "-", outputDir)) {
+            Files.deleteIfExists(partialResult);
+            log.debug("Deleted the partial result " + partialResult.getFileName());
+        }
+    }
+
+
+    /**
+     * Persists the dataset of an incremental sync as JSON (just like the payloads of the
+     * CheckpointJournal). There's only one dataset file per repo, it is replaced atomically, so
+     * that a crash never leaves a half-written dataset behind.
+     *
+     * @param dataset   the dataset
+     * @param owner     repo owner
+     * @param board     repo name
+     * @param outputDir folder where the dataset should be persisted
+     * @return the dataset file
+     * @throws IOException if persisting the dataset didn't work
+     */
+    public static synchronized File persistDatasetToDisk(StoredDataset<Issue, Comment, Event, User> dataset,
+                                                         String owner, String board, String outputDir) throws IOException {
+        final File datasetFile = new File(outputDir, owner + "-" + board + DATASET_FILE_FILENAME_POSTFIX);
+        final File tempFile = File.createTempFile(datasetFile.getName(), ".tmp", new File(outputDir));
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+            objectMapper.writeValue(outputStream, dataset);
+        }
+        Files.move(tempFile.toPath(), datasetFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return datasetFile;
+    }
+
+
+    /**
+     * Reads the dataset of an incremental sync. Datasets of older versions (that were serialized
+     * instead of being written as JSON) are still read, they are written as JSON the next time.
+     *
+     * @param owner     repo owner
+     * @param board     repo name
+     * @param outputDir folder where the dataset was persisted
+     * @return the dataset, if there is one
+     * @throws IOException            if reading the dataset didn't work
+     * @throws ClassNotFoundException if a dataset of an older version couldn't be deserialized
+     */
+    @SuppressWarnings("unchecked")
+    public static Optional<StoredDataset<Issue, Comment, Event, User>> readPersistedDataset(
+            String owner, String board, String outputDir) throws IOException, ClassNotFoundException {
+        final File datasetFile = new File(outputDir, owner + "-" + board + DATASET_FILE_FILENAME_POSTFIX);
+        if (!datasetFile.exists()) {
+            return Optional.empty();
+        }
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(datasetFile))) {
+            inputStream.mark(2);
+            final boolean serialized = ((inputStream.read() << 8) | inputStream.read()) == SERIALIZATION_MAGIC;
+            inputStream.reset();
+            if (serialized) {
+                final ObjectInputStream objectInputStream = new ObjectInputStream(inputStream);
+                return Optional.of((StoredDataset<Issue, Comment, Event, User>) objectInputStream.readObject());
+            }
+            return Optional.of(objectMapper.readValue(inputStream,
+                    new TypeReference<StoredDataset<Issue, Comment, Event, User>>() {
+                    }));
+        }
     }
 }
@@ -3,6 +3,7 @@ package org.coins1920.group05.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.*;
 import java.util.regex.Matcher;
@@ -11,6 +12,7 @@ import java.util.stream.Collectors;
 
 public class RestClientHelper {
     private static Logger logger = LoggerFactory.getLogger(RestClientHelper.class);
+    private static final Pattern PAGE_PARAMETER_PATTERN = Pattern.compile("([?&]page=)([0-9]+)");
 
     public static <T> List<T> nonNullResponseEntities(ResponseEntity<T[]> response) {
         if (response == null || response.getBody() == null) {
@@ -24,26 +26,92 @@ public class RestClientHelper {
         }
     }
 
+    /**
+     * Unwraps a page that was decoded by a StreamingPageExtractor (which already skips all nulls).
+     *
+     * @param response the response
+     * @param <T>      type parameter for the entities
+     * @return the entities, never null
+     */
+    public static <T> List<T> responseEntityList(ResponseEntity<List<T>> response) {
+        if (response == null || response.getBody() == null) {
+            return new LinkedList<>();
+        } else {
+            logger.debug("I got " + response.getBody().size() + " item(s)!");
+            return response.getBody();
+        }
+    }
+
     public static Optional<String> splitGithubPaginationLinks(String links) {
-        final String regExp = "[<][^,]+[;].rel[^,]+";
+        return Optional.ofNullable(parseGithubPaginationLinks(links).get("next"));
+    }
+
+    /**
+     * Splits a GitHub "Link" header into its single links, e.g.
+     * "&lt;https://api.github.com/...&amp;page=2&gt;; rel="next", &lt;https://api.github.com/...&amp;page=8&gt;; rel="last""
+     * becomes {next=https://api.github.com/...&amp;page=2, last=https://api.github.com/...&amp;page=8}.
+     *
+     * @param links the "Link" header's value
+     * @return a map of relation type ("next", "last", "prev", "first") to URL
+     */
+    public static Map<String, String> parseGithubPaginationLinks(String links) {
+        final String regExp = "[<]([^>]+)[>][^,]*rel=\"([a-z]+)\"";
         final Matcher matcher = Pattern
                 .compile(regExp)
                 .matcher(links);
 
         // TODO: readme! Since Java 9 there's a cool function: Matcher.results()
         // It makes the following super-ugly while loop unnecessary:
-        final LinkedList<String> matches = new LinkedList<>();
+        final Map<String, String> relToUrl = new HashMap<>();
         while (matcher.find()) {
-            matches.add(matcher.group());
+            relToUrl.put(matcher.group(2), matcher.group(1).trim());
         }
         // we chose Java 8 for compatibility reasons, but one should rather use Java 9+ ASAP!
 
-        return matches
-                .stream()
-                .filter(s -> s.contains("rel=\"next\""))
-                .map(l -> l.split(";")[0])
-                .map(String::trim)
-                .map(l -> l.substring(1, (l.length() - 1)))
-                .findFirst();
+        return relToUrl;
+    }
+
+    /**
+     * Extracts the "page" query parameter from a GitHub pagination link.
+     *
+     * @param url the pagination link
+     * @return the page number (if there is one)
+     */
+    public static Optional<Integer> pageNumber(String url) {
+        final Matcher matcher = PAGE_PARAMETER_PATTERN.matcher(url);
+        if (matcher.find()) {
+            return Optional.of(Integer.parseInt(matcher.group(2)));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces the "page" query parameter of a GitHub pagination link.
+     *
+     * @param url        the pagination link
+     * @param pageNumber the new page number
+     * @return the pagination link for the given page
+     */
+    public static String withPageNumber(String url, int pageNumber) {
+        return PAGE_PARAMETER_PATTERN
+                .matcher(url)
+                .replaceFirst("$1" + pageNumber);
+    }
+
+    /**
+     * Expands a URL template, e.g. "/repos/{owner}/{board}/issues" to "/repos/o/b/issues". The
+     * fetchers record the expanded URLs as visited (or failed), so that the URLs of different
+     * repos never look the same (see UrlSet.keyOf()).
+     *
+     * @param urlTemplate  the URL template
+     * @param uriVariables the template's variables
+     * @return the expanded URL (not yet encoded, the RestTemplate/WebClient takes care of that)
+     */
+    public static String expand(String urlTemplate, Object... uriVariables) {
+        return UriComponentsBuilder
+                .fromUriString(urlTemplate)
+                .buildAndExpand(uriVariables)
+                .toUriString();
     }
 }
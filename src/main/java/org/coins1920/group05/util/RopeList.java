@@ -0,0 +1,124 @@
+package org.coins1920.group05.util;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A read-only concatenation of two lists (that may be RopeLists themselves). Concatenating is
+ * O(1), as the segments are only linked, not copied. The whole rope is flattened into a single
+ * array the first time an element is read, the links to the segments are dropped afterwards.
+ * That way, a chain of n concatenations (e.g. a reduce() over the FetchingResults of many pages)
+ * copies every element once instead of n times.
+ * <p>
+ * The segments must not be changed after they were concatenated. A RopeList is serialized as a
+ * plain ArrayList.
+ *
+ * @param <T> type parameter for the elements
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class RopeList<T> extends AbstractList<T> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = -2035529148806426437L;
+
+    private final int size;
+
+    // the segments (both are null once the rope was flattened):
+    private transient volatile List<T> left;
+    private transient volatile List<T> right;
+
+    // all elements, once the rope was flattened:
+    private transient volatile List<T> flattened;
+
+    private RopeList(List<T> left, List<T> right) {
+        this.left = left;
+        this.right = right;
+        this.size = left.size() + right.size();
+    }
+
+    /**
+     * Concatenates two lists, without copying any of their elements.
+     *
+     * @param first  the first list (may be null)
+     * @param second the second list (may be null)
+     * @param <T>    type parameter for the elements
+     * @return a list of the first list's elements, followed by the second one's
+     */
+    public static <T> List<T> concat(List<T> first, List<T> second) {
+        if (first == null || first.isEmpty()) {
+            return (second != null) ? second : new LinkedList<>();
+        }
+        if (second == null || second.isEmpty()) {
+            return first;
+        }
+        return new RopeList<>(first, second);
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return flatten().get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private List<T> flatten() {
+        final List<T> elements = flattened;
+        if (elements != null) {
+            return elements;
+        }
+        synchronized (this) {
+            if (flattened == null) {
+                final List<T> result = new ArrayList<>(size);
+                appendSegments(this, result);
+                // publish the flattened list before dropping the segments (see appendSegments()):
+                flattened = result;
+                left = null;
+                right = null;
+            }
+            return flattened;
+        }
+    }
+
+    /**
+     * Appends all elements of the given rope, walking its segments from left to right. Uses an
+     * explicit stack, as ropes built by a chain of concatenations can be arbitrarily deep.
+     */
+    private static <T> void appendSegments(RopeList<T> rope, List<T> result) {
+        final Deque<List<T>> segments = new ArrayDeque<>();
+        segments.push(rope);
+        while (!segments.isEmpty()) {
+            final List<T> segment = segments.pop();
+            if (segment instanceof RopeList) {
+                final RopeList<T> node = (RopeList<T>) segment;
+                final List<T> nodeLeft = node.left;
+                final List<T> nodeRight = node.right;
+                if (nodeLeft == null || nodeRight == null) {
+                    // flattened concurrently, the segments were dropped after publishing the result:
+                    result.addAll(node.flattened);
+                } else {
+                    segments.push(nodeRight);
+                    segments.push(nodeLeft);
+                }
+            } else {
+                result.addAll(segment);
+            }
+        }
+    }
+
+    private Object writeReplace() {
+        // keeps the serialized form (e.g. of a partial result) independent of this class:
+        return new ArrayList<>(this);
+    }
+}
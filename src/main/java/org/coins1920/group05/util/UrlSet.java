@@ -0,0 +1,123 @@
+package org.coins1920.group05.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * The visited (or failed) URLs of a fetching run: an insertion-ordered list of URLs without
+ * duplicates, whose contains() is a hash lookup, i.e. O(1) instead of the O(n) of a plain list.
+ * Being a List, it fits into FetchingResult's fields (and older, serialized partial results
+ * still can be read).
+ * <p>
+ * URLs are compared by a normalized key: the scheme and host are left out (so that the absolute
+ * URLs of pagination links match the relative ones the fetchers start with), as are fragments
+ * and trailing '?' or '&' characters. The path is kept as it is, so URL templates must be
+ * expanded before they are added (see RestClientHelper.expand()): "/repos/{owner}/{board}/issues"
+ * would be the same key for all repos. URLs can be appended, but not removed.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class UrlSet extends AbstractList<String> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 2908736187212604583L;
+
+    private static final Pattern SCHEME_AND_HOST = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]*://[^/?#]*");
+
+    // the URLs as they were added:
+    private final List<String> urls = new ChunkedList<>();
+
+    // ...and their normalized keys:
+    private transient Set<String> keys = new HashSet<>();
+
+    public UrlSet() {
+    }
+
+    public UrlSet(Collection<String> urls) {
+        addAll(urls);
+    }
+
+    /**
+     * Turns any collection of URLs into a UrlSet (if it isn't one already).
+     *
+     * @param urls the URLs (may be null)
+     * @return the UrlSet
+     */
+    public static UrlSet of(Collection<String> urls) {
+        if (urls instanceof UrlSet) {
+            return (UrlSet) urls;
+        }
+        return (urls == null) ? new UrlSet() : new UrlSet(urls);
+    }
+
+    /**
+     * Computes the normalized key of a URL, e.g. "/repos/o/b/issues?page=2" for
+     * "https://api.github.com/repos/o/b/issues?page=2#top".
+     *
+     * @param url the URL
+     * @return the key
+     */
+    public static String keyOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        String key = SCHEME_AND_HOST.matcher(url.trim()).replaceFirst("");
+        final int fragmentStart = key.indexOf('#');
+        if (fragmentStart >= 0) {
+            key = key.substring(0, fragmentStart);
+        }
+        while (key.endsWith("?") || key.endsWith("&")) {
+            key = key.substring(0, key.length() - 1);
+        }
+        return key.isEmpty() ? "/" : key;
+    }
+
+    /**
+     * Appends a URL, unless it is already part of this set.
+     *
+     * @param url the URL
+     * @return true, if the URL was appended
+     */
+    @Override
+    public boolean add(String url) {
+        if (url == null || !keys.add(keyOf(url))) {
+            return false;
+        }
+        urls.add(url);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends String> urls) {
+        boolean changed = false;
+        for (String url : urls) {
+            changed |= add(url);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean contains(Object url) {
+        return (url instanceof String) && keys.contains(keyOf((String) url));
+    }
+
+    @Override
+    public String get(int index) {
+        return urls.get(index);
+    }
+
+    @Override
+    public int size() {
+        return urls.size();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        keys = new HashSet<>();
+        urls.forEach(u -> keys.add(keyOf(u)));
+    }
+}
@@ -0,0 +1,204 @@
+package org.coins1920.group05;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.coins1920.group05.fetcher.CheckpointJournal;
+import org.coins1920.group05.fetcher.FetchingResult;
+import org.coins1920.group05.fetcher.PartialFetchingResult;
+import org.coins1920.group05.model.github.rest.Comment;
+import org.coins1920.group05.model.github.rest.Issue;
+import org.coins1920.group05.model.github.rest.User;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the CheckpointJournal.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class CheckpointJournalTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final String owner = "linuxmint";
+    private final String board = "cinnamon-spices-applets";
+
+    @Test
+    public void testCheckpointJournalReplay() throws IOException {
+        final String folder = temporaryFolder.newFolder().getAbsolutePath();
+        final List<Issue> issues = testIssues();
+        final FetchingResult<Issue> issueFetchingResult = new FetchingResult<>(
+                issues, true, io.vavr.collection.List.of("/repos/o/b/issues?page=1").toJavaList(),
+                io.vavr.collection.List.of("/repos/o/b/issues?page=2").toJavaList());
+
+        try (CheckpointJournal journal = CheckpointJournal.open(owner, board, folder)) {
+            journal.appendIssues(issueFetchingResult);
+            journal.appendComments(issues.get(0), getTestCommentForIssue(issues.get(0)));
+        }
+
+        // a record that was only partly written when the JVM was killed:
+        final File journalFile = CheckpointJournal.journalFile(owner, board, folder);
+        final long validLength = journalFile.length();
+        try (FileOutputStream out = new FileOutputStream(journalFile, true)) {
+            out.write(new byte[]{0, 0, 1, 0, 2, '{'});
+        }
+
+        final PartialFetchingResult<Issue, User, Comment> replayed = CheckpointJournal.replay(owner, board, folder);
+        assertThat(journalFile.length(), is(validLength));
+        assertThat(replayed.getIssueFetchingResult().getEntities().size(), is(2));
+        assertThat(replayed.getIssueFetchingResult().getEntities().get(1).getTitle(), is("Super Title 2"));
+        assertThat(replayed.getIssueFetchingResult().isRateLimitOccurred(), is(true));
+        assertThat(replayed.getIssueFetchingResult().getVisitedUrls().contains("/repos/o/b/issues?page=1"), is(true));
+        assertThat(replayed.getIssueFetchingResult().getFailedUrls().size(), is(1));
+        assertThat(replayed.getCommentsFetchingResults().size(), is(1));
+        assertThat(replayed.getCommentsFetchingResults().get(0).getFirst().getNumber(), is("12345"));
+        assertThat(replayed.getCommentsFetchingResults().get(0).getSecond().getEntities().get(0).getBody(),
+                is("Bla blubb bla"));
+
+        // the next run continues the journal:
+        try (CheckpointJournal journal = CheckpointJournal.open(owner, board, folder)) {
+            journal.appendIssues(new FetchingResult<>(
+                    new LinkedList<>(), false, io.vavr.collection.List.of("/repos/o/b/issues?page=2").toJavaList(),
+                    new LinkedList<>()));
+        }
+        assertThat(CheckpointJournal.replay(owner, board, folder)
+                .getIssueFetchingResult()
+                .getVisitedUrls()
+                .size(), is(2));
+    }
+
+    @Test
+    public void testHeaderAndCompressedRecords() throws IOException {
+        final String folder = temporaryFolder.newFolder().getAbsolutePath();
+        assertThat(CheckpointJournal.readHeader(owner, board, folder).isPresent(), is(false));
+
+        final List<Issue> issues = new LinkedList<>();
+        for (int n = 0; n < 100; n++) {
+            final Issue issue = new Issue();
+            issue.setNumber(String.valueOf(n));
+            issue.setTitle("The same old title, over and over again. The same old title, over and over again.");
+            issue.setState("open");
+            issues.add(issue);
+        }
+        try (CheckpointJournal journal = CheckpointJournal.open(owner, board, folder)) {
+            journal.appendIssues(new FetchingResult<>(issues));
+        }
+
+        // the header can be read on its own:
+        final Optional<CheckpointJournal.Header> header = CheckpointJournal.readHeader(owner, board, folder);
+        assertThat(header.isPresent(), is(true));
+        assertThat(header.get().getVersion(), is(2));
+        assertThat(header.get().getOwner(), is(owner));
+        assertThat(header.get().getBoard(), is(board));
+        assertThat(header.get().getCreatedAt(), is(not(nullValue())));
+
+        // the records are compressed:
+        final File journalFile = CheckpointJournal.journalFile(owner, board, folder);
+        assertThat(journalFile.length() - header.get().getLength(),
+                is(lessThan((long) new ObjectMapper().writeValueAsBytes(issues).length / 4)));
+        assertThat(CheckpointJournal.replay(owner, board, folder).getIssueFetchingResult().getEntities().size(),
+                is(100));
+    }
+
+    @Test
+    public void testUncompressedJournalIsStillReplayed() throws IOException {
+        final String folder = temporaryFolder.newFolder().getAbsolutePath();
+        final byte[] payload = new ObjectMapper().writeValueAsBytes(new FetchingResult<>(testIssues()));
+        final CRC32 crc = new CRC32();
+        crc.update(1);
+        crc.update(payload);
+
+        // a journal of version 1 (no header fields, uncompressed JSON):
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(
+                CheckpointJournal.journalFile(owner, board, folder)))) {
+            out.writeInt(0x434a524e);
+            out.writeInt(1);
+            out.writeInt(payload.length);
+            out.writeByte(1);
+            out.write(payload);
+            out.writeInt((int) crc.getValue());
+        }
+        assertThat(CheckpointJournal.readHeader(owner, board, folder).get().getVersion(), is(1));
+
+        // ...that is continued in its own format:
+        try (CheckpointJournal journal = CheckpointJournal.open(owner, board, folder)) {
+            journal.appendIssues(new FetchingResult<>(testIssues()));
+        }
+        assertThat(CheckpointJournal.replay(owner, board, folder).getIssueFetchingResult().getEntities().size(),
+                is(4));
+    }
+
+    @Test
+    public void testConcurrentAppendsShareForces() throws Exception {
+        final String folder = temporaryFolder.newFolder().getAbsolutePath();
+        final int threadCount = 8;
+        final int recordsPerThread = 50;
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        final CheckpointJournal journal = CheckpointJournal.open(owner, board, folder);
+        final List<Future<?>> futures = new LinkedList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final int thread = t;
+            futures.add(executorService.submit(() -> {
+                for (int n = 0; n < recordsPerThread; n++) {
+                    final Issue issue = new Issue();
+                    issue.setNumber(thread + "-" + n);
+                    journal.appendComments(issue, getTestCommentForIssue(issue));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        journal.close();
+
+        // every record is replayed, although (most likely) fewer forces were needed:
+        final PartialFetchingResult<Issue, User, Comment> replayed = CheckpointJournal.replay(owner, board, folder);
+        assertThat(replayed.getCommentsFetchingResults().size(), is(threadCount * recordsPerThread));
+        assertThat(journal.getForces(), is(lessThanOrEqualTo((long) threadCount * recordsPerThread)));
+        assertThat(journal.getForces(), is(greaterThan(0L)));
+    }
+
+    private FetchingResult<Comment> getTestCommentForIssue(Issue issue) {
+        final Comment comment = new Comment();
+        comment.setBody("Bla blubb bla");
+        return new FetchingResult<>(io.vavr.collection.List.of(comment).toJavaList());
+    }
+
+    private List<Issue> testIssues() {
+        final List<Issue> issues = new LinkedList<>();
+
+        final Issue issue1 = new Issue();
+        issue1.setNumber("12345");
+        issue1.setTitle("Test Title 1");
+        issue1.setUrl("http:/i.am.a/url");
+        issues.add(issue1);
+
+        final Issue issue2 = new Issue();
+        issue2.setNumber("76543");
+        issue2.setTitle("Super Title 2");
+        issue2.setUrl("http:/gonna.persist.them/all");
+        issues.add(issue2);
+
+        return issues;
+    }
+}
@@ -0,0 +1,66 @@
+package org.coins1920.group05;
+
+import org.coins1920.group05.util.ChunkedList;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the append-only, chunked list the fetching results are collected in.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class ChunkedListTest {
+
+    @Test
+    public void testAppendAndGetAcrossChunks() {
+        final List<Integer> list = new ChunkedList<>();
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            list.add(i);
+            expected.add(i);
+        }
+
+        assertThat(list.size(), is(5000));
+        // the first elements of the first, second and third chunk:
+        assertThat(list.get(0), is(0));
+        assertThat(list.get(16), is(16));
+        assertThat(list.get(48), is(48));
+        assertThat(list.get(4999), is(4999));
+        assertThat(list, is(equalTo(expected)));
+
+        list.set(47, -47);
+        assertThat(list.get(47), is(-47));
+        assertThat(list.get(48), is(48));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetBeyondSize() {
+        final List<String> list = new ChunkedList<>();
+        list.add("a");
+        list.get(1);
+    }
+
+    @Test
+    public void testSerializedAsArrayList() throws IOException, ClassNotFoundException {
+        final List<String> list = new ChunkedList<>();
+        list.add("a");
+        list.add("b");
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(list);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final Object deserialized = in.readObject();
+            assertThat(deserialized, is(instanceOf(ArrayList.class)));
+            assertThat(deserialized, is(equalTo(list)));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.coins1920.group05;
+
+import org.coins1920.group05.fetcher.http.CircuitBreaker;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the per-host circuit breaker.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class CircuitBreakerTest {
+
+    private static final String HOST = "api.github.com";
+
+    private final Clock clock = Clock.fixed(Instant.ofEpochSecond(1575728400L), ZoneId.of("UTC"));
+
+    @Test
+    public void testCircuitOpensAfterTooManyFailures() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(HOST, 3, 60 * 1000, clock);
+        circuitBreaker.acquire();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(circuitBreaker.getTimesOpened(), is(1L));
+
+        try {
+            circuitBreaker.acquire();
+            fail("The circuit should be open!");
+        } catch (CircuitBreaker.CircuitOpenException e) {
+            assertThat(e.getRetryInMillis(), is(60 * 1000L));
+        }
+        assertThat(circuitBreaker.getRejectedRequests(), is(1L));
+    }
+
+    @Test
+    public void testHalfOpenCircuitLetsOneTrialThrough() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(HOST, 1, 0, clock);
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+
+        // the circuit is half-open right away, but only for a single request:
+        circuitBreaker.acquire();
+        assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.HALF_OPEN));
+        try {
+            circuitBreaker.acquire();
+            fail("Only a single trial request should be let through!");
+        } catch (CircuitBreaker.CircuitOpenException e) {
+            assertThat(circuitBreaker.getRejectedRequests(), is(1L));
+        }
+
+        // the trial succeeded:
+        circuitBreaker.onSuccess();
+        assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+        circuitBreaker.acquire();
+    }
+
+    @Test
+    public void testAbandonedTrialIsEnded() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(HOST, 1, 0, clock);
+        circuitBreaker.onFailure();
+
+        // the trial request threw something else than a RestClientException:
+        final long trial = circuitBreaker.acquire();
+        assertThat(trial, is(not(0L)));
+        circuitBreaker.endTrial(trial);
+        assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.HALF_OPEN));
+
+        // ...so the next request is the trial (and ending the former one again changes nothing):
+        final long nextTrial = circuitBreaker.acquire();
+        circuitBreaker.endTrial(trial);
+        try {
+            circuitBreaker.acquire();
+            fail("Only a single trial request should be let through!");
+        } catch (CircuitBreaker.CircuitOpenException e) {
+            assertThat(circuitBreaker.getRejectedRequests(), is(1L));
+        }
+        circuitBreaker.onSuccess();
+        circuitBreaker.endTrial(nextTrial);
+        assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+    }
+}
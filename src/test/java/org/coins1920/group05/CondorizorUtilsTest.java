@@ -0,0 +1,156 @@
+package org.coins1920.group05;
+
+import org.coins1920.group05.condorizor.CondorizorUtils;
+import org.coins1920.group05.fetcher.FetchingResult;
+import org.coins1920.group05.model.github.rest.Comment;
+import org.coins1920.group05.model.github.rest.Issue;
+import org.coins1920.group05.util.Pair;
+import org.coins1920.group05.util.UrlSet;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the CondorizorUtils.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class CondorizorUtilsTest {
+
+    @Test
+    public void testMergeById() {
+        final List<Issue> storedIssues = testIssues();
+        storedIssues.get(0).setId("1");
+        storedIssues.get(1).setId("2");
+
+        final Issue changedIssue = new Issue();
+        changedIssue.setId("1");
+        changedIssue.setTitle("Changed Title 1");
+        final Issue newIssue = new Issue();
+        newIssue.setId("3");
+
+        final List<Issue> mergedIssues = CondorizorUtils.mergeById(
+                storedIssues, io.vavr.collection.List.of(changedIssue, newIssue).toJavaList(), Issue::getId);
+        assertThat(mergedIssues.size(), is(3));
+        // the changed issue keeps its position:
+        assertThat(mergedIssues.get(0).getTitle(), is("Changed Title 1"));
+        assertThat(mergedIssues.get(1).getTitle(), is("Super Title 2"));
+        assertThat(mergedIssues.get(2).getId(), is("3"));
+    }
+
+    @Test
+    public void testCombineCommentsFetchingResultsByIssue() {
+        final List<Issue> formerIssues = testIssues();
+        final List<Pair<Issue, FetchingResult<Comment>>> formerResults = formerIssues
+                .stream()
+                .map(i -> new Pair<>(i, new FetchingResult<Comment>(
+                        new LinkedList<>(), true, new LinkedList<>(), io.vavr.collection.List.of(i.getUrl() + "/comments").toJavaList())))
+                .collect(Collectors.toList());
+
+        // the same issues, but other instances (as if they were read from a partial result):
+        final List<Issue> retriedIssues = testIssues();
+        final List<Pair<Issue, FetchingResult<Comment>>> retriedResults = retriedIssues
+                .stream()
+                .map(i -> new Pair<>(i, new FetchingResult<>(
+                        io.vavr.collection.List.of(new Comment()).toJavaList(), false,
+                        io.vavr.collection.List.of(i.getUrl() + "/comments").toJavaList(), new LinkedList<>())))
+                .collect(Collectors.toList());
+
+        final List<Pair<Issue, FetchingResult<Comment>>> combinedResults = CondorizorUtils
+                .combineCommentsFetchingResults(formerResults, retriedResults);
+        assertThat(combinedResults.size(), is(2));
+        // the latest instance of each issue is kept:
+        assertThat(combinedResults.get(0).getFirst(), is(sameInstance(retriedIssues.get(0))));
+        assertThat(combinedResults.get(1).getFirst(), is(sameInstance(retriedIssues.get(1))));
+        assertThat(combinedResults.get(0).getSecond().getEntities().size(), is(1));
+        assertThat(combinedResults.get(0).getSecond().getVisitedUrls().size(), is(1));
+        assertThat(combinedResults.get(0).getSecond().getFailedUrls().size(), is(1));
+        assertThat(combinedResults.get(0).getSecond().isRateLimitOccurred(), is(true));
+    }
+
+    @Test
+    public void testCombineIssueCommentsPairsScalesLinearly() {
+        final int issueCount = 100_000;
+        final List<Pair<Issue, List<Comment>>> oldComments = new LinkedList<>();
+        final List<Pair<Issue, List<Comment>>> newComments = new LinkedList<>();
+        for (int n = 0; n < issueCount; n++) {
+            final Issue issue = new Issue();
+            issue.setId(String.valueOf(n));
+            final Pair<Issue, List<Comment>> pair = new Pair<>(issue, io.vavr.collection.List.of(new Comment()).toJavaList());
+            oldComments.add(pair);
+            // every other issue is part of both lists:
+            if (n % 2 == 0) {
+                newComments.add(pair);
+            }
+        }
+
+        final List<Pair<Issue, List<Comment>>> allComments = CondorizorUtils
+                .combineIssueCommentsPairs(oldComments, newComments);
+        assertThat(allComments.size(), is(issueCount));
+        assertThat(allComments.get(issueCount - 1).getFirst().getId(), is(String.valueOf(issueCount - 1)));
+    }
+
+    @Test
+    public void testMergeByIdKeepsTheLastEntryOfAnId() {
+        final Issue storedIssue = new Issue();
+        storedIssue.setId("1");
+        storedIssue.setUpdatedAt("2019-12-08T09:00:00Z");
+        final Issue olderIssue = new Issue();
+        olderIssue.setId("1");
+        olderIssue.setUpdatedAt("2019-12-01T09:00:00Z");
+
+        // the entry that comes last wins, even if it's an older version:
+        final List<Issue> mergedIssues = CondorizorUtils.mergeById(
+                io.vavr.collection.List.of(storedIssue).toJavaList(),
+                io.vavr.collection.List.of(olderIssue).toJavaList(),
+                Issue::getId);
+        assertThat(mergedIssues.size(), is(1));
+        assertThat(mergedIssues.get(0), is(sameInstance(olderIssue)));
+    }
+
+    @Test
+    public void testCombineIssueFetchingResultsSharesNoUrlSets() {
+        final List<Issue> issues = testIssues();
+        final FetchingResult<Issue> fr1 = new FetchingResult<>(
+                io.vavr.collection.List.of(issues.get(0)).toJavaList(), false,
+                new UrlSet(io.vavr.collection.List.of("/repos/o/b/issues?page=1").toJavaList()), new UrlSet());
+        final FetchingResult<Issue> fr2 = new FetchingResult<>(
+                io.vavr.collection.List.of(issues.get(1)).toJavaList(), true,
+                new UrlSet(), new UrlSet(io.vavr.collection.List.of("/repos/o/b/issues?page=2").toJavaList()));
+
+        final FetchingResult<Issue> combined = CondorizorUtils.combineIssueFetchingResults(fr1, fr2);
+        assertThat(combined.getEntities(), is(io.vavr.collection.List.of(issues.get(0), issues.get(1)).toJavaList()));
+        assertThat(combined.isRateLimitOccurred(), is(true));
+        assertThat(combined.getVisitedUrls(), is(not(sameInstance(fr1.getVisitedUrls()))));
+        assertThat(combined.getFailedUrls(), is(not(sameInstance(fr2.getFailedUrls()))));
+
+        // neither does a union with an empty result:
+        final FetchingResult<Issue> union = FetchingResult.union(fr1, new FetchingResult<>());
+        union.getVisitedUrls().add("/repos/o/b/issues?page=3");
+        assertThat(fr1.getVisitedUrls().size(), is(1));
+    }
+
+    private List<Issue> testIssues() {
+        final List<Issue> issues = new LinkedList<>();
+
+        final Issue issue1 = new Issue();
+        issue1.setNumber("12345");
+        issue1.setTitle("Test Title 1");
+        issue1.setUrl("http:/i.am.a/url");
+        issues.add(issue1);
+
+        final Issue issue2 = new Issue();
+        issue2.setNumber("76543");
+        issue2.setTitle("Super Title 2");
+        issue2.setUrl("http:/gonna.persist.them/all");
+        issues.add(issue2);
+
+        return issues;
+    }
+}
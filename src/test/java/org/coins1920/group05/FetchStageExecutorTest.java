@@ -0,0 +1,62 @@
+package org.coins1920.group05;
+
+import org.coins1920.group05.fetcher.FetchStageExecutor;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the executor for the blocking fetch stages.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class FetchStageExecutorTest {
+
+    @Test
+    public void testStageLimitAndOrder() {
+        final int maxConcurrentCommentFetches = 4;
+        final FetchStageExecutor executor = new FetchStageExecutor(1, maxConcurrentCommentFetches, 1);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        final List<Integer> items = IntStream.range(0, 40).boxed().collect(Collectors.toList());
+        final List<Integer> results = executor.mapAll(FetchStageExecutor.Stage.COMMENTS, items, i -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                // a (slow) blocking request:
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return i * 2;
+        });
+
+        // the results come in the same order as the items:
+        assertThat(results.size(), is(items.size()));
+        assertThat(results.get(0), is(0));
+        assertThat(results.get(39), is(78));
+
+        // ...and the stage's limit was never exceeded:
+        assertThat(maxRunning.get(), is(greaterThan(1)));
+        assertThat(maxRunning.get(), is(lessThanOrEqualTo(maxConcurrentCommentFetches)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFailingTaskIsRethrown() {
+        final FetchStageExecutor executor = new FetchStageExecutor(2, 2, 2);
+        executor.mapAll(FetchStageExecutor.Stage.USERS, IntStream.range(0, 5).boxed().collect(Collectors.toList()), i -> {
+            if (i == 3) {
+                throw new IllegalArgumentException("No such user!");
+            }
+            return i;
+        });
+    }
+}
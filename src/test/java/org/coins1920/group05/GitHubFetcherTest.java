@@ -1,19 +1,52 @@
 package org.coins1920.group05;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.vavr.control.Either;
+import org.coins1920.group05.condorizor.CondorizorUtils;
+import org.coins1920.group05.condorizor.FetchedRepo;
+import org.coins1920.group05.condorizor.GitHubOrgCondorizor;
+import org.coins1920.group05.condorizor.GitHubRepoCondorizor;
+import org.coins1920.group05.fetcher.CheckpointJournal;
 import org.coins1920.group05.fetcher.FetchingResult;
+import org.coins1920.group05.fetcher.GitHubFetcherConfig;
 import org.coins1920.group05.fetcher.GitHubIssueFetcher;
+import org.coins1920.group05.fetcher.GitHubPaginator;
+import org.coins1920.group05.fetcher.UserProfileCache;
+import org.coins1920.group05.fetcher.http.HttpTransport;
+import org.coins1920.group05.fetcher.http.HttpTransportConfig;
+import org.coins1920.group05.fetcher.http.StreamingPageExtractor;
+import org.coins1920.group05.model.github.rest.Comment;
+import org.coins1920.group05.model.github.rest.Event;
 import org.coins1920.group05.model.github.rest.Issue;
 import org.coins1920.group05.model.github.rest.User;
+import org.coins1920.group05.util.Pair;
 import org.coins1920.group05.util.RestClientHelper;
 import org.coins1920.group05.util.TimeFormattingHelper;
 import org.junit.*;
+import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
@@ -27,9 +60,13 @@ public class GitHubFetcherTest {
     private static final String SAMPLE_BOARD_OWNER = "linuxmint";
     private static final String SAMPLE_BOARD_NAME1 = "cinnamon-spices-extensions";
     private static final int WIREMOCK_PORT = 8089;
+    private static final String CLOSED_ISSUES_URL = "/repos/{owner}/{board}/issues?state=closed";
 
     private static GitHubIssueFetcher fetcher;
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Rule
     public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().port(WIREMOCK_PORT));
 
@@ -73,6 +110,18 @@ public class GitHubFetcherTest {
         // 46 is the unpaginated (!) result of: (16 open tickets) + (30 closed ones) = 46 !
         // TODO: fix the expected size of the issue collection, once pagination is implemented!
         logger.info(" the first one is: " + issues.get(0));
+
+        // the visited URLs are recorded expanded, i.e. they can't be mixed up with another repo's:
+        assertThat(issueFetchingResult.getVisitedUrls(), containsInAnyOrder(
+                "/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues",
+                "/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues?state=closed"));
+        stubFor(get(urlEqualTo("/repos/" + SAMPLE_BOARD_OWNER + "/another-repo/issues"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody("[]")));
+        fetcher.fetchTickets(SAMPLE_BOARD_OWNER, "another-repo", false, issueFetchingResult.getVisitedUrls());
+        verify(1, getRequestedFor(urlEqualTo("/repos/" + SAMPLE_BOARD_OWNER + "/another-repo/issues")));
     }
 
     @Test
@@ -150,6 +199,571 @@ public class GitHubFetcherTest {
         assertThat(nextPageLink.isPresent(), is(false));
     }
 
+    @Test
+    public void testPaginationLinkParsing() {
+        final String links = "<https://api.github.com/repositories/79458054/issues?state=" +
+                "closed&page=3>; rel=\"next\", <https://api.github.com/repositories/79458054/issues?state=closed&page=8>; " +
+                "rel=\"last\", <https://api.github.com/repositories/79458054/issues?state=closed&page=1>; rel=\"first\"";
+
+        final Map<String, String> relToUrl = RestClientHelper.parseGithubPaginationLinks(links);
+        assertThat(relToUrl.size(), is(3));
+
+        final String lastLink = relToUrl.get("last");
+        assertThat(lastLink, is("https://api.github.com/repositories/79458054/issues?state=closed&page=8"));
+        assertThat(RestClientHelper.pageNumber(lastLink), is(Optional.of(8)));
+        assertThat(RestClientHelper.withPageNumber(lastLink, 5),
+                is("https://api.github.com/repositories/79458054/issues?state=closed&page=5"));
+    }
+
+    @Test
+    public void testConcurrentPagination() {
+        stubPaginatedClosedIssues(200);
+        final GitHubIssueFetcher paginatingFetcher = new GitHubIssueFetcher(
+                "some-token", true, "http://localhost:" + WIREMOCK_PORT + "/");
+
+        final FetchingResult<Issue> issueFetchingResult = paginatingFetcher
+                .retryTicketFetching(CLOSED_ISSUES_URL, SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, new LinkedList<>());
+        assertThat(issueFetchingResult.isRateLimitOccurred(), is(false));
+        assertThat(issueFetchingResult.getFailedUrls().size(), is(0));
+
+        // page 1 and 3 hold the same issues, page 2 holds different ones:
+        final List<Issue> issues = issueFetchingResult.getEntities();
+        assertThat(issues.size(), is(90));
+        assertThat(issues.get(0).getId(), is(issues.get(60).getId()));
+        assertThat(issues.get(0).getId(), is(not(issues.get(30).getId())));
+
+        // the visited URLs must be in page order:
+        assertThat(issueFetchingResult.getVisitedUrls().size(), is(3));
+        assertThat(issueFetchingResult.getVisitedUrls().get(1), endsWith("page=2"));
+        assertThat(issueFetchingResult.getVisitedUrls().get(2), endsWith("page=3"));
+    }
+
+    @Test
+    public void testConcurrentPaginationWithRateLimit() {
+        stubPaginatedClosedIssues(403);
+        final GitHubIssueFetcher paginatingFetcher = new GitHubIssueFetcher(
+                "some-token", true, "http://localhost:" + WIREMOCK_PORT + "/");
+
+        final FetchingResult<Issue> issueFetchingResult = paginatingFetcher
+                .retryTicketFetching(CLOSED_ISSUES_URL, SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, new LinkedList<>());
+        assertThat(issueFetchingResult.isRateLimitOccurred(), is(true));
+        assertThat(issueFetchingResult.getEntities().size(), is(60));
+        assertThat(issueFetchingResult.getVisitedUrls().size(), is(2));
+        assertThat(issueFetchingResult.getFailedUrls().size(), is(1));
+        assertThat(issueFetchingResult.getFailedUrls().get(0), endsWith("page=3"));
+    }
+
+    @Test
+    public void testSequentialPaginationOfManyPages() {
+        // 10,000 pages that are linked by "next" links only, i.e. have to be fetched one by one:
+        final int pages = 10_000;
+        final GitHubPaginator paginator = new GitHubPaginator(true, 1);
+        final FetchingResult<Integer> result = paginator.fetchAllPages("/items?page=1", url -> {
+            final int page = Integer.parseInt(url.substring(url.indexOf('=') + 1));
+            final HttpHeaders headers = new HttpHeaders();
+            if (page < pages) {
+                headers.add("Link", "</items?page=" + (page + 1) + ">; rel=\"next\"");
+            }
+            final List<Integer> items = new LinkedList<>();
+            items.add(page);
+            items.add(-page);
+            return new ResponseEntity<>(items, headers, HttpStatus.OK);
+        });
+
+        assertThat(result.isRateLimitOccurred(), is(false));
+        assertThat(result.getVisitedUrls().size(), is(pages));
+        assertThat(result.getVisitedUrls().get(pages - 1), is("/items?page=" + pages));
+        assertThat(result.getEntities().size(), is(2 * pages));
+        assertThat(result.getEntities().get(2 * pages - 2), is(pages));
+        assertThat(result.getEntities().get(2 * pages - 1), is(-pages));
+    }
+
+    @Test
+    public void testPageByPageCallbackAndResumption() {
+        final GitHubPaginator paginator = new GitHubPaginator(true, 1);
+        final Function<String, ResponseEntity<List<Integer>>> pageFetcher = url -> {
+            final int page = Integer.parseInt(url.substring(url.indexOf('=') + 1));
+            final HttpHeaders headers = new HttpHeaders();
+            if (page < 5) {
+                headers.add("Link", "</items?page=" + (page + 1) + ">; rel=\"next\"");
+            }
+            final List<Integer> items = new LinkedList<>();
+            items.add(page);
+            return new ResponseEntity<>(items, headers, HttpStatus.OK);
+        };
+
+        // every page is handed over on its own, together with the page following it:
+        final List<FetchingResult<Integer>> pages = new LinkedList<>();
+        paginator.fetchAllPages("/items?page=1", pageFetcher, new LinkedList<>(), pages::add);
+        assertThat(pages.size(), is(5));
+        assertThat(pages.get(0).getEntities(), contains(1));
+        assertThat(pages.get(0).getVisitedUrls(), contains("/items?page=1"));
+        assertThat(pages.get(0).getFailedUrls(), contains("/items?page=2"));
+        assertThat(pages.get(4).getFailedUrls().isEmpty(), is(true));
+
+        // a resumed run stops at the first page that was visited before:
+        final List<String> visitedUrls = new LinkedList<>();
+        visitedUrls.add("/items?page=4");
+        final FetchingResult<Integer> resumed = paginator.fetchAllPages("/items?page=2", pageFetcher, visitedUrls, p -> {
+        });
+        assertThat(resumed.getEntities(), contains(2, 3));
+    }
+
+    @Test
+    public void testResumeAfterOnlyTheOpenListingWasJournaled() throws IOException, ClassNotFoundException {
+        final String folder = temporaryFolder.newFolder().getAbsolutePath();
+        final String openIssuesUrl = "/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues";
+        stubFor(get(urlPathMatching(openIssuesUrl + "/[0-9]+/comments"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(TestUtils.readFromResourceFile("github/issue_comments.json", GitHubFetcherTest.class))));
+
+        // the JVM died after the open listing's first (and only) page and the comments of its
+        // first issue were journaled, but before the closed listing's first page was:
+        final List<Issue> openIssues = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>())
+                .getEntities();
+        try (CheckpointJournal journal = CheckpointJournal.open(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, folder)) {
+            journal.appendIssues(new FetchingResult<>(
+                    openIssues, false, io.vavr.collection.List.of(openIssuesUrl).toJavaList(), new LinkedList<>()));
+            journal.appendComments(openIssues.get(0), fetcher.fetchCommentsForTicket(openIssues.get(0), new LinkedList<>()));
+        }
+        final FetchingResult<Issue> journaledIssues = CheckpointJournal
+                .replay(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, folder)
+                .getIssueFetchingResult();
+        assertThat(journaledIssues.getEntities().size(), is(16));
+
+        // the resumed run skips the open listing, but not the closed one:
+        final FetchingResult<Issue> resumedIssues = fetcher.fetchTickets(
+                SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, true, journaledIssues.getVisitedUrls());
+        assertThat(resumedIssues.getEntities().size(), is(30));
+        assertThat(resumedIssues.getVisitedUrls(), contains(openIssuesUrl + "?state=closed"));
+        verify(1, getRequestedFor(urlEqualTo(openIssuesUrl)));
+        verify(1, getRequestedFor(urlEqualTo(openIssuesUrl + "?state=closed")));
+
+        // the condorizor resumes the same way, and it doesn't duplicate any comments:
+        final UserProfileCache offlineUserProfileCache = new UserProfileCache(
+                temporaryFolder.newFolder("users").getAbsolutePath(), 60, 100, true);
+        final FetchedRepo fetchedRepo = new GitHubRepoCondorizor(fetcher, false, false, offlineUserProfileCache)
+                .fetchGitHubRepo(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, true, folder)
+                .get();
+        assertThat(fetchedRepo.getIssues().size(), is(46));
+        assertThat(fetchedRepo.getComments().size(), is(46));
+        assertThat(fetchedRepo.getComments().stream().mapToInt(p -> p.getSecond().size()).sum(), is(46 * 3));
+        verify(1, getRequestedFor(urlEqualTo(openIssuesUrl)));
+        verify(46, getRequestedFor(urlPathMatching(openIssuesUrl + "/[0-9]+/comments")));
+    }
+
+    private void stubPaginatedClosedIssues(int statusOfLastPage) {
+        final String pageUrl = "http://localhost:" + WIREMOCK_PORT + "/repositories/79458054/issues?state=closed&page=";
+        final String links = "<" + pageUrl + "2>; rel=\"next\", <" + pageUrl + "3>; rel=\"last\"";
+        final String closedIssuesPage1 = TestUtils.readFromResourceFile(
+                "github/closed_issues_p01.json", GitHubFetcherTest.class);
+        final String closedIssuesPage2 = TestUtils.readFromResourceFile(
+                "github/closed_issues_p02.json", GitHubFetcherTest.class);
+
+        stubFor(get(urlPathEqualTo("/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues"))
+                .withQueryParam("state", matching("closed"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withHeader("Link", links)
+                        .withBody(closedIssuesPage1)));
+        stubFor(get(urlPathEqualTo("/repositories/79458054/issues"))
+                .withQueryParam("page", equalTo("2"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withHeader("Link", links)
+                        .withBody(closedIssuesPage2)));
+        stubFor(get(urlPathEqualTo("/repositories/79458054/issues"))
+                .withQueryParam("page", equalTo("3"))
+                .willReturn(aResponse()
+                        .withStatus(statusOfLastPage)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withHeader("Link", links)
+                        .withBody(closedIssuesPage1)));
+    }
+
+    @Test
+    public void testConditionalRequests() throws IOException {
+        final String etag = "\"447179d5608946ab54e41f6cd0eff961\"";
+        final String openIssuesUrl = "/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues";
+        stubFor(get(urlEqualTo(openIssuesUrl))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withHeader("ETag", etag)
+                        .withBody(TestUtils.readFromResourceFile("github/issues.json", GitHubFetcherTest.class))));
+        stubFor(get(urlEqualTo(openIssuesUrl))
+                .withHeader("If-None-Match", equalTo(etag))
+                .willReturn(aResponse()
+                        .withStatus(304)));
+
+        final GitHubFetcherConfig config = new GitHubFetcherConfig(
+                "some-token", false, "http://localhost:" + WIREMOCK_PORT + "/");
+        config.setResponseCacheDir(temporaryFolder.newFolder().getAbsolutePath());
+        final GitHubIssueFetcher cachingFetcher = new GitHubIssueFetcher(config);
+
+        // the first run fetches the full response:
+        final List<Issue> issues = cachingFetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>())
+                .getEntities();
+        assertThat(issues.size(), is(16));
+
+        // the second one gets a 304 and is served from the cache:
+        final List<Issue> cachedIssues = new GitHubIssueFetcher(config)
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>())
+                .getEntities();
+        assertThat(cachedIssues.size(), is(16));
+        assertThat(cachedIssues.get(0).getId(), is(issues.get(0).getId()));
+        verify(1, getRequestedFor(urlEqualTo(openIssuesUrl)).withHeader("If-None-Match", equalTo(etag)));
+    }
+
+    @Test
+    public void testResponseArchiveReplay() throws IOException {
+        final File archiveDir = temporaryFolder.newFolder("archive");
+        final GitHubFetcherConfig config = new GitHubFetcherConfig(
+                "some-token", false, "http://localhost:" + WIREMOCK_PORT + "/");
+        config.setResponseArchiveDir(archiveDir.getAbsolutePath());
+
+        // the first run archives all responses:
+        final List<Issue> issues = new GitHubIssueFetcher(config)
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, true, new LinkedList<>())
+                .getEntities();
+        assertThat(issues.size(), is(46));
+        assertThat(new File(archiveDir, SAMPLE_BOARD_OWNER + "-" + SAMPLE_BOARD_NAME1 + ".archive").exists(), is(true));
+
+        // the replay doesn't send a single request:
+        wireMockRule.resetAll();
+        config.setReplayArchive(true);
+        final GitHubIssueFetcher replayingFetcher = new GitHubIssueFetcher(config);
+        final FetchingResult<Issue> replayedIssues = replayingFetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, true, new LinkedList<>());
+        assertThat(replayedIssues.getEntities().size(), is(46));
+        assertThat(replayedIssues.getEntities().get(45).getId(), is(issues.get(45).getId()));
+        assertThat(replayingFetcher.getStatistics().get("replayedResponses"), is(2L));
+        verify(0, anyRequestedFor(anyUrl()));
+
+        // a response that was never archived is a 404:
+        final FetchingResult<Comment> missingComments = replayingFetcher
+                .fetchCommentsForBoard(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, new LinkedList<>());
+        assertThat(missingComments.getEntities().size(), is(0));
+        assertThat(replayingFetcher.getStatistics().get("missingArchivedResponses"), is(1L));
+    }
+
+    @Test
+    public void testWaitForRateLimit() {
+        final String openIssuesUrl = "/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues";
+        stubFor(get(urlEqualTo(openIssuesUrl))
+                .inScenario("rate limit")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse()
+                        .withStatus(403)
+                        .withHeader("Retry-After", "1"))
+                .willSetStateTo("lifted"));
+        stubFor(get(urlEqualTo(openIssuesUrl))
+                .inScenario("rate limit")
+                .whenScenarioStateIs("lifted")
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(TestUtils.readFromResourceFile("github/issues.json", GitHubFetcherTest.class))));
+
+        final GitHubIssueFetcher patientFetcher = new GitHubIssueFetcher(
+                "some-token", false, "http://localhost:" + WIREMOCK_PORT + "/");
+        final FetchingResult<Issue> issueFetchingResult = patientFetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>());
+        assertThat(issueFetchingResult.isRateLimitOccurred(), is(false));
+        assertThat(issueFetchingResult.getEntities().size(), is(16));
+        verify(2, getRequestedFor(urlEqualTo(openIssuesUrl)));
+    }
+
+    @Test
+    public void testConcurrentUserLookupsAreCoalesced() throws Exception {
+        final String userUrl = "/users/claudiux";
+        stubFor(get(urlEqualTo(userUrl))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withFixedDelay(500)
+                        .withBody("{\"login\": \"claudiux\", \"id\": 1, \"url\": \"http://localhost:"
+                                + WIREMOCK_PORT + userUrl + "\"}")));
+
+        final GitHubIssueFetcher coalescingFetcher = new GitHubIssueFetcher(
+                "some-token", false, "http://localhost:" + WIREMOCK_PORT + "/");
+        final User user = new ObjectMapper().readValue(
+                "{\"login\": \"claudiux\", \"url\": \"http://localhost:" + WIREMOCK_PORT + userUrl + "\"}",
+                User.class);
+
+        // the same user is looked up from several threads at once:
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Optional<User>>> lookups = new LinkedList<>();
+        for (int i = 0; i < threads; i++) {
+            lookups.add(executor.submit(() -> {
+                start.await();
+                return coalescingFetcher.fetchAllInfoForUser(user);
+            }));
+        }
+        start.countDown();
+
+        for (Future<Optional<User>> lookup : lookups) {
+            assertThat(lookup.get().isPresent(), is(true));
+            assertThat(lookup.get().get().getLogin(), is("claudiux"));
+        }
+        executor.shutdown();
+
+        // ...but there was only one HTTP call:
+        verify(1, getRequestedFor(urlEqualTo(userUrl)));
+        assertThat(coalescingFetcher.getUserLookups().getMisses(), is(1L));
+        assertThat(coalescingFetcher.getUserLookups().getHits(), is((long) threads - 1));
+        assertThat(coalescingFetcher.getUserLookups().getInFlight(), is(0));
+
+        // nothing is cached once the lookup is done:
+        coalescingFetcher.fetchAllInfoForUser(user);
+        verify(2, getRequestedFor(urlEqualTo(userUrl)));
+    }
+
+    @Test
+    public void testPooledCompressedTransport() {
+        final FetchingResult<Issue> issueFetchingResult = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>());
+        assertThat(issueFetchingResult.getEntities().size(), is(16));
+
+        // the responses are asked for (and transparently decompressed) as gzip:
+        verify(getRequestedFor(urlEqualTo("/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues"))
+                .withHeader("Accept-Encoding", containing("gzip")));
+
+        // all fetchers with the same transport config share the same connection pool:
+        final HttpComponentsClientHttpRequestFactory factory1 = (HttpComponentsClientHttpRequestFactory)
+                HttpTransport.requestFactory(new HttpTransportConfig());
+        final HttpComponentsClientHttpRequestFactory factory2 = (HttpComponentsClientHttpRequestFactory)
+                HttpTransport.requestFactory(new HttpTransportConfig());
+        assertThat(factory1.getHttpClient(), is(sameInstance(factory2.getHttpClient())));
+    }
+
+    @Test
+    public void testTransientFailuresAreRetried() {
+        final String openIssuesUrl = "/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues";
+        stubFor(get(urlEqualTo(openIssuesUrl))
+                .inScenario("bad gateway")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withStatus(502))
+                .willSetStateTo("recovered"));
+        stubFor(get(urlEqualTo(openIssuesUrl))
+                .inScenario("bad gateway")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(TestUtils.readFromResourceFile("github/issues.json", GitHubFetcherTest.class))));
+        // the closed issues are gone for good:
+        stubFor(get(urlPathEqualTo(openIssuesUrl))
+                .withQueryParam("state", matching("closed"))
+                .willReturn(aResponse().withStatus(404)));
+
+        final GitHubFetcherConfig config = new GitHubFetcherConfig(
+                "some-token", false, "http://localhost:" + WIREMOCK_PORT + "/");
+        config.setRetryBaseDelayMillis(10);
+        final GitHubIssueFetcher retryingFetcher = new GitHubIssueFetcher(config);
+        final FetchingResult<Issue> issueFetchingResult = retryingFetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, true, new LinkedList<>());
+
+        // the 502 was retried, the 404 was skipped (instead of being recorded as a failed URL):
+        assertThat(issueFetchingResult.isRateLimitOccurred(), is(false));
+        assertThat(issueFetchingResult.getEntities().size(), is(16));
+        assertThat(issueFetchingResult.getVisitedUrls().size(), is(2));
+        assertThat(issueFetchingResult.getFailedUrls().size(), is(0));
+        verify(2, getRequestedFor(urlEqualTo(openIssuesUrl)));
+        verify(1, getRequestedFor(urlEqualTo(openIssuesUrl + "?state=closed")));
+
+        final Map<String, Long> statistics = retryingFetcher.getStatistics();
+        assertThat(statistics.get("retries"), is(1L));
+        assertThat(statistics.get("failures.TRANSIENT"), is(1L));
+        assertThat(statistics.get("failures.PERMANENT"), is(1L));
+        assertThat(statistics.get("circuitBreakerOpenings"), is(0L));
+    }
+
+    @Test
+    public void testFetchCommentsForBoard() {
+        final String repoComments = TestUtils.readFromResourceFile(
+                "github/repo_comments.json", GitHubFetcherTest.class);
+        stubFor(get(urlEqualTo("/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues/comments?per_page=100"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(repoComments)));
+
+        final List<Issue> issues = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>())
+                .getEntities();
+        final FetchingResult<Comment> boardComments = fetcher
+                .fetchCommentsForBoard(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, new LinkedList<>());
+        assertThat(boardComments.getEntities().size(), is(4));
+
+        // join them to their issues, the comment of an unknown issue is dropped:
+        final List<Pair<Issue, FetchingResult<Comment>>> comments = CondorizorUtils
+                .joinCommentsToIssues(issues, boardComments, new LinkedList<>());
+        assertThat(comments.size(), is(16));
+        assertThat(comments.get(0).getFirst(), is(sameInstance(issues.get(0))));
+        assertThat(comments.get(0).getSecond().getEntities().size(), is(2));
+        assertThat(comments.get(0).getSecond().getVisitedUrls(),
+                contains("/repos/linuxmint/cinnamon-spices-extensions/issues/232/comments"));
+        assertThat(comments.get(1).getSecond().getEntities().size(), is(0));
+        assertThat(comments.get(2).getSecond().getEntities().size(), is(1));
+        verify(0, getRequestedFor(urlPathMatching(".*/issues/[0-9]+/comments")));
+
+        // a rate limit while streaming the comments => all issues have to be re-fetched one by one:
+        final FetchingResult<Comment> failedBoardComments = new FetchingResult<>(
+                new LinkedList<>(), true, new LinkedList<>(), new LinkedList<>());
+        final List<Pair<Issue, FetchingResult<Comment>>> failedComments = CondorizorUtils
+                .joinCommentsToIssues(issues, failedBoardComments, new LinkedList<>());
+        assertThat(failedComments.stream().allMatch(p -> p.getSecond().isRateLimitOccurred()), is(true));
+        assertThat(failedComments.get(0).getSecond().getFailedUrls(),
+                contains("/repos/linuxmint/cinnamon-spices-extensions/issues/232/comments"));
+    }
+
+    @Test
+    public void testFetchEventsForBoard() {
+        stubFor(get(urlEqualTo("/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues/events?per_page=100"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(TestUtils.readFromResourceFile("github/repo_events.json", GitHubFetcherTest.class))));
+
+        final List<Issue> issues = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>())
+                .getEntities();
+        final FetchingResult<Event> boardEvents = fetcher
+                .fetchEventsForBoard(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, new LinkedList<>());
+        assertThat(boardEvents.isRateLimitOccurred(), is(false));
+        assertThat(boardEvents.getEntities().size(), is(4));
+        assertThat(boardEvents.getEntities().get(0).getAssigner().getLogin(), is("ori"));
+
+        // only the assignments of known issues are kept:
+        final List<Pair<Issue, List<Event>>> assignments = CondorizorUtils
+                .groupAssignmentsByIssue(issues, boardEvents.getEntities());
+        assertThat(assignments.size(), is(16));
+        assertThat(assignments.get(0).getSecond().size(), is(1));
+        assertThat(assignments.get(0).getSecond().get(0).getAssignee().getLogin(), is("claudiux"));
+        assertThat(assignments.get(1).getSecond().size(), is(1));
+        assertThat(assignments.get(1).getSecond().get(0).getAssigner(), is(nullValue()));
+        assertThat(assignments.stream().mapToInt(p -> p.getSecond().size()).sum(), is(2));
+        verify(0, getRequestedFor(urlPathMatching(".*/issues/[0-9]+/events")));
+    }
+
+    @Test
+    public void testFetchEventsForTickets() {
+        stubFor(get(urlPathMatching("/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues/[0-9]+/events"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(TestUtils.readFromResourceFile("github/issue_events.json", GitHubFetcherTest.class))));
+
+        final List<Issue> issues = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>())
+                .getEntities();
+
+        // only the events of the given (i.e. changed) issues are fetched:
+        final FetchingResult<Event> events = fetcher.fetchEventsForTickets(issues.subList(0, 2));
+        assertThat(events.isRateLimitOccurred(), is(false));
+        assertThat(events.getEntities().size(), is(12));
+        assertThat(events.getEntities().get(0).getIssue(), is(sameInstance(issues.get(0))));
+        assertThat(events.getEntities().get(11).getIssue(), is(sameInstance(issues.get(1))));
+        verify(2, getRequestedFor(urlPathMatching(".*/issues/[0-9]+/events")));
+        verify(0, getRequestedFor(urlPathMatching(".*/issues/events")));
+    }
+
+    @Test
+    public void testFetchOrganization() throws IOException {
+        stubOrganization();
+
+        final File outputDir = temporaryFolder.newFolder("org");
+        final Map<String, Either<File, Pair<File, File>>> results = new GitHubOrgCondorizor(
+                new GitHubRepoCondorizor(fetcher), 2)
+                .fetchGitHubOrganization(SAMPLE_BOARD_OWNER, true, outputDir.getAbsolutePath());
+
+        // the repo without an issue tracker is skipped, all others end up in folders of their own:
+        assertThat(results.keySet(), contains("cinnamon-spices-desklets", "cinnamon-spices-themes"));
+        results.forEach((repo, result) -> {
+            assertThat(result.isRight(), is(true));
+            assertThat(result.get().getFirst().getParentFile().getName(), is(repo));
+            assertThat(result.get().getFirst().exists(), is(true));
+            assertThat(result.get().getSecond().exists(), is(true));
+        });
+        verify(0, getRequestedFor(urlPathMatching("/repos/.*/mint-artwork/.*")));
+    }
+
+    @Test
+    public void testUncreatableRepoFolderOnlyFailsThatRepo() throws IOException {
+        stubOrganization();
+
+        // a file is in the way of the themes' folder:
+        final File outputDir = temporaryFolder.newFolder("org");
+        assertThat(new File(outputDir, "cinnamon-spices-themes").createNewFile(), is(true));
+
+        final Map<String, Either<File, Pair<File, File>>> results = new GitHubOrgCondorizor(
+                new GitHubRepoCondorizor(fetcher), 2)
+                .fetchGitHubOrganization(SAMPLE_BOARD_OWNER, true, outputDir.getAbsolutePath());
+        assertThat(results.keySet(), contains("cinnamon-spices-desklets"));
+        assertThat(results.get("cinnamon-spices-desklets").isRight(), is(true));
+        verify(0, getRequestedFor(urlPathMatching("/repos/.*/cinnamon-spices-themes/.*")));
+    }
+
+    private void stubOrganization() {
+        stubFor(get(urlEqualTo("/orgs/" + SAMPLE_BOARD_OWNER + "/repos?per_page=100"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(TestUtils.readFromResourceFile("github/org_repos.json", GitHubFetcherTest.class))));
+        stubFor(get(urlPathMatching("/repos/" + SAMPLE_BOARD_OWNER + "/cinnamon-spices-(desklets|themes)/issues"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody("[]")));
+    }
+
+    @Test
+    public void testFetchTicketsUpdatedSince() {
+        final String closedIssues = TestUtils.readFromResourceFile(
+                "github/closed_issues_p01.json", GitHubFetcherTest.class);
+        stubFor(get(urlPathEqualTo("/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues"))
+                .withQueryParam("state", equalTo("all"))
+                .withQueryParam("per_page", equalTo("100"))
+                .withQueryParam("since", equalTo("2019-11-20T08:41:09Z"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(closedIssues)));
+
+        final FetchingResult<Issue> changedIssues = fetcher
+                .fetchTicketsUpdatedSince(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, "2019-11-20T08:41:09Z");
+        assertThat(changedIssues.isRateLimitOccurred(), is(false));
+        assertThat(changedIssues.getEntities().size(), is(30));
+    }
+
+    @Test
+    public void testStreamingPageExtraction() throws IOException {
+        final ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        final StreamingPageExtractor<Comment> extractor = new StreamingPageExtractor<>(objectMapper, Comment.class);
+
+        // null elements are skipped, unknown properties (e.g. "reactions") are ignored:
+        final String page = "[{\"id\": \"1\", \"body\": \"first\", \"reactions\": {\"total_count\": 2}}, null, "
+                + "{\"id\": \"2\", \"body\": \"second\", \"user\": {\"id\": \"42\", \"login\": \"bob\"}}]";
+        final ResponseEntity<List<Comment>> response = extractor.extractData(
+                new MockClientHttpResponse(page.getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+        assertThat(response.getBody().size(), is(2));
+        assertThat(response.getBody().get(0).getBody(), is("first"));
+        assertThat(response.getBody().get(1).getUser().getLogin(), is("bob"));
+
+        // an empty body is an empty page:
+        assertThat(extractor.extractData(new MockClientHttpResponse(new byte[0], HttpStatus.OK)).getBody().size(), is(0));
+    }
+
     @Test
     public void testTimestampMapping() {
         // a (ISO 8601-formatted UTC) sample timestamp straight from a GitHub response:
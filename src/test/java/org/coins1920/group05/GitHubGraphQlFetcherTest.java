@@ -0,0 +1,154 @@
+package org.coins1920.group05;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.coins1920.group05.fetcher.FetchingResult;
+import org.coins1920.group05.fetcher.GitHubGraphQlFetcher;
+import org.coins1920.group05.model.github.rest.Comment;
+import org.coins1920.group05.model.github.rest.Issue;
+import org.coins1920.group05.model.github.rest.Reaction;
+import org.coins1920.group05.util.Pair;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the GraphQL-based GitHub fetcher.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class GitHubGraphQlFetcherTest {
+
+    private static final String SAMPLE_BOARD_OWNER = "linuxmint";
+    private static final String SAMPLE_BOARD_NAME1 = "cinnamon-spices-desklets";
+    private static final int WIREMOCK_PORT = 8089;
+
+    private GitHubGraphQlFetcher fetcher;
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().port(WIREMOCK_PORT));
+
+    @Before
+    public void setUp() {
+        final String wiremockUrl = "http://localhost:" + WIREMOCK_PORT + "/";
+        final boolean paginate = true;
+        fetcher = new GitHubGraphQlFetcher("some-token", paginate, wiremockUrl);
+
+        stubGraphQl("issues(first", "\"cursor\":null", "github/graphql_issues_p01.json");
+        stubGraphQl("issues(first", "\"cursor\":\"Y3Vyc29yOnYyOpHOHg==\"", "github/graphql_issues_p02.json");
+        stubGraphQl("issue(number", "\"number\":301", "github/graphql_issue_comments.json");
+    }
+
+    @Test
+    public void testFetchIssuesWithComments() {
+        final FetchingResult<Issue> issueFetchingResult = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, true, new LinkedList<>());
+        assertThat(issueFetchingResult.isRateLimitOccurred(), is(false));
+        assertThat(issueFetchingResult.getVisitedUrls().size(), is(2));
+
+        // the issues are mapped onto the ReST model:
+        final List<Issue> issues = issueFetchingResult.getEntities();
+        assertThat(issues.size(), is(3));
+        final Issue firstIssue = issues.get(0);
+        assertThat(firstIssue.getId(), is("507180881"));
+        assertThat(firstIssue.getState(), is("closed"));
+        assertThat(firstIssue.getComments(), is("3"));
+        assertThat(firstIssue.getUser().getLogin(), is("claudiux"));
+        assertThat(firstIssue.getUser().getUrl(), is("http://localhost:" + WIREMOCK_PORT + "/users/claudiux"));
+        assertThat(firstIssue.getAssignees().length, is(1));
+        assertThat(firstIssue.getCommentsUrl(), endsWith("/repos/linuxmint/cinnamon-spices-desklets/issues/301/comments"));
+
+        // the comments came along with the issues, only one follow-up query is needed:
+        final List<Pair<Issue, FetchingResult<Comment>>> comments = fetcher
+                .fetchCommentsForTickets(issues, new LinkedList<>());
+        assertThat(comments.get(0).getSecond().getEntities().size(), is(3));
+        assertThat(comments.get(0).getSecond().getEntities().get(1).getUser().getLogin(), is("ghost"));
+        assertThat(comments.get(1).getSecond().getEntities().size(), is(0));
+        assertThat(comments.get(2).getSecond().getEntities().size(), is(1));
+        assertThat(comments.get(2).getSecond().getVisitedUrls().size(), is(1));
+
+        verify(3, postRequestedFor(urlEqualTo("/graphql")));
+        verify(0, getRequestedFor(anyUrl()));
+    }
+
+    @Test
+    public void testGraphQlErrorsTurnIntoFailedUrl() {
+        stubFor(post(urlEqualTo("/graphql"))
+                .withRequestBody(containing("\"cursor\":\"Y3Vyc29yOnYyOpHOHg==\""))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody("{\"errors\": [{\"type\": \"RATE_LIMITED\", \"message\": \"API rate limit exceeded\"}]}")));
+
+        final FetchingResult<Issue> issueFetchingResult = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, true, new LinkedList<>());
+        assertThat(issueFetchingResult.isRateLimitOccurred(), is(true));
+        assertThat(issueFetchingResult.getEntities().size(), is(2));
+        assertThat(issueFetchingResult.getFailedUrls().size(), is(1));
+
+        // the failed page can be re-fetched later on:
+        stubGraphQl("issues(first", "\"cursor\":\"Y3Vyc29yOnYyOpHOHg==\"", "github/graphql_issues_p02.json");
+        final FetchingResult<Issue> retriedIssues = fetcher.retryTicketFetching(
+                issueFetchingResult.getFailedUrls().get(0), SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, new LinkedList<>());
+        assertThat(retriedIssues.isRateLimitOccurred(), is(false));
+        assertThat(retriedIssues.getEntities().size(), is(1));
+    }
+
+    @Test
+    public void testFetchReactionsInBatches() {
+        stubGraphQl("nodes(ids", "\"ids\":[", "github/graphql_reactions_p01.json");
+        stubGraphQl("node(id", "\"cursor\":\"Y3Vyc29yOnYyOpHOAYzFdQ==\"", "github/graphql_reactions_p02.json");
+
+        final List<Issue> issues = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, true, new LinkedList<>())
+                .getEntities();
+        final Comment comment = fetcher
+                .fetchCommentsForTickets(issues, new LinkedList<>())
+                .get(0)
+                .getSecond()
+                .getEntities()
+                .get(0);
+        final String issueNodeId = issues.get(0).getNodeId();
+        assertThat(issueNodeId, is("MDU6SXNzdWU1MDcxODA4ODE="));
+        assertThat(comment.getNodeId(), is("MDEyOklzc3VlQ29tbWVudDU1NDAxMjMxMQ=="));
+
+        // all nodes are queried at once, an unknown node is simply missing:
+        final List<String> nodeIds = Arrays.asList(issueNodeId, "MDU6SXNzdWUx", comment.getNodeId());
+        final Map<String, List<Reaction>> reactions = fetcher.fetchReactions(nodeIds);
+        assertThat(reactions.size(), is(2));
+        assertThat(reactions.get(issueNodeId).size(), is(3));
+        assertThat(reactions.get(issueNodeId).get(0).getContent(), is("THUMBS_UP"));
+        assertThat(reactions.get(issueNodeId).get(0).getUser().getUrl(),
+                is("http://localhost:" + WIREMOCK_PORT + "/users/jaszhix"));
+        assertThat(reactions.get(issueNodeId).get(1).getUser().getLogin(), is("ghost"));
+        assertThat(reactions.get(issueNodeId).get(2).getContent(), is("ROCKET"));
+        assertThat(reactions.get(comment.getNodeId()).get(0).getSubjectId(), is(comment.getNodeId()));
+        verify(1, postRequestedFor(urlEqualTo("/graphql")).withRequestBody(containing("nodes(ids")));
+        verify(1, postRequestedFor(urlEqualTo("/graphql")).withRequestBody(containing("node(id")));
+
+        // the reactions are cached by node:
+        assertThat(fetcher.fetchReactions(Arrays.asList(issueNodeId, comment.getNodeId())).size(), is(2));
+        verify(1, postRequestedFor(urlEqualTo("/graphql")).withRequestBody(containing("nodes(ids")));
+    }
+
+    private void stubGraphQl(String query, String variable, String responseFile) {
+        final String response = TestUtils.readFromResourceFile(responseFile, GitHubGraphQlFetcherTest.class);
+        stubFor(post(urlEqualTo("/graphql"))
+                .withRequestBody(containing(query))
+                .withRequestBody(containing(variable))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(response)));
+    }
+}
@@ -0,0 +1,83 @@
+package org.coins1920.group05;
+
+import org.coins1920.group05.condorizor.IssueMerger;
+import org.coins1920.group05.model.github.rest.Issue;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the IssueMerger.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class IssueMergerTest {
+
+    @Test
+    public void testIssueMergerKeepsLatestVersion() {
+        final List<Issue> openIssues = testIssues();
+        openIssues.get(0).setUpdatedAt("2019-12-07T14:11:51Z");
+        openIssues.get(1).setUpdatedAt("2019-12-07T14:11:51Z");
+
+        // the first issue was closed in between, the second one was retried with an older version:
+        final Issue closedIssue = new Issue();
+        closedIssue.setUrl(openIssues.get(0).getUrl());
+        closedIssue.setState("closed");
+        closedIssue.setUpdatedAt("2019-12-08T09:00:00Z");
+        final Issue retriedIssue = new Issue();
+        retriedIssue.setUrl(openIssues.get(1).getUrl());
+        retriedIssue.setUpdatedAt("2019-12-01T09:00:00Z");
+
+        final List<Issue> mergedIssues = IssueMerger.merge(
+                openIssues,
+                io.vavr.collection.List.of(closedIssue).toJavaList(),
+                null,
+                io.vavr.collection.List.of(retriedIssue, openIssues.get(1)).toJavaList());
+        assertThat(mergedIssues.size(), is(2));
+        assertThat(mergedIssues.get(0), is(sameInstance(closedIssue)));
+        assertThat(mergedIssues.get(1), is(sameInstance(openIssues.get(1))));
+    }
+
+    @Test
+    public void testIssueMergerComparesUpdateTimesAsInstants() {
+        final Issue issue = testIssues().get(0);
+        issue.setUpdatedAt("2019-12-07T14:11:51Z");
+
+        // (the fraction would sort before the 'Z' if the timestamps were compared as strings):
+        final Issue laterIssue = new Issue();
+        laterIssue.setUrl(issue.getUrl());
+        laterIssue.setUpdatedAt("2019-12-07T14:11:51.500Z");
+        assertThat(IssueMerger.latest(laterIssue, issue), is(sameInstance(laterIssue)));
+        assertThat(IssueMerger.latest(issue, laterIssue), is(sameInstance(laterIssue)));
+
+        // an unparseable update time loses against a known one:
+        final Issue brokenIssue = new Issue();
+        brokenIssue.setUrl(issue.getUrl());
+        brokenIssue.setUpdatedAt("yesterday");
+        assertThat(IssueMerger.latest(issue, brokenIssue), is(sameInstance(issue)));
+        assertThat(IssueMerger.latest(brokenIssue, issue), is(sameInstance(issue)));
+    }
+
+    private List<Issue> testIssues() {
+        final List<Issue> issues = new LinkedList<>();
+
+        final Issue issue1 = new Issue();
+        issue1.setNumber("12345");
+        issue1.setTitle("Test Title 1");
+        issue1.setUrl("http:/i.am.a/url");
+        issues.add(issue1);
+
+        final Issue issue2 = new Issue();
+        issue2.setNumber("76543");
+        issue2.setTitle("Super Title 2");
+        issue2.setUrl("http:/gonna.persist.them/all");
+        issues.add(issue2);
+
+        return issues;
+    }
+}
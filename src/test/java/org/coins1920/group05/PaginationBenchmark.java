@@ -0,0 +1,69 @@
+package org.coins1920.group05;
+
+import org.coins1920.group05.fetcher.FetchingResult;
+import org.coins1920.group05.fetcher.GitHubPaginator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A micro benchmark for the GitHubPaginator: follows the "next" links of up to 10,000 (fake)
+ * pages with 100 entities each, without any HTTP in between. The time per page should stay
+ * (roughly) the same for any number of pages, i.e. fetching scales linearly.
+ * <p>
+ * Run it with: mvn test-compile exec:java -Dexec.mainClass=org.coins1920.group05.PaginationBenchmark -Dexec.classpathScope=test
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class PaginationBenchmark {
+
+    private static final int ENTITIES_PER_PAGE = 100;
+    private static final int[] PAGE_COUNTS = {1_000, 2_000, 5_000, 10_000};
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        final GitHubPaginator paginator = new GitHubPaginator(true, 1);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            for (int pages : PAGE_COUNTS) {
+                fetch(paginator, pages);
+            }
+        }
+
+        System.out.println("pages\tentities\tms\tns/page");
+        for (int pages : PAGE_COUNTS) {
+            long bestNanos = Long.MAX_VALUE;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                final long start = System.nanoTime();
+                final FetchingResult<Integer> result = fetch(paginator, pages);
+                bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+                if (result.getVisitedUrls().size() != pages) {
+                    throw new IllegalStateException("Expected " + pages + " pages, got "
+                            + result.getVisitedUrls().size() + "!");
+                }
+            }
+            System.out.println(pages + "\t" + (pages * ENTITIES_PER_PAGE) + "\t"
+                    + (bestNanos / 1_000_000) + "\t" + (bestNanos / pages));
+        }
+    }
+
+    private static FetchingResult<Integer> fetch(GitHubPaginator paginator, int pages) {
+        return paginator.fetchAllPages("/items?page=1", url -> {
+            final int page = Integer.parseInt(url.substring(url.indexOf('=') + 1));
+            final HttpHeaders headers = new HttpHeaders();
+            if (page < pages) {
+                headers.add("Link", "</items?page=" + (page + 1) + ">; rel=\"next\"");
+            }
+            final List<Integer> entities = new ArrayList<>(ENTITIES_PER_PAGE);
+            for (int i = 0; i < ENTITIES_PER_PAGE; i++) {
+                entities.add(page * ENTITIES_PER_PAGE + i);
+            }
+            return new ResponseEntity<>(entities, headers, HttpStatus.OK);
+        });
+    }
+}
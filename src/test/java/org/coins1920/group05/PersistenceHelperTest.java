@@ -1,8 +1,11 @@
 package org.coins1920.group05;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.coins1920.group05.fetcher.FetchingResult;
 import org.coins1920.group05.fetcher.PartialFetchingResult;
+import org.coins1920.group05.fetcher.StoredDataset;
 import org.coins1920.group05.model.github.rest.Comment;
+import org.coins1920.group05.model.github.rest.Event;
 import org.coins1920.group05.model.github.rest.Issue;
 import org.coins1920.group05.model.github.rest.User;
 import org.coins1920.group05.util.Pair;
@@ -13,11 +16,16 @@ import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -147,10 +155,11 @@ public class PersistenceHelperTest {
         final String outputDir = folder.getAbsolutePath();
         final PartialFetchingResult<Issue, User, Comment> partialFetchingResult = testResult();
 
-        // persist the test data to disc:
-        final File file = PersistenceHelper
-                .persistPartialResultsToDisk(partialFetchingResult, owner, board, outputDir);
-        assertThat(file, is(not(nullValue())));
+        // persist the test data to disc (the way older versions did):
+        final File file = new File(outputDir, owner + "-" + board + "-2019-12-07T14:11:51Z.partial");
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+            out.writeObject(partialFetchingResult);
+        }
 
         // read it from disc again:
         final PartialFetchingResult<Issue, User, Comment> partialResult = PersistenceHelper
@@ -166,6 +175,31 @@ public class PersistenceHelperTest {
     }
 
 
+    @Test
+    public void testPartialResultLookupAndDeletion() throws IOException {
+        final File folder = temporaryFolder.newFolder();
+        final String outputDir = folder.getAbsolutePath();
+        final File sourceFile = TestUtils.getFileFromResourceFolder(
+                resourceFolder + testPartialResultFileName1, PersistenceHelperTest.class);
+
+        // the partial results in sub folders (e.g. the ones of an organization's repos) are not looked at:
+        final File subFolder = new File(folder, board);
+        assertThat(subFolder.mkdir(), is(true));
+        Files.copy(sourceFile.toPath(), new File(subFolder, testPartialResultFileName1).toPath());
+        assertThat(PersistenceHelper.checkForPartialResult(owner, board, outputDir), is(false));
+
+        final File partialResult = new File(folder, testPartialResultFileName1);
+        Files.copy(sourceFile.toPath(), partialResult.toPath());
+        assertThat(PersistenceHelper.checkForPartialResult(owner, board, outputDir), is(true));
+        assertThat(PersistenceHelper.checkForPartialResult(owner, "some-other-repo", outputDir), is(false));
+
+        PersistenceHelper.deletePartialResults(owner, board, outputDir);
+        assertThat(partialResult.exists(), is(false));
+        assertThat(PersistenceHelper.checkForPartialResult(owner, board, outputDir), is(false));
+        // nothing but the partial results is touched:
+        assertThat(folder.list(), is(new String[]{board}));
+    }
+
     private PartialFetchingResult<Issue, User, Comment> testResult() {
         final List<Issue> issues = testIssues();
         final FetchingResult<Issue> issueFetchingResult = new FetchingResult<>(issues);
@@ -173,6 +207,44 @@ public class PersistenceHelperTest {
         return new PartialFetchingResult<>(issueFetchingResult, commentsFetchingResults);
     }
 
+    @Test
+    public void testPersistAndReadDataset() throws IOException, ClassNotFoundException {
+        final String folder = temporaryFolder.newFolder("datasets").getAbsolutePath();
+        assertThat(PersistenceHelper.readPersistedDataset(owner, board, folder).isPresent(), is(false));
+
+        final List<Issue> issues = testIssues();
+        final User user = new ObjectMapper().readValue("{\"id\": \"42\", \"login\": \"bob\"}", User.class);
+        final StoredDataset<Issue, Comment, Event, User> dataset = new StoredDataset<>(
+                "2019-12-07T14:11:51Z", true, issues, getTestCommentForIssue(issues.get(0)).getEntities(),
+                null, io.vavr.collection.List.of(user).toJavaList());
+        final File datasetFile = PersistenceHelper.persistDatasetToDisk(dataset, owner, board, folder);
+        assertThat(datasetFile.exists(), is(true));
+
+        // a dataset is no partial result:
+        assertThat(PersistenceHelper.checkForPartialResult(owner, board, folder), is(false));
+
+        final Optional<StoredDataset<Issue, Comment, Event, User>> readDataset = PersistenceHelper
+                .readPersistedDataset(owner, board, folder);
+        assertThat(readDataset.isPresent(), is(true));
+        assertThat(readDataset.get().getWatermark(), is("2019-12-07T14:11:51Z"));
+        assertThat(readDataset.get().getTickets().size(), is(2));
+        assertThat(readDataset.get().getComments().size(), is(1));
+        assertThat(readDataset.get().getAssignments(), is(nullValue()));
+        assertThat(readDataset.get().getMembers().get(0).getLogin(), is("bob"));
+
+        // the dataset is stored as JSON:
+        assertThat(new String(Files.readAllBytes(datasetFile.toPath()), StandardCharsets.UTF_8), startsWith("{"));
+
+        // ...but a (serialized) dataset of an older version is still read:
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(datasetFile))) {
+            out.writeObject(dataset);
+        }
+        final Optional<StoredDataset<Issue, Comment, Event, User>> olderDataset = PersistenceHelper
+                .readPersistedDataset(owner, board, folder);
+        assertThat(olderDataset.get().getWatermark(), is("2019-12-07T14:11:51Z"));
+        assertThat(olderDataset.get().getTickets().size(), is(2));
+    }
+
     private List<Pair<Issue, FetchingResult<Comment>>> testComments(List<Issue> issues) {
         return issues.stream()
                 .map(i -> new Pair<>(i, getTestCommentForIssue(i)))
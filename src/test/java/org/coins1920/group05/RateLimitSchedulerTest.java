@@ -0,0 +1,101 @@
+package org.coins1920.group05;
+
+import org.coins1920.group05.fetcher.http.RateLimitScheduler;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the RateLimitScheduler.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class RateLimitSchedulerTest {
+
+    private static final long NOW_SECONDS = 1574525340L;
+    private final Clock clock = Clock.fixed(Instant.ofEpochSecond(NOW_SECONDS), ZoneId.of("UTC"));
+
+    @Test
+    public void testNoWaitWithoutRateLimitInfo() {
+        final RateLimitScheduler scheduler = new RateLimitScheduler(true, clock);
+        assertThat(scheduler.reserve(), is(0L));
+        assertThat(scheduler.reserve(), is(0L));
+    }
+
+    @Test
+    public void testNoPacingWithPlentyOfBudget() {
+        final RateLimitScheduler scheduler = new RateLimitScheduler(true, clock);
+        scheduler.update(rateLimitHeaders(5000, 4985, NOW_SECONDS + 3600));
+        assertThat(scheduler.reserve(), is(0L));
+        assertThat(scheduler.reserve(), is(0L));
+    }
+
+    @Test
+    public void testPacingWithLowBudget() {
+        final RateLimitScheduler scheduler = new RateLimitScheduler(true, clock);
+        scheduler.update(rateLimitHeaders(5000, 10, NOW_SECONDS + 100));
+
+        // 10 requests left for 100s => one request every 10s:
+        assertThat(scheduler.reserve(), is(0L));
+        assertThat(scheduler.reserve(), is(10_000L));
+        assertThat(scheduler.reserve(), is(greaterThanOrEqualTo(20_000L)));
+    }
+
+    @Test
+    public void testWaitForResetWhenBudgetIsUsedUp() {
+        final RateLimitScheduler scheduler = new RateLimitScheduler(false, clock);
+        final HttpHeaders headers = rateLimitHeaders(5000, 0, NOW_SECONDS + 42);
+        scheduler.update(headers);
+        assertThat(scheduler.reserve(), is(42_000L));
+
+        // a 403 caused by the rate limit:
+        assertThat(scheduler.registerRateLimit(403, headers), is(true));
+        assertThat(scheduler.reserve(), is(43_000L));
+        assertThat(scheduler.getRateLimitsHit(), is(1L));
+    }
+
+    @Test
+    public void testRetryAfter() {
+        final RateLimitScheduler scheduler = new RateLimitScheduler(false, clock);
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(RateLimitScheduler.RETRY_AFTER, "30");
+        assertThat(scheduler.registerRateLimit(429, headers), is(true));
+        assertThat(scheduler.reserve(), is(30_000L));
+    }
+
+    @Test
+    public void testNoRateLimit() {
+        final RateLimitScheduler scheduler = new RateLimitScheduler(false, clock);
+
+        // a 403 for a private resource:
+        assertThat(scheduler.registerRateLimit(403, rateLimitHeaders(5000, 4000, NOW_SECONDS + 42)), is(false));
+        assertThat(scheduler.registerRateLimit(404, new HttpHeaders()), is(false));
+
+        assertThat(scheduler.millisUntilAvailable(), is(0L));
+    }
+
+    @Test
+    public void testMillisUntilAvailable() {
+        final RateLimitScheduler scheduler = new RateLimitScheduler(false, clock);
+        final HttpHeaders headers = rateLimitHeaders(5000, 0, NOW_SECONDS + 3600);
+        scheduler.update(headers);
+        assertThat(scheduler.millisUntilAvailable(), is(3_600_000L));
+        assertThat(scheduler.registerRateLimit(403, headers), is(true));
+        assertThat(scheduler.millisUntilAvailable(), is(3_601_000L));
+    }
+
+    static HttpHeaders rateLimitHeaders(long limit, long remaining, long reset) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(RateLimitScheduler.RATE_LIMIT_LIMIT, String.valueOf(limit));
+        headers.set(RateLimitScheduler.RATE_LIMIT_REMAINING, String.valueOf(remaining));
+        headers.set(RateLimitScheduler.RATE_LIMIT_RESET, String.valueOf(reset));
+        return headers;
+    }
+}
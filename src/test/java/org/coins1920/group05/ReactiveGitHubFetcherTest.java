@@ -0,0 +1,239 @@
+package org.coins1920.group05;
+
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.coins1920.group05.fetcher.FetchingResult;
+import org.coins1920.group05.fetcher.GitHubFetcherConfig;
+import org.coins1920.group05.fetcher.ReactiveGitHubIssueFetcher;
+import org.coins1920.group05.fetcher.http.FailureClass;
+import org.coins1920.group05.model.github.rest.Comment;
+import org.coins1920.group05.model.github.rest.Issue;
+import org.coins1920.group05.util.Pair;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the non-blocking (WebClient-based) GitHub fetcher.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class ReactiveGitHubFetcherTest {
+
+    private static final String SAMPLE_BOARD_OWNER = "linuxmint";
+    private static final String SAMPLE_BOARD_NAME1 = "cinnamon-spices-extensions";
+    private static final int WIREMOCK_PORT = 8089;
+
+    private static ReactiveGitHubIssueFetcher fetcher;
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().port(WIREMOCK_PORT));
+
+    @BeforeClass
+    public static void setUpClass() {
+        final boolean paginate = false;
+        fetcher = new ReactiveGitHubIssueFetcher(retryingOnceConfig(paginate));
+    }
+
+    private static GitHubFetcherConfig retryingOnceConfig(boolean paginate) {
+        final GitHubFetcherConfig config = new GitHubFetcherConfig(
+                "some-token", paginate, "http://localhost:" + WIREMOCK_PORT + "/");
+        config.setMaxRetries(1);
+        config.setRetryBaseDelayMillis(10);
+        return config;
+    }
+
+    @Before
+    public void setUp() {
+        final String openIssues = TestUtils.readFromResourceFile(
+                "github/issues.json", ReactiveGitHubFetcherTest.class);
+        stubFor(get(urlEqualTo("/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(openIssues)));
+
+        final String closedIssues = TestUtils.readFromResourceFile(
+                "github/closed_issues_p01.json", ReactiveGitHubFetcherTest.class);
+        stubFor(get(urlPathEqualTo("/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues"))
+                .withQueryParam("state", matching("closed"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(closedIssues)));
+
+        final String comments = TestUtils.readFromResourceFile(
+                "github/issue_comments.json", ReactiveGitHubFetcherTest.class);
+        stubFor(get(urlPathMatching("/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues/[0-9]+/comments"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(comments)));
+    }
+
+    @Test
+    public void testFetchIssues() {
+        final FetchingResult<Issue> issueFetchingResult = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, true, new LinkedList<>());
+        assertThat(issueFetchingResult.isRateLimitOccurred(), is(false));
+        assertThat(issueFetchingResult.getEntities(), is(not(nullValue())));
+        assertThat(issueFetchingResult.getEntities().size(), is(46));
+        assertThat(issueFetchingResult.getVisitedUrls().size(), is(2));
+    }
+
+    @Test
+    public void testFetchCommentsForTickets() {
+        final List<Issue> issues = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>())
+                .getEntities();
+        assertThat(issues.size(), is(16));
+
+        final List<Pair<Issue, FetchingResult<Comment>>> comments = fetcher
+                .fetchCommentsForTickets(issues, new LinkedList<>());
+        assertThat(comments.size(), is(16));
+        for (int i = 0; i < issues.size(); i++) {
+            // the issue order must be preserved:
+            assertThat(comments.get(i).getFirst(), is(sameInstance(issues.get(i))));
+            assertThat(comments.get(i).getSecond().getEntities().size(), is(3));
+        }
+    }
+
+    @Test
+    public void testRateLimitTurnsIntoFailedUrl() {
+        stubFor(get(urlEqualTo("/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues"))
+                .willReturn(aResponse()
+                        .withStatus(403)));
+
+        final FetchingResult<Issue> issueFetchingResult = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>());
+        assertThat(issueFetchingResult.isRateLimitOccurred(), is(true));
+        assertThat(issueFetchingResult.getEntities().size(), is(0));
+        assertThat(issueFetchingResult.getFailedUrls().size(), is(1));
+    }
+
+    @Test
+    public void testServerErrorTurnsIntoFailedUrl() {
+        final List<Issue> issues = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>())
+                .getEntities();
+        final String failingCommentsPath = issues.get(1).getCommentsUrl().replaceFirst("^https?://[^/]+", "");
+        stubFor(get(urlEqualTo(failingCommentsPath))
+                .willReturn(aResponse()
+                        .withStatus(502)));
+
+        // a single 5xx response doesn't abort the comments of all other issues:
+        final List<Pair<Issue, FetchingResult<Comment>>> comments = fetcher
+                .fetchCommentsForTickets(issues, new LinkedList<>());
+        assertThat(comments.size(), is(16));
+        assertThat(comments.get(0).getSecond().getEntities().size(), is(3));
+        assertThat(comments.get(1).getSecond().isRateLimitOccurred(), is(false));
+        assertThat(comments.get(1).getSecond().getEntities().size(), is(0));
+        assertThat(comments.get(1).getSecond().getFailedUrls(), contains(failingCommentsPath));
+
+        // (it was retried before it was given up on):
+        verify(2, getRequestedFor(urlEqualTo(failingCommentsPath)));
+    }
+
+    @Test
+    public void testConnectionResetTurnsIntoFailedUrl() {
+        final List<Issue> issues = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>())
+                .getEntities();
+        final String failingCommentsPath = issues.get(2).getCommentsUrl().replaceFirst("^https?://[^/]+", "");
+        stubFor(get(urlEqualTo(failingCommentsPath))
+                .willReturn(aResponse()
+                        .withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        // a transport error is retried and then recorded as a failed URL, just like a 5xx:
+        final long retries = fetcher.getRetryPolicy().getRetries();
+        final long transientFailures = fetcher.getRetryPolicy().getFailures(FailureClass.TRANSIENT);
+        final List<Pair<Issue, FetchingResult<Comment>>> comments = fetcher
+                .fetchCommentsForTickets(issues, new LinkedList<>());
+        assertThat(comments.size(), is(16));
+        assertThat(comments.get(1).getSecond().getEntities().size(), is(3));
+        assertThat(comments.get(2).getSecond().isRateLimitOccurred(), is(false));
+        assertThat(comments.get(2).getSecond().getEntities().size(), is(0));
+        assertThat(comments.get(2).getSecond().getFailedUrls(), contains(failingCommentsPath));
+
+        // (Reactor Netty itself re-sends a request once if its connection was reset):
+        verify(moreThanOrExactly(2), getRequestedFor(urlEqualTo(failingCommentsPath)));
+        assertThat(fetcher.getRetryPolicy().getRetries(), is(retries + 1));
+        assertThat(fetcher.getRetryPolicy().getFailures(FailureClass.TRANSIENT), is(transientFailures + 2));
+    }
+
+    @Test
+    public void testNotFoundIsSkipped() {
+        final List<Issue> issues = fetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>())
+                .getEntities();
+        final String missingCommentsPath = issues.get(1).getCommentsUrl().replaceFirst("^https?://[^/]+", "");
+        stubFor(get(urlEqualTo(missingCommentsPath))
+                .willReturn(aResponse()
+                        .withStatus(404)));
+
+        // a 404 won't ever work, so it is not re-tried later on:
+        final List<Pair<Issue, FetchingResult<Comment>>> comments = fetcher
+                .fetchCommentsForTickets(issues, new LinkedList<>());
+        assertThat(comments.get(1).getSecond().isRateLimitOccurred(), is(false));
+        assertThat(comments.get(1).getSecond().getEntities().size(), is(0));
+        assertThat(comments.get(1).getSecond().getVisitedUrls(), contains(missingCommentsPath));
+        assertThat(comments.get(1).getSecond().getFailedUrls().size(), is(0));
+    }
+
+    @Test
+    public void testFailedPageDoesNotStopItsSiblings() {
+        final String issuesUrl = "/repos/" + SAMPLE_BOARD_OWNER + "/" + SAMPLE_BOARD_NAME1 + "/issues";
+        final String pageUrl = "http://localhost:" + WIREMOCK_PORT + issuesUrl + "?page=";
+        final String issues = TestUtils.readFromResourceFile("github/issues.json", ReactiveGitHubFetcherTest.class);
+        stubFor(get(urlEqualTo(issuesUrl))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withHeader("Link", "<" + pageUrl + "2>; rel=\"next\", <" + pageUrl + "4>; rel=\"last\"")
+                        .withBody(issues)));
+        stubFor(get(urlEqualTo(issuesUrl + "?page=2"))
+                .willReturn(aResponse()
+                        .withStatus(502)));
+        stubFor(get(urlEqualTo(issuesUrl + "?page=3"))
+                .willReturn(aResponse()
+                        .withStatus(500)));
+        stubFor(get(urlEqualTo(issuesUrl + "?page=4"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withBody(issues)));
+
+        final ReactiveGitHubIssueFetcher paginatingFetcher = new ReactiveGitHubIssueFetcher(retryingOnceConfig(true));
+        final FetchingResult<Issue> issueFetchingResult = paginatingFetcher
+                .fetchTickets(SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1, false, new LinkedList<>());
+        assertThat(issueFetchingResult.isRateLimitOccurred(), is(false));
+        assertThat(issueFetchingResult.getEntities().size(), is(32));
+        assertThat(issueFetchingResult.getVisitedUrls(), contains(issuesUrl, pageUrl + "4"));
+
+        // re-fetching the first failed page walks on to the second one:
+        assertThat(issueFetchingResult.getFailedUrls(), contains(pageUrl + "2"));
+
+        // ...but not to the pages that were visited before:
+        stubFor(get(urlEqualTo(issuesUrl + "?page=3"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TestUtils.APPLICATION_JSON)
+                        .withHeader("Link", "<" + pageUrl + "4>; rel=\"next\", <" + pageUrl + "4>; rel=\"last\"")
+                        .withBody(issues)));
+        final FetchingResult<Issue> retriedIssues = paginatingFetcher
+                .retryTicketFetching(pageUrl + "3", SAMPLE_BOARD_OWNER, SAMPLE_BOARD_NAME1,
+                        issueFetchingResult.getVisitedUrls());
+        assertThat(retriedIssues.getEntities().size(), is(16));
+        verify(1, getRequestedFor(urlEqualTo(issuesUrl + "?page=4")));
+    }
+}
@@ -0,0 +1,75 @@
+package org.coins1920.group05;
+
+import org.coins1920.group05.fetcher.FetchingResult;
+import org.coins1920.group05.util.RopeList;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the rope the entities of combined fetching results are linked in.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class RopeListTest {
+
+    @Test
+    public void testConcat() {
+        final List<String> first = Arrays.asList("a", "b");
+        final List<String> second = new LinkedList<>(Arrays.asList("c"));
+
+        final List<String> rope = RopeList.concat(first, second);
+        assertThat(rope.size(), is(3));
+        assertThat(rope, is(equalTo(Arrays.asList("a", "b", "c"))));
+
+        // empty or missing segments are not linked at all:
+        assertThat(RopeList.concat(first, new LinkedList<>()), is(sameInstance(first)));
+        assertThat(RopeList.concat(null, second), is(sameInstance(second)));
+        assertThat(RopeList.concat(null, null), is(empty()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        RopeList.concat(Arrays.asList("a"), Arrays.asList("b")).add("c");
+    }
+
+    @Test
+    public void testDeepChainOfUnions() {
+        // a reduce() over many pages builds a rope that is as deep as there are pages:
+        final int pages = 100_000;
+        final List<Integer> expected = new ArrayList<>();
+        FetchingResult<Integer> result = new FetchingResult<>();
+        for (int i = 0; i < pages; i++) {
+            result = FetchingResult.union(result, new FetchingResult<>(Arrays.asList(2 * i, 2 * i + 1)));
+            expected.add(2 * i);
+            expected.add(2 * i + 1);
+        }
+
+        assertThat(result.getEntities().size(), is(2 * pages));
+        assertThat(result.getEntities().get(2 * pages - 1), is(2 * pages - 1));
+        assertThat(result.getEntities(), is(equalTo(expected)));
+    }
+
+    @Test
+    public void testSerializedAsArrayList() throws IOException, ClassNotFoundException {
+        final List<String> rope = RopeList.concat(Arrays.asList("a"), RopeList.concat(Arrays.asList("b"), Arrays.asList("c")));
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(rope);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final Object deserialized = in.readObject();
+            assertThat(deserialized, is(instanceOf(ArrayList.class)));
+            assertThat(deserialized, is(equalTo(Arrays.asList("a", "b", "c"))));
+        }
+    }
+}
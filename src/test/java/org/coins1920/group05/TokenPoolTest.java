@@ -0,0 +1,70 @@
+package org.coins1920.group05;
+
+import org.coins1920.group05.fetcher.GitHubFetcherConfig;
+import org.coins1920.group05.fetcher.http.RateLimitScheduler;
+import org.coins1920.group05.fetcher.http.TokenPool;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the TokenPool.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class TokenPoolTest {
+
+    @Test
+    public void testTokenParsing() {
+        assertThat(GitHubFetcherConfig.splitTokens(" abc, def,,abc "), is(Arrays.asList("abc", "def", "abc")));
+
+        // blank and duplicate tokens are ignored:
+        assertThat(new TokenPool(Arrays.asList("abc", "def", " ", "abc"), true).size(), is(2));
+
+        // no tokens at all => a single unauthenticated one:
+        final TokenPool anonymousPool = new TokenPool(Collections.emptyList(), true);
+        assertThat(anonymousPool.size(), is(1));
+        assertThat(anonymousPool.select().getToken(), is(nullValue()));
+    }
+
+    @Test
+    public void testSelectionByRemainingBudget() {
+        final long reset = System.currentTimeMillis() / 1000 + 3600;
+        final TokenPool tokenPool = new TokenPool(Arrays.asList("abc", "def"), false);
+
+        tokenPool.select().getScheduler().update(RateLimitSchedulerTest.rateLimitHeaders(5000, 10, reset));
+        final TokenPool.PooledToken secondToken = tokenPool.select();
+        assertThat(secondToken.getToken(), is("def"));
+
+        secondToken.getScheduler().update(RateLimitSchedulerTest.rateLimitHeaders(5000, 4000, reset));
+        assertThat(tokenPool.select().getToken(), is("def"));
+        assertThat(tokenPool.totalRemaining(), is(4010L));
+    }
+
+    @Test
+    public void testFailoverOnRateLimit() {
+        final long reset = System.currentTimeMillis() / 1000 + 3600;
+        final TokenPool tokenPool = new TokenPool(Arrays.asList("abc", "def"), false);
+        final TokenPool.PooledToken firstToken = tokenPool.select();
+        final HttpHeaders headers = RateLimitSchedulerTest.rateLimitHeaders(5000, 0, reset);
+        firstToken.getScheduler().update(headers);
+        assertThat(firstToken.getScheduler().registerRateLimit(403, headers), is(true));
+
+        // the used-up token is skipped:
+        final TokenPool.PooledToken nextToken = tokenPool.select();
+        assertThat(nextToken, is(not(firstToken)));
+        assertThat(nextToken.getScheduler().millisUntilAvailable(), is(0L));
+
+        // once all tokens are used up, the one that's available the soonest wins:
+        final HttpHeaders retryAfter = new HttpHeaders();
+        retryAfter.set(RateLimitScheduler.RETRY_AFTER, "60");
+        assertThat(nextToken.getScheduler().registerRateLimit(429, retryAfter), is(true));
+        assertThat(tokenPool.select(), is(nextToken));
+    }
+}
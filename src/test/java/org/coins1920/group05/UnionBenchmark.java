@@ -0,0 +1,78 @@
+package org.coins1920.group05;
+
+import org.coins1920.group05.fetcher.FetchingResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A micro benchmark for FetchingResult.union(): combines the results of (fake) pages with 100
+ * entities each, one page after the other (like the reductions over retried URLs do), for 1k,
+ * 10k and 100k entities in total. For comparison, it does the same with the former union that
+ * copied all entities into a new list on every call.
+ * <p>
+ * Run it with: mvn test-compile exec:java -Dexec.mainClass=org.coins1920.group05.UnionBenchmark -Dexec.classpathScope=test
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class UnionBenchmark {
+
+    private static final int ENTITIES_PER_PAGE = 100;
+    private static final int[] ENTITY_COUNTS = {1_000, 10_000, 100_000};
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            for (int entities : ENTITY_COUNTS) {
+                merge(entities, false);
+                merge(entities, true);
+            }
+        }
+
+        System.out.println("entities\tcopying (ms)\trope (ms)");
+        for (int entities : ENTITY_COUNTS) {
+            System.out.println(entities + "\t" + (bestNanos(entities, true) / 1_000_000.0)
+                    + "\t" + (bestNanos(entities, false) / 1_000_000.0));
+        }
+    }
+
+    private static long bestNanos(int entities, boolean copying) {
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            final long start = System.nanoTime();
+            final List<Integer> merged = merge(entities, copying);
+            // reading the entities is part of the cost (the rope is flattened here):
+            if (merged.get(merged.size() - 1) != entities - 1) {
+                throw new IllegalStateException("Unexpected last entity!");
+            }
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        return bestNanos;
+    }
+
+    private static List<Integer> merge(int entities, boolean copying) {
+        FetchingResult<Integer> result = new FetchingResult<>();
+        for (int page = 0; page < entities / ENTITIES_PER_PAGE; page++) {
+            final FetchingResult<Integer> pageResult = new FetchingResult<>(page(page));
+            result = copying ? copyingUnion(result, pageResult) : FetchingResult.union(result, pageResult);
+        }
+        return result.getEntities();
+    }
+
+    private static List<Integer> page(int page) {
+        final List<Integer> entities = new ArrayList<>(ENTITIES_PER_PAGE);
+        for (int i = 0; i < ENTITIES_PER_PAGE; i++) {
+            entities.add(page * ENTITIES_PER_PAGE + i);
+        }
+        return entities;
+    }
+
+    private static <U> FetchingResult<U> copyingUnion(FetchingResult<U> fetchingResult1, FetchingResult<U> fetchingResult2) {
+        return new FetchingResult<>(io.vavr.collection.List
+                .ofAll(fetchingResult1.getEntities())
+                .appendAll(fetchingResult2.getEntities())
+                .toJavaList());
+    }
+}
@@ -0,0 +1,71 @@
+package org.coins1920.group05;
+
+import org.coins1920.group05.util.UrlSet;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the hash-indexed set of visited (and failed) URLs.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class UrlSetTest {
+
+    @Test
+    public void testNormalizedKeys() {
+        assertThat(UrlSet.keyOf("https://api.github.com/repos/o/b/issues?page=2#top"),
+                is("/repos/o/b/issues?page=2"));
+        assertThat(UrlSet.keyOf("/repos/o/b/issues?page=2&"), is("/repos/o/b/issues?page=2"));
+        assertThat(UrlSet.keyOf("http://localhost:8089"), is("/"));
+        assertThat(UrlSet.keyOf(null), is(nullValue()));
+    }
+
+    @Test
+    public void testDuplicatesAreDropped() {
+        final UrlSet urls = new UrlSet();
+        assertThat(urls.add("/repos/o/b/issues"), is(true));
+        assertThat(urls.add("https://api.github.com/repos/o/b/issues?page=2"), is(true));
+        // the absolute URL of a page that was visited by its relative one:
+        assertThat(urls.add("https://api.github.com/repos/o/b/issues"), is(false));
+        assertThat(urls.add("/repos/o/b/issues?page=2#comments"), is(false));
+        assertThat(urls.add(null), is(false));
+
+        assertThat(urls, is(equalTo(Arrays.asList(
+                "/repos/o/b/issues",
+                "https://api.github.com/repos/o/b/issues?page=2"))));
+        assertThat(urls.contains("http://localhost:8089/repos/o/b/issues?page=2"), is(true));
+        assertThat(urls.contains("/repos/o/b/issues?page=3"), is(false));
+    }
+
+    @Test
+    public void testOfKeepsUrlSets() {
+        final UrlSet urls = new UrlSet(Arrays.asList("/a", "/b", "/a"));
+        assertThat(urls.size(), is(2));
+        assertThat(UrlSet.of(urls), is(sameInstance(urls)));
+        assertThat(UrlSet.of(null), is(empty()));
+    }
+
+    @Test
+    public void testSerializationRebuildsTheIndex() throws IOException, ClassNotFoundException {
+        final UrlSet urls = new UrlSet(Arrays.asList("/repos/o/b/issues", "/repos/o/b/issues/1/comments"));
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(urls);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            @SuppressWarnings("unchecked") final List<String> deserialized = (List<String>) in.readObject();
+            assertThat(deserialized, is(instanceOf(UrlSet.class)));
+            assertThat(deserialized, is(equalTo(urls)));
+            assertThat(deserialized.contains("https://api.github.com/repos/o/b/issues/1/comments"), is(true));
+            assertThat(deserialized.add("/repos/o/b/issues"), is(false));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.coins1920.group05;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.coins1920.group05.fetcher.UserProfileCache;
+import org.coins1920.group05.model.github.rest.User;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the UserProfileCache.
+ *
+ * @author Patrick Preuß (patrickp89)
+ * @author Julian Cornea (buggitheclown)
+ */
+public class UserProfileCacheTest {
+
+    private static final long NOW_SECONDS = 1574525340L;
+    private static final long TTL_SECONDS = 3600;
+
+    private final Clock clock = Clock.fixed(Instant.ofEpochSecond(NOW_SECONDS), ZoneId.of("UTC"));
+    private final Clock muchLater = Clock.offset(clock, Duration.ofSeconds(TTL_SECONDS + 1));
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCachedProfilesAreShared() throws IOException {
+        final String cacheDir = temporaryFolder.newFolder("users").getAbsolutePath();
+        final UserProfileCache cache = new UserProfileCache(cacheDir, TTL_SECONDS, 1, false, clock);
+        final User shallowUser = user("{\"id\": \"42\", \"login\": \"bob\", \"url\": \"https://api.github.com/users/bob\"}");
+        assertThat(cache.get(shallowUser).isPresent(), is(false));
+
+        cache.put(user("{\"id\": \"42\", \"login\": \"bob\", \"url\": \"https://api.github.com/users/bob\", "
+                + "\"company\": \"ACME\", \"location\": \"Cologne\"}"));
+        assertThat(cache.get(shallowUser).map(User::getCompany), is(Optional.of("ACME")));
+
+        // evicted from memory, but still on disk:
+        cache.put(user("{\"id\": \"43\", \"login\": \"alice\", \"url\": \"https://api.github.com/users/alice\"}"));
+        assertThat(cache.get(shallowUser).map(User::getLocation), is(Optional.of("Cologne")));
+
+        // another run (e.g. for another repo) sees the same profiles:
+        final UserProfileCache anotherCache = new UserProfileCache(cacheDir, TTL_SECONDS, 100, false, clock);
+        assertThat(anotherCache.get(shallowUser).isPresent(), is(true));
+        assertThat(cache.getHits(), is(2L));
+        assertThat(cache.getMisses(), is(1L));
+    }
+
+    @Test
+    public void testExpiredProfiles() throws IOException {
+        final String cacheDir = temporaryFolder.newFolder("users").getAbsolutePath();
+        final User bob = user("{\"id\": \"42\", \"login\": \"bob\", \"url\": \"https://api.github.com/users/bob\"}");
+        new UserProfileCache(cacheDir, TTL_SECONDS, 100, false, clock).put(bob);
+
+        // expired profiles have to be fetched again...
+        assertThat(new UserProfileCache(cacheDir, TTL_SECONDS, 100, false, muchLater).get(bob).isPresent(), is(false));
+
+        // ...unless we are offline:
+        assertThat(new UserProfileCache(cacheDir, TTL_SECONDS, 100, true, muchLater).get(bob).isPresent(), is(true));
+    }
+
+    private User user(String json) throws IOException {
+        return new ObjectMapper().readValue(json, User.class);
+    }
+}